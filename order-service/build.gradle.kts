@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("org.springframework.boot") version "3.3.2"
     id("io.spring.dependency-management") version "1.1.5"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.minicommerce"
@@ -15,11 +16,27 @@ java {
 
 repositories { mavenCentral() }
 
+// Spring AOT on the JVM (./gradlew bootJar -Paot): bean definitions are generated at build time and used when
+// the app runs with -Dspring.aot.enabled=true. Conditions (@ConditionalOnProperty, profiles) are evaluated at build
+// time too, so the jar only fits the configuration it was processed with; see README "Fast Startup".
+if (hasProperty("aot")) apply(plugin = "org.springframework.boot.aot")
+
+// Load-test harness (src/loadTest/java): runs the app in-process against embedded Postgres and Kafka
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     implementation("org.springframework.kafka:spring-kafka")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.6.0")
 
     runtimeOnly("org.postgresql:postgresql")
@@ -34,8 +51,93 @@ dependencies {
     testImplementation("org.flywaydb:flyway-core")
     testRuntimeOnly("org.postgresql:postgresql")
     testImplementation("org.apache.httpcomponents.client5:httpclient5:5.3.1")
+    testImplementation("net.jqwik:jqwik:1.9.1")
+
+    jmh("io.micrometer:micrometer-registry-prometheus")
+
+    "loadTestImplementation"("org.springframework.kafka:spring-kafka-test")
+    "loadTestImplementation"("io.zonky.test:embedded-postgres:2.0.7")
+    "loadTestRuntimeOnly"("io.zonky.test.postgres:embedded-postgres-binaries-linux-amd64:16.4.0")
+    "loadTestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
 }
 
 tasks.test {
     useJUnitPlatform()
 }
+
+// Microbenchmarks live in src/jmh/java; run with `./gradlew jmh` (results: build/results/jmh/results.json)
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    warmup.set("2s")
+    iterations.set(5)
+    timeOnIteration.set("2s")
+    fork.set(1)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    includeTests.set(false)
+    // e.g. -PjmhInclude=OrderMapperBenchmark to run a subset
+    (findProperty("jmhInclude") as String?)?.let { includes.add(it) }
+}
+
+// e.g. ./gradlew loadTest -Pload.rates=50,100,200 -Pload.duration=60s (reports: build/reports/load/<run>/)
+tasks.register<JavaExec>("loadTest") {
+    description = "Drives an open-loop create/get/list/cancel mix against the app on embedded Postgres and Kafka."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.minicommerce.orders.load.LoadTest")
+    maxHeapSize = (findProperty("loadHeap") as String?) ?: "1g"
+    systemProperty("load.report-dir", layout.buildDirectory.dir("reports/load").get().asFile.path)
+    project.properties.filterKeys { it.startsWith("load.") }.forEach { (k, v) -> systemProperty(k, v.toString()) }
+}
+
+// e.g. ./gradlew partitionBenchmark -Pbench.orders=2000000 (reports: build/reports/partition-bench/<run>/)
+tasks.register<JavaExec>("partitionBenchmark") {
+    description = "Compares flat and monthly-partitioned orders tables on embedded Postgres at a realistic size."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.minicommerce.orders.load.PartitionBenchmark")
+    systemProperty("bench.report-dir", layout.buildDirectory.dir("reports/partition-bench").get().asFile.path)
+    project.properties.filterKeys { it.startsWith("bench.") }.forEach { (k, v) -> systemProperty(k, v.toString()) }
+}
+
+// e.g. ./gradlew startupBenchmark -Paot -Pstartup.runs=10 (reports: build/reports/startup/<run>/)
+tasks.register<JavaExec>("startupBenchmark") {
+    description = "Times fresh JVMs to their first successful request, without and with the CDS archive and AOT."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.minicommerce.orders.load.StartupBenchmark")
+    val app = sourceSets.main.get().runtimeClasspath + (sourceSets.findByName("aot")?.runtimeClasspath ?: files())
+    dependsOn(app)
+    systemProperty("startup.aot", project.hasProperty("aot"))
+    systemProperty("startup.report-dir", layout.buildDirectory.dir("reports/startup").get().asFile.path)
+    project.properties.filterKeys { it.startsWith("startup.") }.forEach { (k, v) -> systemProperty(k, v.toString()) }
+    doFirst { systemProperty("startup.classpath", app.asPath) }
+}
+
+// e.g. ./gradlew statusEventBenchmark -Pbench.orders=500000 -Pbench.concurrency=8 (reports: build/reports/status-events/<run>/)
+tasks.register<JavaExec>("statusEventBenchmark") {
+    description = "Measures how fast the payment/fulfillment consumer drains a backlog of status events."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.minicommerce.orders.load.StatusEventBenchmark")
+    maxHeapSize = (findProperty("loadHeap") as String?) ?: "1g"
+    systemProperty("bench.report-dir", layout.buildDirectory.dir("reports/status-events").get().asFile.path)
+    project.properties.filterKeys { it.startsWith("bench.") }.forEach { (k, v) -> systemProperty(k, v.toString()) }
+}
+
+// e.g. ./gradlew jfrSummary -Pjfr.file=/tmp/order-service.jfr -Pjfr.top=20
+tasks.register<JavaExec>("jfrSummary") {
+    description = "Prints per-stage latency tables and the slowest order events from a flight recording."
+    group = "help"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("com.minicommerce.orders.jfr.OrderJfrSummary")
+    doFirst {
+        val file = findProperty("jfr.file") as String? ?: throw GradleException("Pass the recording as -Pjfr.file=...")
+        args = listOf(file, "--top", (findProperty("jfr.top") as String?) ?: "10")
+    }
+}
+
+tasks.named<Jar>("jmhJar") {
+    isZip64 = true   // the benchmark jar bundles the whole Spring runtime classpath
+}
@@ -0,0 +1,80 @@
+package com.minicommerce.orders.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minicommerce.orders.events.EventEnvelopeCodec;
+import com.minicommerce.orders.util.OrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relay-side cost of each {@code events.encoding} format for {@code order.created}: the outbox hands over the
+ * payload as JSON text, so JSON is a plain {@code getBytes} while binary parses it and lays it out by schema.
+ * The decode benchmarks are the consumer's side. Record sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventEncodingBenchmark {
+    @Param({"1", "10", "50"})
+    int items;
+
+    ObjectMapper mapper;
+    EventEnvelopeCodec codec;
+
+    UUID eventId;
+    OffsetDateTime occurredAt;
+    String payload;
+    byte[] json;
+    byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        codec = new EventEnvelopeCodec(mapper);
+
+        var order = Fixtures.order(items);
+        eventId = order.getId();
+        occurredAt = order.getCreatedAt();
+        payload = mapper.writeValueAsString(OrderMapper.toCreatedEvent(order));
+        json = jsonEncode();
+        binary = binaryEncode();
+        System.out.printf("%n[order.created, %d items] json=%d bytes, binary=%d bytes%n",
+                items, json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return codec.encode(eventId, occurredAt, payload);
+    }
+
+    @Benchmark
+    public JsonNode jsonDecode() throws Exception {
+        return mapper.readTree(json);
+    }
+
+    @Benchmark
+    public EventEnvelopeCodec.Envelope binaryDecode() {
+        return codec.decode(binary);
+    }
+}
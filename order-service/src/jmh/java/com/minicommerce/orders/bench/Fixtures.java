@@ -0,0 +1,41 @@
+package com.minicommerce.orders.bench;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic inputs shared by the benchmarks; realistic prices (two decimals, mixed magnitudes).
+ */
+final class Fixtures {
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private Fixtures() {}
+
+    static CreateOrderRequest request(int items) {
+        List<OrderItemRequest> lines = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            lines.add(new OrderItemRequest("SKU-" + i, "Item " + i, 1 + i % 3,
+                    Money.ofMinor(199 + i * 1_337L % 50_000)));
+        }
+        return new CreateOrderRequest(UUID.nameUUIDFromBytes(("c" + items).getBytes()), "USD", lines);
+    }
+
+    /**
+     * An order as it looks after persistence: ids, total and timestamps set.
+     */
+    static Order order(int items) {
+        Order order = OrderMapper.toEntity(request(items));
+        order.setCreatedAt(NOW);
+        order.setUpdatedAt(NOW);
+        return order;
+    }
+}
@@ -0,0 +1,75 @@
+package com.minicommerce.orders.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerce.orders.events.OrderCreatedEvent;
+import com.minicommerce.orders.events.Topics;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import com.minicommerce.orders.web.dto.PageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the response bodies and the created event, using the same Jackson setup as the app
+ * (Spring's builder for HTTP, spring-kafka's {@link JsonSerializer} for events).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    ObjectMapper http;
+    JsonSerializer<OrderCreatedEvent> kafka;
+
+    OrderResponse order;
+    PageResponse<OrderResponse> page;
+    OrderCreatedEvent created;
+
+    @Setup
+    public void setUp() {
+        http = Jackson2ObjectMapperBuilder.json().build();
+        kafka = new JsonSerializer<>();
+
+        order = OrderMapper.toResponse(Fixtures.order(10));
+        List<OrderResponse> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(OrderMapper.toResponse(Fixtures.order(ITEMS_PER_ORDER)));
+        }
+        page = new PageResponse<>(content, null, PAGE_SIZE, null, null, "cursor");
+        created = OrderMapper.toCreatedEvent(Fixtures.order(10));
+    }
+
+    @TearDown
+    public void tearDown() {
+        kafka.close();
+    }
+
+    @Benchmark
+    public byte[] orderResponse() throws Exception {
+        return http.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] pageResponse() throws Exception {
+        return http.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] orderCreatedEvent() {
+        return kafka.serialize(Topics.ORDER_CREATED, created);
+    }
+}
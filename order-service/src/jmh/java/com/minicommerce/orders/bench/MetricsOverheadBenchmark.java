@@ -0,0 +1,89 @@
+package com.minicommerce.orders.bench;
+
+import com.minicommerce.orders.jfr.OrderStageEvent;
+import com.minicommerce.orders.service.OrderMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of timing one order stage with the production setup (Prometheus registry, percentile histogram),
+ * against running the same work untimed. The difference is the per-stage overhead; a create has four stages.
+ * {@code timedStage} includes the Flight Recorder event while no recording is running; {@code timedStageRecording}
+ * runs under a recording with the {@code jfr} profile's 10 ms threshold, which the stage stays below.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsOverheadBenchmark {
+    private static final Supplier<Object> WORK = Object::new;
+    private static final UUID ORDER = UUID.randomUUID();
+
+    OrderMetrics.Stage stage;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        // same as management.metrics.distribution.* in application.yml
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofNanos(100_000).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        });
+        stage = new OrderMetrics(registry).operation(OrderMetrics.CREATE, "persist").stage("persist");
+    }
+
+    @Benchmark
+    public Object untimed() {
+        return WORK.get();
+    }
+
+    @Benchmark
+    public Object timedStage() {
+        return stage.record(ORDER, 3, WORK);
+    }
+
+    @Benchmark
+    public Object timedStageRecording(Recorded recorded) {
+        return stage.record(ORDER, 3, WORK);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Recorded {
+        Recording recording;
+
+        @Setup
+        public void start() {
+            recording = new Recording();
+            recording.enable(OrderStageEvent.NAME).withThreshold(Duration.ofMillis(10));
+            recording.start();
+        }
+
+        @TearDown
+        public void stop() {
+            recording.close();
+        }
+    }
+}
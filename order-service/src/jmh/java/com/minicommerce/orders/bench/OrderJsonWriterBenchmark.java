@@ -0,0 +1,91 @@
+package com.minicommerce.orders.bench;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.service.OrderView;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import com.minicommerce.orders.web.json.OrderJsonWriter;
+import com.minicommerce.orders.web.json.OrderPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List and single-order bodies: Jackson databind over the response records (what the controller did before
+ * {@code OrderJsonHttpMessageConverter}, mapping included) against {@link OrderJsonWriter} straight from the
+ * entities. Both write into a reused buffer, as into a servlet response; see {@code gc.alloc.rate.norm} for the
+ * allocation per body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderJsonWriterBenchmark {
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"20", "200"})
+    int pageSize;
+
+    ObjectMapper mapper;
+    OrderPage page;
+    OrderResponse order;
+    ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<Order> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) content.add(Fixtures.order(ITEMS_PER_ORDER));
+        page = new OrderPage(content, OrderView.FULL, null, pageSize, null, null, "cursor");
+        order = OrderMapper.toResponse(Fixtures.order(10));
+        out = new ByteArrayOutputStream(256 * 1024);
+    }
+
+    @Benchmark
+    public int pageJackson() throws IOException {
+        out.reset();
+        mapper.writeValue(out, page);
+        return out.size();
+    }
+
+    @Benchmark
+    public int pageStreaming() throws IOException {
+        out.reset();
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            new OrderJsonWriter(gen).write(page);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int orderJackson() throws IOException {
+        out.reset();
+        mapper.writeValue(out, order);
+        return out.size();
+    }
+
+    @Benchmark
+    public int orderStreaming() throws IOException {
+        out.reset();
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            new OrderJsonWriter(gen).write(order);
+        }
+        return out.size();
+    }
+}
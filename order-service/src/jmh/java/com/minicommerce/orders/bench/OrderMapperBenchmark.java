@@ -0,0 +1,66 @@
+package com.minicommerce.orders.bench;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-order CPU and allocation cost of the create path's pure-Java steps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    int items;
+
+    CreateOrderRequest request;
+    Order order;
+
+    @Setup
+    public void setUp() {
+        request = Fixtures.request(items);
+        order = Fixtures.order(items);
+    }
+
+    /** The minor-unit accumulation loop run for every created order. */
+    @Benchmark
+    public Money total() {
+        return OrderMapper.total(request.items());
+    }
+
+    /** Baseline: the same sum as the BigDecimal multiply/add loop it replaced. */
+    @Benchmark
+    public BigDecimal totalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItemRequest item : request.items()) {
+            total = total.add(item.unitPrice().toBigDecimal().multiply(BigDecimal.valueOf(item.quantity())));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Order toEntity() {
+        return OrderMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public OrderResponse toResponse() {
+        return OrderMapper.toResponse(order);
+    }
+}
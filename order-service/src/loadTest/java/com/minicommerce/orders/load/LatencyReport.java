@@ -0,0 +1,72 @@
+package com.minicommerce.orders.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes one run's results: a summary table on stdout and in {@code summary.csv}, plus an HdrHistogram percentile
+ * distribution ({@code .hgrm}, milliseconds) per rate and operation that plots directly in HdrHistogram's viewer.
+ */
+final class LatencyReport {
+    private static final String CSV_HEADER =
+            "rate,op,ok,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p99_ms";
+
+    private final Path dir;
+
+    LatencyReport(Path dir) {
+        this.dir = dir;
+    }
+
+    void write(List<OpenLoopDriver.Step> steps, PrintStream out) throws IOException {
+        Files.createDirectories(dir);
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(dir.resolve("summary.csv"), StandardCharsets.UTF_8))) {
+            csv.println(CSV_HEADER);
+            out.printf(Locale.ROOT, "%n%8s %-7s %8s %6s %9s %9s %9s %9s %9s %9s %12s%n",
+                    "rate/s", "op", "ok", "err", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+            for (OpenLoopDriver.Step step : steps) {
+                for (Workload.Op op : Workload.Op.values()) {
+                    row(step, op.name().toLowerCase(Locale.ROOT), step.response.get(op), step.service.get(op),
+                            step.errors.get(op).get(), step.throughput(op), csv, out);
+                }
+                Histogram all = step.total(step.response);
+                row(step, "all", all, step.total(step.service), step.failed(), step.throughput(), csv, out);
+                if (step.issued.get() > 0) {
+                    out.printf(Locale.ROOT, "%8s %-7s offered %.0f/s, achieved %.1f/s%n", "", "", step.rate, step.throughput());
+                }
+            }
+        }
+        out.println("Reports: " + dir.toAbsolutePath());
+    }
+
+    private void row(OpenLoopDriver.Step step, String op, Histogram response, Histogram service, long errors,
+                     double throughput, PrintWriter csv, PrintStream out) throws IOException {
+        long ok = response.getTotalCount();
+        if (ok == 0 && errors == 0) return;
+        String line = String.format(Locale.ROOT, "%.0f,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f",
+                step.rate, op, ok, errors, throughput,
+                ms(response, 50), ms(response, 90), ms(response, 99), ms(response, 99.9),
+                response.getMaxValue() / 1_000.0, ms(service, 99));
+        csv.println(line);
+        String[] f = line.split(",");
+        out.printf(Locale.ROOT, "%8s %-7s %8s %6s %9s %9s %9s %9s %9s %9s %12s%n", (Object[]) f);
+
+        if (ok > 0) {
+            Path hgrm = dir.resolve("%.0f-%s.hgrm".formatted(step.rate, op));
+            try (PrintStream file = new PrintStream(Files.newOutputStream(hgrm), false, StandardCharsets.UTF_8)) {
+                response.outputPercentileDistribution(file, 1_000.0);
+            }
+        }
+    }
+
+    private static double ms(Histogram h, double percentile) {
+        return h.getValueAtPercentile(percentile) / 1_000.0;
+    }
+}
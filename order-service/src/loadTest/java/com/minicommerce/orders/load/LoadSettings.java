@@ -0,0 +1,62 @@
+package com.minicommerce.orders.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Harness settings, read from {@code load.*} system properties (the Gradle task forwards {@code -Pload.*}).
+ *
+ * @param rates        arrival rates to step through, requests per second
+ * @param warmup       unrecorded run at the first rate, so the JIT and pools settle before measuring
+ * @param duration     measured time per rate
+ * @param mix          relative weight of each operation
+ * @param maxInFlight  client-side cap on outstanding requests; time spent waiting for a slot counts as latency
+ * @param jdbcUrl      an existing Postgres to use instead of the embedded one, or {@code null}
+ */
+record LoadSettings(List<Double> rates, Duration warmup, Duration duration, Map<Workload.Op, Integer> mix,
+                    int maxInFlight, String jdbcUrl, String jdbcUser, String jdbcPassword, Path reportDir) {
+
+    static LoadSettings fromSystemProperties() {
+        List<Double> rates = Arrays.stream(prop("rates", "25,50,100").split(","))
+                .map(String::trim)
+                .map(Double::valueOf)
+                .toList();
+        for (double rate : rates) {
+            if (rate <= 0) throw new IllegalArgumentException("load.rates must be positive: " + rate);
+        }
+        return new LoadSettings(
+                rates,
+                DurationStyle.detectAndParse(prop("warmup", "15s")),
+                DurationStyle.detectAndParse(prop("duration", "30s")),
+                mix(prop("mix", "create:40,get:40,list:15,cancel:5")),
+                Integer.parseInt(prop("max-in-flight", "2000")),
+                System.getProperty("load.jdbc-url"),
+                prop("jdbc-user", "postgres"),
+                prop("jdbc-password", "postgres"),
+                Path.of(prop("report-dir", "build/reports/load")));
+    }
+
+    private static Map<Workload.Op, Integer> mix(String spec) {
+        Map<Workload.Op, Integer> mix = new EnumMap<>(Workload.Op.class);
+        for (String entry : spec.split(",")) {
+            String[] kv = entry.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("load.mix entries are op:weight, got " + entry);
+            mix.put(Workload.Op.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    private static String prop(String name, String defaultValue) {
+        return System.getProperty("load." + name, defaultValue);
+    }
+}
@@ -0,0 +1,75 @@
+package com.minicommerce.orders.load;
+
+import com.minicommerce.orders.OrdersApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Load-test entry point ({@code ./gradlew loadTest}). Starts a single-node KRaft Kafka broker, an embedded Postgres
+ * (unless {@code load.jdbc-url} points at one) and the application on a random port, all in this JVM, then drives
+ * the request mix at each configured rate and writes HdrHistogram reports.
+ * <p>
+ * Client and server share the machine, so absolute numbers are a floor; compare runs on the same box.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1);
+        kafka.afterPropertiesSet();
+        EmbeddedPostgres postgres = settings.jdbcUrl() == null ? EmbeddedPostgres.builder().start() : null;
+        ConfigurableApplicationContext app = null;
+        try {
+            // command-line arguments outrank application.yml
+            List<String> appArgs = new ArrayList<>(List.of(args));
+            appArgs.add("--server.port=0");
+            appArgs.add("--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString());
+            appArgs.add("--spring.datasource.url="
+                    + (postgres != null ? postgres.getJdbcUrl("postgres", "postgres") : settings.jdbcUrl()));
+            appArgs.add("--spring.datasource.username=" + settings.jdbcUser());
+            appArgs.add("--spring.datasource.password=" + settings.jdbcPassword());
+            appArgs.add("--logging.level.root=WARN");
+
+            SpringApplication application = new SpringApplication(OrdersApplication.class);
+            application.setBannerMode(Banner.Mode.OFF);
+            app = application.run(appArgs.toArray(String[]::new));
+            URI base = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            OpenLoopDriver driver = new OpenLoopDriver(new Workload(http, base, settings.mix()), settings.maxInFlight());
+
+            System.out.printf("Warming up at %.0f/s for %s%n", settings.rates().get(0), settings.warmup());
+            driver.run(settings.rates().get(0), settings.warmup());
+
+            List<OpenLoopDriver.Step> steps = new ArrayList<>();
+            for (double rate : settings.rates()) {
+                System.out.printf("Measuring %.0f/s for %s%n", rate, settings.duration());
+                steps.add(driver.run(rate, settings.duration()));
+            }
+
+            String run = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            new LatencyReport(settings.reportDir().resolve(run)).write(steps, System.out);
+        } finally {
+            if (app != null) app.close();
+            if (postgres != null) postgres.close();
+            kafka.destroy();
+        }
+    }
+}
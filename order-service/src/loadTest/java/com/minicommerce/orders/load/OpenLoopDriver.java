@@ -0,0 +1,126 @@
+package com.minicommerce.orders.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests on a fixed schedule regardless of how fast earlier ones complete (open loop), each on its own
+ * virtual thread.
+ * <p>
+ * Response time is measured from the request's <em>intended</em> start, so when the service falls behind, the
+ * queueing the client would see is recorded instead of being hidden by a client that waits before sending
+ * (coordinated omission). Service time, measured from the actual send, is kept alongside to show the gap.
+ */
+final class OpenLoopDriver {
+    private final Workload workload;
+    private final int maxInFlight;
+
+    OpenLoopDriver(Workload workload, int maxInFlight) {
+        this.workload = workload;
+        this.maxInFlight = maxInFlight;
+    }
+
+    Step run(double rate, Duration duration) throws InterruptedException {
+        Step step = new Step(rate);
+        Semaphore slots = new Semaphore(maxInFlight);
+        double intervalNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) break;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+
+                Workload.Op op = workload.next();
+                pool.execute(() -> {
+                    slots.acquireUninterruptibly();
+                    try {
+                        long sent = System.nanoTime();
+                        Workload.Outcome outcome = workload.execute(op);
+                        long done = System.nanoTime();
+                        step.record(outcome, done - intended, done - sent, done);
+                    } finally {
+                        slots.release();
+                    }
+                });
+                step.issued.incrementAndGet();
+            }
+        }   // close() waits for the stragglers, so every issued request is accounted for
+        step.finish(start);
+        return step;
+    }
+
+    /**
+     * Results for one arrival rate. Histograms are in microseconds.
+     */
+    static final class Step {
+        final double rate;
+        final Map<Workload.Op, Histogram> response = new EnumMap<>(Workload.Op.class);
+        final Map<Workload.Op, Histogram> service = new EnumMap<>(Workload.Op.class);
+        final Map<Workload.Op, AtomicLong> errors = new EnumMap<>(Workload.Op.class);
+        final AtomicLong issued = new AtomicLong();
+        private final LongAccumulator lastDone = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private long elapsedNanos;
+
+        Step(double rate) {
+            this.rate = rate;
+            for (Workload.Op op : Workload.Op.values()) {
+                response.put(op, new ConcurrentHistogram(3));
+                service.put(op, new ConcurrentHistogram(3));
+                errors.put(op, new AtomicLong());
+            }
+        }
+
+        void record(Workload.Outcome outcome, long responseNanos, long serviceNanos, long done) {
+            lastDone.accumulate(done);
+            if (!outcome.ok()) {
+                errors.get(outcome.op()).incrementAndGet();
+                return;
+            }
+            response.get(outcome.op()).recordValue(responseNanos / 1_000);
+            service.get(outcome.op()).recordValue(serviceNanos / 1_000);
+        }
+
+        void finish(long start) {
+            elapsedNanos = Math.max(1, lastDone.get() - start);
+        }
+
+        Histogram total(Map<Workload.Op, Histogram> byOp) {
+            Histogram all = new Histogram(3);
+            byOp.values().forEach(all::add);
+            return all;
+        }
+
+        long succeeded() {
+            return response.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+
+        long failed() {
+            return errors.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+
+        /**
+         * Completed successful requests per second, over the time until the last response arrived.
+         */
+        double throughput() {
+            return succeeded() * 1e9 / elapsedNanos;
+        }
+
+        double throughput(Workload.Op op) {
+            return response.get(op).getTotalCount() * 1e9 / elapsedNanos;
+        }
+    }
+}
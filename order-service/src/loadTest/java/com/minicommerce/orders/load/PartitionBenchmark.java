@@ -0,0 +1,283 @@
+package com.minicommerce.orders.load;
+
+import com.minicommerce.orders.domain.OrderIds;
+import com.minicommerce.orders.repository.OrderPartitions;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Flat vs monthly-partitioned {@code orders}/{@code order_items} at a realistic size ({@code ./gradlew
+ * partitionBenchmark}). Migrates two databases on one embedded Postgres, one to V3 (flat) and one to the latest
+ * version (partitioned), seeds both with the same shape of data spread over {@code bench.months} months, then times
+ * the statements the service issues: order inserts, the newest-first first page and keyset pages of the last day,
+ * get-by-id with items, and expiring the oldest month.
+ * <p>
+ * Settings ({@code -Pbench.*}): {@code orders} (default 2000000, three items each), {@code months} (24),
+ * {@code iterations} (2000 per statement after {@code warmup} 500), {@code report-dir}.
+ * Single-connection latencies on a shared machine; compare the two schemas, not absolute numbers across boxes.
+ */
+public final class PartitionBenchmark {
+    private static final String RECENT = """
+            SELECT * FROM orders
+             WHERE created_at >= ?
+             ORDER BY created_at DESC, id DESC
+             LIMIT 50
+            """;
+    // OrderRepository.findPageAfter, with and without the redundant bound that enables pruning
+    private static final String PAGE_AFTER = """
+            SELECT * FROM orders
+             WHERE created_at <= ?
+               AND (created_at, id) < (?, ?)
+             ORDER BY created_at DESC, id DESC
+             LIMIT 50
+            """;
+    private static final String PAGE_AFTER_UNBOUNDED = """
+            SELECT * FROM orders
+             WHERE (created_at, id) < (?, ?)
+             ORDER BY created_at DESC, id DESC
+             LIMIT 50
+            """;
+    // OrderRepository.findWithItemsById / findWithItemsByIdCreatedBetween
+    private static final String GET = """
+            SELECT * FROM orders o
+              LEFT JOIN order_items i ON i.order_id = o.id
+             WHERE o.id = ?
+            """;
+    private static final String GET_WINDOWED = """
+            SELECT * FROM orders o
+              JOIN order_items i ON i.order_id = o.id
+             WHERE o.id = ?
+               AND o.created_at >= ? AND o.created_at < ?
+               AND i.order_created_at >= ? AND i.order_created_at < ?
+            """;
+
+    private final int orders = Integer.getInteger("bench.orders", 2_000_000);
+    private final int months = Integer.getInteger("bench.months", 24);
+    private final int iterations = Integer.getInteger("bench.iterations", 2_000);
+    private final int warmup = Integer.getInteger("bench.warmup", 500);
+    private final List<Result> results = new ArrayList<>();
+
+    private PartitionBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        Path reportDir = Path.of(System.getProperty("bench.report-dir", "build/reports/partition-bench"))
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setServerConfig("shared_buffers", "256MB")
+                .setServerConfig("max_wal_size", "4GB")
+                .start()) {
+            new PartitionBenchmark().run(postgres, reportDir);
+        }
+    }
+
+    private void run(EmbeddedPostgres postgres, Path reportDir) throws Exception {
+        try (Connection admin = postgres.getPostgresDatabase().getConnection(); Statement st = admin.createStatement()) {
+            st.execute("CREATE DATABASE flat");
+            st.execute("CREATE DATABASE partitioned");
+        }
+        for (String schema : List.of("flat", "partitioned")) {
+            String url = postgres.getJdbcUrl("postgres", schema);
+            Flyway.configure().dataSource(url, "postgres", "postgres")
+                    .locations("classpath:db/migration")
+                    .target(schema.equals("flat") ? "3" : "latest")
+                    .load().migrate();
+            try (Connection c = DriverManager.getConnection(url, "postgres", "postgres")) {
+                boolean partitioned = schema.equals("partitioned");
+                long started = System.nanoTime();
+                seed(c, partitioned);
+                System.out.printf(Locale.ROOT, "Seeded %s: %,d orders in %.0fs%n", schema, orders,
+                        (System.nanoTime() - started) / 1e9);
+                measure(c, schema, partitioned);
+            }
+        }
+        report(reportDir);
+    }
+
+    private void seed(Connection c, boolean partitioned) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            if (partitioned) {
+                st.execute("SELECT fn_create_order_partitions(m::date) FROM generate_series(now() - interval '"
+                        + (months + 1) + " months', now(), interval '1 month') m");
+            }
+            st.execute("""
+                    INSERT INTO customers (id, email, name)
+                    SELECT md5(k::text)::uuid, 'c' || k || '@bench.local', 'Bench' FROM generate_series(0, 999) k
+                    """);
+            st.execute("""
+                    INSERT INTO orders (id, customer_id, status, currency, total, created_at, updated_at)
+                    SELECT gen_random_uuid(), md5((g %% 1000)::text)::uuid, 'FULFILLED', 'USD', 30.00, t, t
+                      FROM (SELECT g, now() - random() * interval '%d months' AS t
+                              FROM generate_series(1, %d) g) s
+                    """.formatted(months, orders));
+            st.execute(partitioned ? """
+                    INSERT INTO order_items (id, order_id, order_created_at, sku, name, quantity, unit_price)
+                    SELECT gen_random_uuid(), o.id, o.created_at, 'SKU-' || k, 'Item', 1, 10.00
+                      FROM orders o CROSS JOIN generate_series(1, 3) k
+                    """ : """
+                    INSERT INTO order_items (id, order_id, sku, name, quantity, unit_price)
+                    SELECT gen_random_uuid(), o.id, 'SKU-' || k, 'Item', 1, 10.00
+                      FROM orders o CROSS JOIN generate_series(1, 3) k
+                    """);
+            st.execute("VACUUM ANALYZE");
+        }
+    }
+
+    private void measure(Connection c, String schema, boolean partitioned) throws SQLException {
+        List<Row> sample = rows(c, "SELECT id, created_at FROM orders TABLESAMPLE SYSTEM (1) LIMIT 10000");
+        OffsetDateTime dayAgo = OffsetDateTime.now(ZoneOffset.UTC).minusDays(1);
+        List<Row> lastDay = rows(c, "SELECT id, created_at FROM orders WHERE created_at >= '" + dayAgo + "'");
+
+        time(c, schema, "insert", i -> insert(c, partitioned));
+        time(c, schema, "first-page", i -> query(c, RECENT, dayAgo));
+        time(c, schema, "page-after", i -> {
+            Row r = pick(lastDay);
+            query(c, PAGE_AFTER, r.createdAt, r.createdAt, r.id);
+        });
+        if (partitioned) {
+            time(c, schema, "page-after-unbounded", i -> {
+                Row r = pick(lastDay);
+                query(c, PAGE_AFTER_UNBOUNDED, r.createdAt, r.id);
+            });
+        }
+        time(c, schema, "get", i -> query(c, GET, pick(sample).id));
+        if (partitioned) {
+            time(c, schema, "get-windowed", i -> {
+                Row r = pick(sample);
+                OffsetDateTime from = r.createdAt.minusDays(1), to = r.createdAt.plusDays(1);
+                query(c, GET_WINDOWED, r.id, from, to, from, to);
+            });
+        }
+
+        YearMonth oldest = YearMonth.now(ZoneOffset.UTC).minusMonths(months);
+        long started = System.nanoTime();
+        if (partitioned) {
+            var jdbc = new JdbcTemplate(new SingleConnectionDataSource(c, true));
+            new OrderPartitions(jdbc).drop(oldest);
+        } else {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM orders WHERE created_at < ?")) {
+                ps.setObject(1, oldest.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC));
+                ps.executeUpdate();
+            }
+        }
+        Histogram once = new Histogram(3);
+        once.recordValue((System.nanoTime() - started) / 1_000);
+        results.add(new Result(schema, "expire-month", once));
+    }
+
+    private void insert(Connection c, boolean partitioned) throws SQLException {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        UUID id = OrderIds.newId(now);
+        c.setAutoCommit(false);
+        try (PreparedStatement order = c.prepareStatement("""
+                INSERT INTO orders (id, customer_id, status, currency, total, created_at, updated_at)
+                VALUES (?, md5('7')::uuid, 'CREATED', 'USD', 30.00, ?, ?)
+                """);
+             PreparedStatement item = c.prepareStatement(partitioned
+                     ? "INSERT INTO order_items (id, order_id, order_created_at, sku, name, quantity, unit_price) VALUES (?, ?, ?, 'SKU', 'Item', 1, 10.00)"
+                     : "INSERT INTO order_items (id, order_id, sku, name, quantity, unit_price) VALUES (?, ?, 'SKU', 'Item', 1, 10.00)")) {
+            order.setObject(1, id);
+            order.setObject(2, now);
+            order.setObject(3, now);
+            order.executeUpdate();
+            for (int k = 0; k < 3; k++) {
+                item.setObject(1, UUID.randomUUID());
+                item.setObject(2, id);
+                if (partitioned) item.setObject(3, now);
+                item.addBatch();
+            }
+            item.executeBatch();
+            c.commit();
+        } finally {
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static void query(Connection c, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // drain
+                }
+            }
+        }
+    }
+
+    private void time(Connection c, String schema, String op, Step step) throws SQLException {
+        for (int i = 0; i < warmup; i++) step.run(i);
+        Histogram h = new Histogram(3);
+        for (int i = 0; i < iterations; i++) {
+            long started = System.nanoTime();
+            step.run(i);
+            h.recordValue((System.nanoTime() - started) / 1_000);
+        }
+        results.add(new Result(schema, op, h));
+    }
+
+    private void report(Path dir) throws Exception {
+        Files.createDirectories(dir);
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(dir.resolve("summary.csv"), StandardCharsets.UTF_8))) {
+            csv.println("schema,op,count,p50_ms,p90_ms,p99_ms,max_ms");
+            System.out.printf(Locale.ROOT, "%n%-12s %-21s %6s %9s %9s %9s %9s%n",
+                    "schema", "op", "count", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            for (Result r : results) {
+                String line = String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f", r.schema, r.op,
+                        r.latency.getTotalCount(), ms(r.latency, 50), ms(r.latency, 90), ms(r.latency, 99),
+                        r.latency.getMaxValue() / 1_000.0);
+                csv.println(line);
+                System.out.printf(Locale.ROOT, "%-12s %-21s %6s %9s %9s %9s %9s%n", (Object[]) line.split(","));
+            }
+        }
+        System.out.println("Reports: " + dir.toAbsolutePath());
+    }
+
+    private static List<Row> rows(Connection c, String sql) throws SQLException {
+        List<Row> rows = new ArrayList<>();
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) rows.add(new Row(rs.getObject(1, UUID.class), rs.getObject(2, OffsetDateTime.class)));
+        }
+        if (rows.isEmpty()) throw new IllegalStateException("No rows for: " + sql);
+        return rows;
+    }
+
+    private static Row pick(List<Row> rows) {
+        return rows.get(ThreadLocalRandom.current().nextInt(rows.size()));
+    }
+
+    private static double ms(Histogram h, double percentile) {
+        return h.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(int iteration) throws SQLException;
+    }
+
+    private record Row(UUID id, OffsetDateTime createdAt) { }
+
+    private record Result(String schema, String op, Histogram latency) { }
+}
@@ -0,0 +1,244 @@
+package com.minicommerce.orders.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start comparison ({@code ./gradlew startupBenchmark}, add {@code -Paot} for the AOT modes). Starts Kafka and
+ * Postgres as {@link LoadTest} does, then launches the application in fresh JVMs and measures, per launch, the time
+ * from process start to the first {@code 200} from {@code GET /api/v1/orders} and the process RSS at that moment.
+ * <p>
+ * Modes: {@code default} (what the image ran before), {@code cds} (with an AppCDS archive from a training run),
+ * with {@code -Paot} also {@code aot} and {@code aot+cds}, and last the fastest of these with
+ * {@code orders.flyway.on-startup=skip}. Archives are trained the way the Dockerfile trains
+ * them, without a database or broker. Class directories are packed into jars first, since CDS only archives classes
+ * from jars; the image's extracted layout is the same.
+ * <p>
+ * Settings ({@code -Pstartup.*}): {@code runs} (default 5 per mode, after one unmeasured launch), {@code report-dir}.
+ * The JVMs share the machine with Kafka and Postgres; compare modes, not absolute numbers across boxes.
+ */
+public final class StartupBenchmark {
+    private static final String MAIN = "com.minicommerce.orders.OrdersApplication";
+    // Dockerfile: the training run stops once the context is refreshed and needs neither Postgres nor Kafka
+    private static final List<String> TRAINING = List.of(
+            "-Dspring.context.exit=onRefresh",
+            "-Dorders.flyway.on-startup=skip",
+            "-Dspring.jpa.hibernate.ddl-auto=none",
+            "-Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+            "-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private final Path workDir;
+    private final List<String> appArgs;
+    private String classpath;
+
+    private StartupBenchmark(Path workDir, List<String> appArgs) {
+        this.workDir = workDir;
+        this.appArgs = appArgs;
+    }
+
+    private record Mode(String name, boolean aot, boolean cds, boolean skipFlyway) {
+        List<String> jvmArgs(Path archive) {
+            List<String> args = new ArrayList<>();
+            if (aot) args.add("-Dspring.aot.enabled=true");
+            if (cds) args.add("-XX:SharedArchiveFile=" + archive);
+            if (skipFlyway) args.add("-Dorders.flyway.on-startup=skip");
+            return args;
+        }
+
+        String file() {
+            return name.replace('+', '-');
+        }
+    }
+
+    private record Sample(String mode, int run, long firstRequestMillis, long rssKb) { }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        if (classpath == null) throw new IllegalArgumentException("startup.classpath is required");
+        Path reportDir = Path.of(System.getProperty("startup.report-dir", "build/reports/startup"))
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        boolean aot = Boolean.getBoolean("startup.aot");
+        List<Mode> modes = new ArrayList<>(List.of(
+                new Mode("default", false, false, false),
+                new Mode("cds", false, true, false)));
+        if (aot) {
+            modes.add(new Mode("aot", true, false, false));
+            modes.add(new Mode("aot+cds", true, true, false));
+        }
+        modes.add(new Mode(aot ? "aot+cds+skip" : "cds+skip", aot, true, true));
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1);
+        kafka.afterPropertiesSet();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            List<String> appArgs = List.of(
+                    "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=postgres",
+                    "--logging.level.root=WARN");
+            StartupBenchmark bench = new StartupBenchmark(reportDir, appArgs);
+            bench.classpath = bench.packJars(classpath);
+            bench.report(bench.run(modes));
+        } finally {
+            kafka.destroy();
+        }
+    }
+
+    private List<Sample> run(List<Mode> modes) throws Exception {
+        List<Sample> samples = new ArrayList<>();
+        for (Mode mode : modes) {
+            // the +skip mode reuses the archive of the mode it extends
+            Path archive = workDir.resolve((mode.aot() ? "aot" : "default") + ".jsa");
+            if (mode.cds() && !Files.exists(archive)) train(mode, archive);
+            System.out.printf("Launching %s %d times%n", mode.name(), runs);
+            // the first launch also applies the migrations and warms the page cache; not measured
+            launch(mode, archive, 0);
+            for (int run = 1; run <= runs; run++) samples.add(launch(mode, archive, run));
+        }
+        return samples;
+    }
+
+    private void train(Mode mode, Path archive) throws Exception {
+        List<String> command = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + archive));
+        if (mode.aot()) command.add("-Dspring.aot.enabled=true");
+        command.addAll(TRAINING);
+        command.addAll(List.of("-cp", classpath, MAIN, "--logging.level.root=WARN"));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(mode.file() + "-training.log").toFile())
+                .start();
+        if (!process.waitFor(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS) || process.exitValue() != 0
+                || !Files.exists(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Training run for " + mode.name() + " failed, see " + workDir);
+        }
+    }
+
+    private Sample launch(Mode mode, Path archive, int run) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(java));
+        command.addAll(mode.jvmArgs(archive));
+        command.addAll(List.of("-cp", classpath, MAIN, "--server.port=" + port));
+        command.addAll(appArgs);
+        Path log = workDir.resolve("%s-%d.log".formatted(mode.file(), run));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/orders?size=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            while (true) {
+                if (!process.isAlive() || System.nanoTime() - started > START_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException(mode.name() + " did not serve a request, see " + log);
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) break;
+                } catch (ConnectException notListening) {
+                    // Tomcat is not up yet
+                }
+                Thread.sleep(10);
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            return new Sample(mode.name(), run, elapsed, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+
+    private void report(List<Sample> samples) throws IOException {
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(workDir.resolve("summary.csv"), StandardCharsets.UTF_8))) {
+            csv.println("mode,run,first_request_ms,rss_mb");
+            for (Sample s : samples) {
+                csv.printf(Locale.ROOT, "%s,%d,%d,%.1f%n", s.mode(), s.run(), s.firstRequestMillis(), s.rssKb() / 1024.0);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%n%-14s %5s %10s %10s %8s%n",
+                "mode", "runs", "median ms", "min ms", "rss MB");
+        samples.stream().map(Sample::mode).distinct().forEach(mode -> {
+            List<Sample> of = samples.stream().filter(s -> s.mode().equals(mode)).toList();
+            long[] ms = of.stream().mapToLong(Sample::firstRequestMillis).sorted().toArray();
+            long[] rss = of.stream().mapToLong(Sample::rssKb).sorted().toArray();
+            System.out.printf(Locale.ROOT, "%-14s %5d %10d %10d %8.0f%n",
+                    mode, ms.length, ms[ms.length / 2], ms[0], rss[rss.length / 2] / 1024.0);
+        });
+        System.out.println("Reports: " + workDir.toAbsolutePath());
+    }
+
+    /**
+     * Replaces class directories on {@code classpath} with jars of their contents, keeping the order.
+     */
+    private String packJars(String classpath) throws IOException {
+        Files.createDirectories(workDir.resolve("classes"));
+        List<String> entries = new ArrayList<>();
+        for (String entry : classpath.split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (!Files.isDirectory(path)) {
+                if (Files.exists(path)) entries.add(entry);
+                continue;
+            }
+            Path jar = workDir.resolve("classes").resolve(entries.size() + "-" + path.getFileName() + ".jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+                 Stream<Path> files = Files.walk(path)) {
+                // directory entries too: classpath scanning (Flyway's migrations, Spring's components) lists them
+                for (Path file : files.filter(f -> !f.equals(path)).sorted().toList()) {
+                    String name = path.relativize(file).toString().replace(File.separatorChar, '/');
+                    boolean directory = Files.isDirectory(file);
+                    out.putNextEntry(new JarEntry(directory ? name + "/" : name));
+                    if (!directory) Files.copy(file, (OutputStream) out);
+                    out.closeEntry();
+                }
+            }
+            entries.add(jar.toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        return Files.readAllLines(Path.of("/proc", Long.toString(pid), "status")).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Arrays.stream(line.split("\\s+")).skip(1).findFirst().orElseThrow())
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.minicommerce.orders.load;
+
+import com.minicommerce.orders.OrdersApplication;
+import com.minicommerce.orders.domain.OrderIds;
+import com.minicommerce.orders.events.Topics;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the payment/fulfillment consumer ({@code ./gradlew statusEventBenchmark}). Starts Kafka, Postgres and
+ * the application as {@link LoadTest} does, seeds {@code bench.orders} created orders, then runs two phases: a
+ * {@code payment.approved} for every order, then a {@code fulfillment.shipped} for every order. Each phase's records
+ * are produced while the consumer is stopped; the timer starts when it is started and stops when the last order
+ * has reached the phase's status, so the result is the consumer's drain rate, commits included.
+ * <p>
+ * Settings ({@code -Pbench.*}): {@code orders} (default 200000), {@code partitions} (per topic, 8),
+ * {@code concurrency} and {@code max-poll-records} (passed to {@code orders.status-events.*}), {@code report-dir}.
+ * Kafka, Postgres and the consumer share the machine; compare settings, not absolute numbers across boxes.
+ */
+public final class StatusEventBenchmark {
+    private static final String CONTAINER = "order-status-events";
+    private static final Duration PHASE_TIMEOUT = Duration.ofMinutes(10);
+
+    private StatusEventBenchmark() {}
+
+    private record Phase(String name, String topic, String type, String status) { }
+
+    private record Result(String phase, int events, long millis) {
+        double perSecond() {
+            return events * 1000.0 / Math.max(1, millis);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int orders = Integer.getInteger("bench.orders", 200_000);
+        int partitions = Integer.getInteger("bench.partitions", 8);
+        String concurrency = System.getProperty("bench.concurrency", "4");
+        String maxPollRecords = System.getProperty("bench.max-poll-records", "2000");
+        Path reportDir = Path.of(System.getProperty("bench.report-dir", "build/reports/status-events"))
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, partitions,
+                Topics.PAYMENT_APPROVED, Topics.FULFILLMENT_SHIPPED, Topics.PAYMENT_DECLINED, Topics.FULFILLMENT_FAILED);
+        kafka.afterPropertiesSet();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            SpringApplication application = new SpringApplication(OrdersApplication.class);
+            application.setBannerMode(Banner.Mode.OFF);
+            // closed before Postgres, so its last aggregate flush still has a database
+            try (ConfigurableApplicationContext app = application.run(
+                    "--server.port=0",
+                    "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+                    "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=postgres",
+                    "--orders.status-events.concurrency=" + concurrency,
+                    "--orders.status-events.max-poll-records=" + maxPollRecords,
+                    "--logging.level.root=WARN")) {
+                run(app, kafka.getBrokersAsString(), orders, partitions, concurrency, maxPollRecords, reportDir);
+            }
+        } finally {
+            kafka.destroy();
+        }
+    }
+
+    private static void run(ConfigurableApplicationContext app, String brokers, int orders, int partitions,
+                            String concurrency, String maxPollRecords, Path reportDir) throws Exception {
+        JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+        MessageListenerContainer consumer = app.getBean(KafkaListenerEndpointRegistry.class)
+                .getListenerContainer(CONTAINER);
+        consumer.stop();
+
+        System.out.printf("Seeding %d orders%n", orders);
+        List<UUID> ids = seed(jdbc, orders);
+
+        List<Result> results = new ArrayList<>();
+        try (KafkaProducer<String, byte[]> producer = producer(brokers)) {
+            for (Phase phase : List.of(
+                    new Phase("approve", Topics.PAYMENT_APPROVED, "payment.approved", "PAID"),
+                    new Phase("ship", Topics.FULFILLMENT_SHIPPED, "fulfillment.shipped", "FULFILLED"))) {
+                System.out.printf("Producing %d %s%n", orders, phase.type());
+                for (UUID id : ids) {
+                    String json = "{\"type\":\"%s\",\"version\":\"v1\",\"orderId\":\"%s\"}".formatted(phase.type(), id);
+                    producer.send(new ProducerRecord<>(phase.topic(), id.toString(), json.getBytes(StandardCharsets.UTF_8)));
+                }
+                producer.flush();
+
+                long started = System.nanoTime();
+                consumer.start();
+                awaitStatus(jdbc, phase.status(), orders);
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                consumer.stop();
+                results.add(new Result(phase.name(), orders, millis));
+                System.out.printf(Locale.ROOT, "%s: %d events in %d ms%n", phase.name(), orders, millis);
+            }
+        }
+        report(reportDir, results, partitions, concurrency, maxPollRecords);
+    }
+
+    private static List<UUID> seed(JdbcTemplate jdbc, int orders) {
+        UUID customer = UUID.randomUUID();
+        jdbc.update("INSERT INTO customers (id, email, name) VALUES (?, ?, ?)", customer, "bench@example.com", "Bench");
+        List<UUID> ids = new ArrayList<>(orders);
+        List<Object[]> rows = new ArrayList<>();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < orders; i++) {
+            // a few seconds back at most, so every order lands in the current month's partition
+            OffsetDateTime createdAt = now.minusNanos((orders - i) * 10_000L);
+            UUID id = OrderIds.newId(createdAt);
+            ids.add(id);
+            rows.add(new Object[]{id, customer, createdAt});
+            if (rows.size() == 5000 || i == orders - 1) {
+                jdbc.batchUpdate("""
+                        INSERT INTO orders (id, customer_id, status, currency, total, created_at)
+                        VALUES (?, ?, 'CREATED', 'USD', 10.00, ?)
+                        """, rows);
+                rows.clear();
+            }
+        }
+        jdbc.execute("ANALYZE orders");
+        return ids;
+    }
+
+    private static KafkaProducer<String, byte[]> producer(String brokers) {
+        return new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers,
+                ProducerConfig.LINGER_MS_CONFIG, 10,
+                ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"),
+                new StringSerializer(), new ByteArraySerializer());
+    }
+
+    private static void awaitStatus(JdbcTemplate jdbc, String status, int orders) throws InterruptedException {
+        long deadline = System.nanoTime() + PHASE_TIMEOUT.toNanos();
+        while (true) {
+            Integer done = jdbc.queryForObject("SELECT count(*) FROM orders WHERE status = ?", Integer.class, status);
+            if (done != null && done >= orders) return;
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Only " + done + " of " + orders + " orders reached " + status);
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static void report(Path dir, List<Result> results, int partitions, String concurrency,
+                               String maxPollRecords) throws Exception {
+        Files.createDirectories(dir);
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(dir.resolve("summary.csv"), StandardCharsets.UTF_8))) {
+            csv.println("phase,events,millis,events_per_second,partitions,concurrency,max_poll_records");
+            for (Result r : results) {
+                csv.printf(Locale.ROOT, "%s,%d,%d,%.0f,%d,%s,%s%n", r.phase(), r.events(), r.millis(), r.perSecond(),
+                        partitions, concurrency, maxPollRecords);
+            }
+        }
+        System.out.printf("%n%-8s %10s %10s %12s%n", "phase", "events", "ms", "events/s");
+        for (Result r : results) {
+            System.out.printf(Locale.ROOT, "%-8s %10d %10d %12.0f%n", r.phase(), r.events(), r.millis(), r.perSecond());
+        }
+        System.out.println("Reports: " + dir.toAbsolutePath());
+    }
+}
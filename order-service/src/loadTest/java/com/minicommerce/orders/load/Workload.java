@@ -0,0 +1,132 @@
+package com.minicommerce.orders.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The request mix. Gets and cancels target orders this run created; until there are any, they fall back to
+ * creates. Each order is cancelled at most once, so a 409 is a real failure rather than a harness artifact.
+ */
+final class Workload {
+    enum Op { CREATE, GET, LIST, CANCEL }
+
+    private static final int CUSTOMERS = 1_000;
+    private static final int RECENT = 4_096;
+
+    private final HttpClient http;
+    private final URI base;
+    private final ObjectMapper json = new ObjectMapper();
+    private final Op[] weighted;
+    private final UUID[] customers = new UUID[CUSTOMERS];
+    private final AtomicReferenceArray<UUID> recent = new AtomicReferenceArray<>(RECENT);
+    private final AtomicLong created = new AtomicLong();
+    private final ConcurrentLinkedQueue<UUID> cancellable = new ConcurrentLinkedQueue<>();
+
+    Workload(HttpClient http, URI base, Map<Op, Integer> mix) {
+        this.http = http;
+        this.base = base;
+        List<Op> ops = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) ops.add(op);
+        });
+        this.weighted = ops.toArray(Op[]::new);
+        for (int i = 0; i < CUSTOMERS; i++) customers[i] = UUID.randomUUID();
+    }
+
+    Op next() {
+        return weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+    }
+
+    /**
+     * Runs one operation and returns what actually ran with its HTTP status ({@code -1} on an I/O error).
+     */
+    Outcome execute(Op op) {
+        try {
+            return switch (op) {
+                case CREATE -> create();
+                case GET -> get();
+                case LIST -> list();
+                case CANCEL -> cancel();
+            };
+        } catch (IOException e) {
+            return new Outcome(op, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Outcome(op, -1);
+        }
+    }
+
+    private Outcome create() throws IOException, InterruptedException {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int lines = 1 + rnd.nextInt(5);
+        List<OrderItemRequest> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            int sku = rnd.nextInt(10_000);
+            items.add(new OrderItemRequest("SKU-" + sku, "Item " + sku, 1 + rnd.nextInt(3),
+                    Money.ofMinor(99 + rnd.nextInt(50_000))));
+        }
+        var order = new CreateOrderRequest(customers[rnd.nextInt(CUSTOMERS)], "USD", items);
+
+        HttpResponse<String> resp = http.send(request("/api/v1/orders")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(order)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() == 201) {
+            UUID id = UUID.fromString(json.readTree(resp.body()).get("id").asText());
+            recent.set((int) (created.getAndIncrement() % RECENT), id);
+            cancellable.add(id);
+        }
+        return new Outcome(Op.CREATE, resp.statusCode());
+    }
+
+    private Outcome get() throws IOException, InterruptedException {
+        long n = created.get();
+        if (n == 0) return create();
+        UUID id = recent.get((int) (ThreadLocalRandom.current().nextLong(Math.min(n, RECENT))));
+        if (id == null) return create();   // slot claimed but not yet written
+        return new Outcome(Op.GET, discard(request("/api/v1/orders/" + id).GET().build()));
+    }
+
+    private Outcome list() throws IOException, InterruptedException {
+        return new Outcome(Op.LIST, discard(request("/api/v1/orders?size=20").GET().build()));
+    }
+
+    private Outcome cancel() throws IOException, InterruptedException {
+        UUID id = cancellable.poll();
+        if (id == null) return create();
+        return new Outcome(Op.CANCEL, discard(request("/api/v1/orders/" + id + "/cancel")
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build()));
+    }
+
+    private int discard(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(30));
+    }
+
+    record Outcome(Op op, int status) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
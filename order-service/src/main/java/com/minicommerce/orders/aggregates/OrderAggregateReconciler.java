@@ -0,0 +1,71 @@
+package com.minicommerce.orders.aggregates;
+
+import com.minicommerce.orders.repository.OrderAggregateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Rebuilds days of {@code order_daily_aggregates} from {@code orders}, by default the last
+ * {@code orders.aggregates.reconcile-days} days at 00:30 UTC ({@code orders.aggregates.reconcile-cron}, {@code -}
+ * turns it off). Every instance may run it; the advisory lock lets one of them act at a time.
+ * <p>
+ * A rebuild reads the day's partition once, off the request path, at a whole second it records; deltas any
+ * instance recorded for changes before that second are dropped when flushed, as the rebuild already counted them.
+ * Only a transaction still open across the rebuild's read can be counted twice or not at all, and the next run
+ * corrects that.
+ */
+@Component
+public class OrderAggregateReconciler {
+    private static final Logger log = LoggerFactory.getLogger(OrderAggregateReconciler.class);
+
+    private final OrderAggregateRepository repository;
+    private final OrderAggregatesProperties props;
+    private final TransactionTemplate tx;
+    private final Counter corrected;
+
+    public OrderAggregateReconciler(OrderAggregateRepository repository, OrderAggregatesProperties props,
+                                    TransactionTemplate tx, MeterRegistry registry) {
+        this.repository = repository;
+        this.props = props;
+        this.tx = tx;
+        this.corrected = Counter.builder("orders.aggregates.corrected")
+                .description("Aggregate rows a reconciliation had to create, fix or delete")
+                .register(registry);
+    }
+
+    @Scheduled(cron = "${orders.aggregates.reconcile-cron:0 30 0 * * *}", zone = "UTC")
+    public void run() {
+        if (!props.enabled()) return;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = props.reconcileDays(); i >= 1; i--) {
+            LocalDate day = today.minusDays(i);
+            try {
+                reconcile(day);
+            } catch (RuntimeException e) {
+                log.warn("Reconciling order aggregates for {} failed: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replaces {@code day}'s aggregate rows with counts from {@code orders}.
+     *
+     * @return rows created, corrected or deleted; -1 if another instance holds the lock
+     */
+    public int reconcile(LocalDate day) {
+        Integer changed = tx.execute(status -> repository.tryLock() ? repository.rebuild(day) : -1);
+        if (changed > 0) {
+            corrected.increment(changed);
+            log.info("Reconciled order aggregates for {}: {} rows corrected", day, changed);
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,280 @@
+package com.minicommerce.orders.aggregates;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.repository.OrderAggregateRepository;
+import com.minicommerce.orders.repository.OrderTransitions;
+import com.minicommerce.orders.web.dto.OrderStatsResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order counts and totals per (UTC day of creation, currency, status), kept as deltas in memory and added to
+ * {@code order_daily_aggregates} every {@code orders.aggregates.flush-interval}. Requests record their change
+ * after commit, on one of a fixed set of stripes picked by thread, so they rarely share a lock and never write
+ * the aggregate rows themselves: under load every create would otherwise queue on today's row.
+ * <p>
+ * A row counts orders by their current status, so a transition moves an order from one row of its creation day
+ * to another. Any day can then be rebuilt from {@code orders} alone ({@link OrderAggregateReconciler}), which
+ * repairs deltas lost when an instance dies between flushes. Deltas are kept per second of the change (the
+ * order's {@code created_at}, or the {@code updated_at} its transition wrote), so a flush can drop those a
+ * rebuild has already counted, whichever instance recorded them.
+ */
+@Component
+public class OrderAggregates implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(OrderAggregates.class);
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::day)
+            .thenComparing(Key::currency)
+            .thenComparing(Key::status)
+            .thenComparing(Key::second);
+
+    private final OrderAggregatesProperties props;
+    private final OrderAggregateRepository repository;
+    private final TransactionTemplate tx;
+    private final Stripe[] stripes;
+    private final Timer flushed;
+    private final Timer failed;
+
+    public OrderAggregates(OrderAggregatesProperties props, OrderAggregateRepository repository,
+                           TransactionTemplate tx, MeterRegistry registry) {
+        this.props = props;
+        this.repository = repository;
+        this.tx = tx;
+        // a power of two, at least four stripes per CPU
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe();
+        this.flushed = flushTimer(registry, "success");
+        this.failed = flushTimer(registry, "error");
+        Gauge.builder("orders.aggregates.pending", this, OrderAggregates::pendingKeys)
+                .description("Aggregate rows with changes not yet flushed")
+                .register(registry);
+    }
+
+    private static Timer flushTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("orders.aggregates.flush")
+                .description("Time to add pending deltas to order_daily_aggregates")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Counts new orders under {@link OrderStatus#CREATED} once the current transaction commits.
+     */
+    public void created(List<Order> orders) {
+        if (!props.enabled() || orders.isEmpty()) return;
+        List<Change> changes = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            changes.add(new Change(key(order, OrderStatus.CREATED, order.getCreatedAt()), 1, total(order)));
+        }
+        afterCommit(changes);
+    }
+
+    /**
+     * Moves an order from {@code from}'s row to its current status's row once the current transaction commits.
+     */
+    public void moved(Order order, OrderStatus from) {
+        if (!props.enabled() || from == order.getStatus()) return;
+        long total = total(order);
+        afterCommit(List.of(
+                new Change(key(order, from, order.getUpdatedAt()), -1, -total),
+                new Change(key(order, order.getStatus(), order.getUpdatedAt()), 1, total)));
+    }
+
+    /**
+     * {@link #moved(Order, OrderStatus)} for a batch of transitions.
+     */
+    public void moved(List<OrderTransitions.Moved> moves) {
+        if (!props.enabled() || moves.isEmpty()) return;
+        List<Change> changes = new ArrayList<>(moves.size() * 2);
+        for (OrderTransitions.Moved m : moves) {
+            Order order = m.order();
+            if (m.from() == order.getStatus()) continue;
+            long total = total(order);
+            changes.add(new Change(key(order, m.from(), order.getUpdatedAt()), -1, -total));
+            changes.add(new Change(key(order, order.getStatus(), order.getUpdatedAt()), 1, total));
+        }
+        afterCommit(changes);
+    }
+
+    /**
+     * Figures for {@code from}..{@code to} as last flushed: the rows of each day, and their sums per currency and
+     * status over the range.
+     */
+    @Transactional(readOnly = true)
+    public OrderStatsResponse stats(LocalDate from, LocalDate to, String currency, OrderStatus status) {
+        List<OrderAggregateRepository.Row> rows = repository.find(from, to, currency, status);
+        List<OrderStatsResponse.Day> days = new ArrayList<>(rows.size());
+        Map<String, OrderStatsResponse.Total> totals = new LinkedHashMap<>();
+        for (OrderAggregateRepository.Row row : rows) {
+            String name = row.status().name().toLowerCase();
+            days.add(new OrderStatsResponse.Day(row.day(), row.currency(), name, row.orders(), row.total()));
+            totals.merge(row.currency() + '/' + name,
+                    new OrderStatsResponse.Total(row.currency(), name, row.orders(), row.total()),
+                    (a, b) -> new OrderStatsResponse.Total(a.currency(), a.status(), a.orders() + b.orders(),
+                            a.total().plus(b.total())));
+        }
+        List<OrderStatsResponse.Total> summed = new ArrayList<>(totals.values());
+        summed.sort(Comparator.comparing(OrderStatsResponse.Total::currency)
+                .thenComparing(OrderStatsResponse.Total::status));
+        return new OrderStatsResponse(from, to, days, summed);
+    }
+
+    /**
+     * Adds everything recorded so far to the table. On failure the deltas are put back for the next run.
+     */
+    @Scheduled(fixedDelayString = "${orders.aggregates.flush-interval:PT5S}")
+    public void flush() {
+        Map<Key, Delta> pending = drain();
+        if (pending.isEmpty()) return;
+        List<OrderAggregateRepository.Delta> deltas = new ArrayList<>(pending.size());
+        pending.entrySet().stream()
+                .filter(e -> e.getValue().orders != 0 || e.getValue().minorUnits != 0)
+                .sorted(Map.Entry.comparingByKey(KEY_ORDER))
+                .forEach(e -> deltas.add(new OrderAggregateRepository.Delta(e.getKey().day(), e.getKey().currency(),
+                        e.getKey().status(), e.getKey().second(), e.getValue().orders,
+                        Money.ofMinor(e.getValue().minorUnits))));
+        if (deltas.isEmpty()) return;
+
+        long started = System.nanoTime();
+        try {
+            tx.executeWithoutResult(status -> repository.add(deltas));
+            flushed.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            failed.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            pending.forEach((key, delta) -> add(key, delta.orders, delta.minorUnits));
+            log.warn("Could not flush {} order aggregate rows, keeping them for the next run: {}",
+                    deltas.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Last flush on shutdown, after the web server has stopped taking requests.
+     */
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    void add(Key key, long orders, long minorUnits) {
+        Stripe stripe = stripe();
+        stripe.lock.lock();
+        try {
+            Delta delta = stripe.deltas.computeIfAbsent(key, k -> new Delta());
+            delta.orders += orders;
+            delta.minorUnits += minorUnits;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes every stripe's deltas, leaving them empty, and merges them per key.
+     */
+    Map<Key, Delta> drain() {
+        Map<Key, Delta> merged = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<Key, Delta> taken;
+            stripe.lock.lock();
+            try {
+                if (stripe.deltas.isEmpty()) continue;
+                taken = stripe.deltas;
+                stripe.deltas = new HashMap<>();
+            } finally {
+                stripe.lock.unlock();
+            }
+            taken.forEach((key, delta) -> merged.merge(key, delta, Delta::plus));
+        }
+        return merged;
+    }
+
+    private int pendingKeys() {
+        int keys = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                keys += stripe.deltas.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return keys;
+    }
+
+    private Stripe stripe() {
+        long id = Thread.currentThread().threadId();
+        return stripes[(int) (id ^ (id >>> 16)) & (stripes.length - 1)];
+    }
+
+    private void afterCommit(List<Change> changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(changes);
+            }
+        });
+    }
+
+    private void apply(List<Change> changes) {
+        for (Change c : changes) add(c.key(), c.orders(), c.minorUnits());
+    }
+
+    private static Key key(Order order, OrderStatus status, OffsetDateTime changedAt) {
+        LocalDate day = order.getCreatedAt().atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+        Instant second = changedAt.toInstant().truncatedTo(ChronoUnit.SECONDS);
+        return new Key(day, order.getCurrency(), status, second);
+    }
+
+    private static long total(Order order) {
+        return order.getTotal() == null ? 0 : order.getTotal().minorUnits();
+    }
+
+    record Key(LocalDate day, String currency, OrderStatus status, Instant second) { }
+
+    private record Change(Key key, long orders, long minorUnits) { }
+
+    static final class Delta {
+        long orders;
+        long minorUnits;
+
+        Delta plus(Delta other) {
+            orders += other.orders;
+            minorUnits += other.minorUnits;
+            return this;
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        Map<Key, Delta> deltas = new HashMap<>();
+    }
+}
@@ -0,0 +1,25 @@
+package com.minicommerce.orders.aggregates;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Daily order aggregates ({@code order_daily_aggregates}). The flush interval and the reconciliation schedule
+ * themselves are read by {@code @Scheduled} from {@code orders.aggregates.flush-interval} and
+ * {@code orders.aggregates.reconcile-cron}.
+ *
+ * @param enabled       record creates and transitions; when false the table is left as it is
+ * @param reconcileDays days before today (UTC) that each reconciliation run rebuilds
+ * @param maxRangeDays  longest range {@code GET /api/v1/orders/stats} answers in one request
+ */
+@ConfigurationProperties(prefix = "orders.aggregates")
+public record OrderAggregatesProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2") int reconcileDays,
+        @DefaultValue("366") int maxRangeDays
+) {
+    public OrderAggregatesProperties {
+        if (reconcileDays < 0) throw new IllegalArgumentException("orders.aggregates.reconcile-days must be >= 0");
+        if (maxRangeDays < 1) throw new IllegalArgumentException("orders.aggregates.max-range-days must be >= 1");
+    }
+}
@@ -0,0 +1,15 @@
+package com.minicommerce.orders.cache;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Carries order-cache evictions between service instances. Implementations must deliver to every instance,
+ * not to one member of a group; delivering back to the publisher is harmless.
+ */
+public interface InvalidationChannel {
+
+    void publish(UUID orderId);
+
+    void subscribe(Consumer<UUID> listener);
+}
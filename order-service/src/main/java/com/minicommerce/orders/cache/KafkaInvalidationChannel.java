@@ -0,0 +1,68 @@
+package com.minicommerce.orders.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts evictions over a Kafka topic. Every instance assigns itself the topic's first partition, where all
+ * evictions are sent, without a consumer group: each one sees every message and leaves nothing on the broker when it
+ * stops. It starts from the end because entries cached before it started do not exist, and commits no offsets.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.cache", name = "invalidation", havingValue = "kafka", matchIfMissing = true)
+public class KafkaInvalidationChannel implements InvalidationChannel {
+    private static final Logger log = LoggerFactory.getLogger(KafkaInvalidationChannel.class);
+    // all invalidations go to one partition, so every instance reads them all whatever the topic's partition count
+    private static final int PARTITION = 0;
+
+    private final KafkaTemplate<String, Object> kafka;
+    private final OrderCacheProperties props;
+    private final List<Consumer<UUID>> listeners = new CopyOnWriteArrayList<>();
+
+    public KafkaInvalidationChannel(KafkaTemplate<String, Object> kafka, OrderCacheProperties props) {
+        this.kafka = kafka;
+        this.props = props;
+    }
+
+    @Override
+    public void publish(UUID orderId) {
+        String id = orderId.toString();
+        kafka.send(props.invalidationTopic(), PARTITION, id, id.getBytes(StandardCharsets.UTF_8))
+                .whenComplete((r, e) -> {
+                    if (e != null) log.warn("Failed to broadcast cache invalidation for {}: {}", id, e.getMessage());
+                });
+    }
+
+    @Override
+    public void subscribe(Consumer<UUID> listener) {
+        listeners.add(listener);
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(
+            topic = "${orders.cache.invalidation-topic:mini.order.cache-invalidation.v1}",
+            partitionOffsets = @PartitionOffset(partition = "" + PARTITION, initialOffset = "0", seekPosition = "END")),
+            idIsGroup = false,
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    void onInvalidation(String orderId) {
+        UUID id;
+        try {
+            id = UUID.fromString(orderId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", orderId);
+            return;
+        }
+        listeners.forEach(l -> l.accept(id));
+    }
+}
@@ -0,0 +1,23 @@
+package com.minicommerce.orders.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Single-instance deployments: the publishing node has already evicted its own entry, so there is nobody to tell.
+ * Only with an explicit {@code orders.cache.invalidation=local}; with more instances they would serve each other's
+ * stale statuses until the TTL.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.cache", name = "invalidation", havingValue = "local")
+public class LocalInvalidationChannel implements InvalidationChannel {
+
+    @Override
+    public void publish(UUID orderId) { }
+
+    @Override
+    public void subscribe(Consumer<UUID> listener) { }
+}
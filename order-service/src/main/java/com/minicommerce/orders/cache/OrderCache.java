@@ -0,0 +1,118 @@
+package com.minicommerce.orders.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link OrderResponse} by order id. Entries are evicted after the transaction that
+ * changed the order commits, locally and through the {@link InvalidationChannel} for other instances.
+ * <p>
+ * A load that overlaps an eviction must not re-insert the value it read before the change; every eviction
+ * leaves a short-lived tombstone stamped from a sequence, and a load only keeps its result if no tombstone
+ * newer than the load's start exists.
+ */
+@Component
+public class OrderCache {
+    /** Must outlive the slowest load. */
+    private static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+
+    private final boolean enabled;
+    private final Cache<UUID, OrderResponse> orders;
+    private final Cache<UUID, Long> tombstones;
+    private final AtomicLong sequence = new AtomicLong();
+    private final InvalidationChannel channel;
+
+    public OrderCache(OrderCacheProperties props, InvalidationChannel channel, MeterRegistry registry) {
+        this.enabled = props.enabled();
+        this.channel = channel;
+        this.orders = Caffeine.newBuilder()
+                .maximumSize(props.maxSize())
+                .expireAfterWrite(props.ttl())
+                .recordStats()
+                .build();
+        this.tombstones = Caffeine.newBuilder()
+                .expireAfterWrite(TOMBSTONE_TTL)
+                .build();
+        CaffeineCacheMetrics.monitor(registry, orders, "orders.by-id");
+        channel.subscribe(this::evict);
+    }
+
+    public OrderResponse get(UUID id, Function<UUID, OrderResponse> loader) {
+        if (!enabled) return loader.apply(id);
+
+        OrderResponse cached = orders.getIfPresent(id);
+        if (cached != null) return cached;
+
+        long stamp = sequence.get();
+        OrderResponse loaded = loader.apply(id);
+        orders.put(id, loaded);
+        // checked after the put: an eviction racing with it either removes the entry or is seen here
+        if (evictedSince(id, stamp)) orders.invalidate(id);
+        return loaded;
+    }
+
+    /**
+     * Evicts {@code id} here and on every other instance once the current transaction commits
+     * (immediately when there is none).
+     */
+    public void evictAfterCommit(UUID id) {
+        if (!enabled) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictEverywhere(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictEverywhere(id);
+            }
+        });
+    }
+
+    /**
+     * {@link #evictAfterCommit} for many orders, with a single transaction callback.
+     */
+    public void evictAllAfterCommit(Collection<UUID> ids) {
+        if (!enabled || ids.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(this::evictEverywhere);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(OrderCache.this::evictEverywhere);
+            }
+        });
+    }
+
+    /**
+     * Local eviction only; also the entry point for messages from other instances.
+     */
+    public void evict(UUID id) {
+        tombstones.put(id, sequence.incrementAndGet());
+        orders.invalidate(id);
+    }
+
+    private void evictEverywhere(UUID id) {
+        evict(id);
+        channel.publish(id);
+    }
+
+    private boolean evictedSince(UUID id, long stamp) {
+        Long evictedAt = tombstones.getIfPresent(id);
+        return evictedAt != null && evictedAt > stamp;
+    }
+}
@@ -0,0 +1,17 @@
+package com.minicommerce.orders.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "orders.cache")
+public record OrderCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maxSize,
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("kafka") Channel invalidation,
+        @DefaultValue("mini.order.cache-invalidation.v1") String invalidationTopic
+) {
+    public enum Channel { LOCAL, KAFKA }
+}
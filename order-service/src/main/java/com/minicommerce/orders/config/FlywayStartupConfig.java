@@ -0,0 +1,27 @@
+package com.minicommerce.orders.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets a pod skip Flyway at startup ({@code orders.flyway.on-startup=skip}). Decided when the strategy runs rather
+ * than with {@code spring.flyway.enabled}, which an AOT-processed build fixes at build time.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FlywayStartupConfig {
+    private static final Logger log = LoggerFactory.getLogger(FlywayStartupConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(FlywayStartupProperties props) {
+        return flyway -> {
+            if (props.onStartup() == FlywayStartupProperties.OnStartup.SKIP) {
+                log.info("Skipping Flyway at startup (orders.flyway.on-startup=skip)");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.minicommerce.orders.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * What Flyway does when the application starts ({@code orders.flyway.*}).
+ */
+@ConfigurationProperties(prefix = "orders.flyway")
+public record FlywayStartupProperties(
+        @DefaultValue("migrate") OnStartup onStartup
+) {
+    public enum OnStartup {
+        /** Validate applied migrations against the classpath, then apply pending ones (Flyway's default). */
+        MIGRATE,
+        /** Do not touch the schema: migrations are applied out of band, e.g. by a job before the rollout. */
+        SKIP
+    }
+}
@@ -1,27 +1,73 @@
 package com.minicommerce.orders.config;
 
+import com.minicommerce.orders.consumer.StatusEventsProperties;
+import com.minicommerce.orders.events.EventsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory(KafkaProperties props) {
-        Map<String, Object> cfg = new HashMap<>(props.buildProducerProperties());
-        cfg.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        cfg.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(cfg);
+    public ProducerFactory<String, Object> producerFactory(KafkaProperties props, ObjectProvider<SslBundles> sslBundles,
+                                                           EventsProperties events, MeterRegistry registry) {
+        Map<String, Object> cfg = new HashMap<>(profile(events.producer()));
+        cfg.putAll(props.buildProducerProperties(sslBundles.getIfAvailable()));
+
+        // Outbox payloads are already-serialized JSON (byte[]) and go out verbatim; anything else is JSON-encoded.
+        Map<Class<?>, Serializer<?>> byType = new LinkedHashMap<>();
+        byType.put(byte[].class, new ByteArraySerializer());
+        byType.put(Object.class, new JsonSerializer<>());
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Serializer<Object> values = (Serializer) new DelegatingByTypeSerializer(byType, true);
+        DefaultKafkaProducerFactory<String, Object> pf = new DefaultKafkaProducerFactory<>(cfg, new StringSerializer(), values);
+        // kafka.producer.* gauges (batch size, record queue time, buffer available, request latency, ...)
+        pf.addListener(new MicrometerProducerListener<>(registry));
+        return pf;
+    }
+
+    /**
+     * Baseline producer settings for the selected profile; always idempotent with acks=all.
+     */
+    static Map<String, Object> profile(EventsProperties.Producer producer) {
+        Map<String, Object> cfg = new HashMap<>();
+        cfg.put(ProducerConfig.ACKS_CONFIG, "all");
+        cfg.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        cfg.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        if (producer.profile() == EventsProperties.Profile.THROUGHPUT) {
+            cfg.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producer.compression());
+            cfg.put(ProducerConfig.LINGER_MS_CONFIG, (int) producer.linger().toMillis());
+            cfg.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) producer.batchSize().toBytes());
+            cfg.put(ProducerConfig.BUFFER_MEMORY_CONFIG, producer.bufferMemory().toBytes());
+        }
+        return cfg;
     }
 
     @Bean
@@ -29,4 +75,34 @@ public class KafkaConfig {
         return new KafkaTemplate<>(pf);
     }
 
+    /**
+     * Batch listeners for payment and fulfillment events (StatusEventConsumer): offsets are committed by the
+     * listener once its transaction has, and a failed batch is retried with backoff for as long as it fails.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> statusEventsContainerFactory(
+            KafkaProperties props, ObjectProvider<SslBundles> sslBundles, StatusEventsProperties events,
+            MeterRegistry registry) {
+        Map<String, Object> cfg = new HashMap<>(props.buildConsumerProperties(sslBundles.getIfAvailable()));
+        cfg.put(ConsumerConfig.GROUP_ID_CONFIG, events.groupId());
+        cfg.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        cfg.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, events.maxPollRecords());
+        cfg.putIfAbsent(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        DefaultKafkaConsumerFactory<String, byte[]> cf =
+                new DefaultKafkaConsumerFactory<>(cfg, new StringDeserializer(), new ByteArrayDeserializer());
+        // kafka.consumer.* gauges (records lag, fetch latency, records per request, ...)
+        cf.addListener(new MicrometerConsumerListener<>(registry));
+
+        ExponentialBackOff backOff = new ExponentialBackOff(events.retryInitialBackoff().toMillis(), 2.0);
+        backOff.setMaxInterval(events.retryMaxBackoff().toMillis());
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(cf);
+        factory.setBatchListener(true);
+        factory.setConcurrency(events.concurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+
 }
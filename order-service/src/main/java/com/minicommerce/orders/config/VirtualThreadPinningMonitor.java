@@ -0,0 +1,98 @@
+package com.minicommerce.orders.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier (inside {@code synchronized} or a native
+ * frame) using the JFR {@code jdk.VirtualThreadPinned} event. Each pinning site is logged once with its stack;
+ * every occurrence is recorded in the {@code jvm.threads.virtual.pinned} timer.
+ * <p>
+ * Equivalent ad-hoc switch: {@code -Djdk.tracePinnedThreads=short}, which prints to stdout without a threshold.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 1000;
+    private static final int MAX_LOGGED_FRAMES = 15;
+
+    private final VirtualThreadsProperties props;
+    private final Timer pinned;
+    private final Set<String> sites = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadsProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to a carrier thread")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!props.pinningMonitor()) return;
+        RecordingStream rs = new RecordingStream();
+        rs.enable(EVENT).withThreshold(props.pinningThreshold()).withStackTrace();
+        rs.onEvent(EVENT, this::onPinned);
+        rs.startAsync();
+        stream = rs;
+        log.info("Virtual thread pinning monitor started (threshold {})", props.pinningThreshold());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream rs = stream;
+        stream = null;
+        if (rs != null) rs.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent e) {
+        pinned.record(e.getDuration());
+        RecordedStackTrace trace = e.getStackTrace();
+        if (trace == null) return;
+        String site = site(trace);
+        if (sites.size() < MAX_SITES && sites.add(site)) {
+            String frames = trace.getFrames().stream()
+                    .limit(MAX_LOGGED_FRAMES)
+                    .map(VirtualThreadPinningMonitor::format)
+                    .collect(Collectors.joining("\n\tat "));
+            log.warn("Virtual thread pinned for {} ms at {}:\n\tat {}", e.getDuration().toMillis(), site, frames);
+        }
+    }
+
+    /**
+     * First frame outside the JDK: the library or application code that blocked while pinned.
+     */
+    private static String site(RecordedStackTrace trace) {
+        for (RecordedFrame f : trace.getFrames()) {
+            String type = f.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) return format(f);
+        }
+        return trace.getFrames().isEmpty() ? "<unknown>" : format(trace.getFrames().get(0));
+    }
+
+    private static String format(RecordedFrame f) {
+        return f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+    }
+}
@@ -0,0 +1,15 @@
+package com.minicommerce.orders.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Diagnostics for {@code spring.threads.virtual.enabled=true}; ignored on platform threads.
+ */
+@ConfigurationProperties(prefix = "virtual-threads")
+public record VirtualThreadsProperties(
+        @DefaultValue("true") boolean pinningMonitor,
+        @DefaultValue("20ms") Duration pinningThreshold
+) { }
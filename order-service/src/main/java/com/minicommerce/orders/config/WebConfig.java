@@ -0,0 +1,27 @@
+package com.minicommerce.orders.config;
+
+import com.minicommerce.orders.jfr.OrderRequestRecorder;
+import com.minicommerce.orders.web.admission.AdmissionInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final ObjectProvider<AdmissionInterceptor> admission;
+    private final OrderRequestRecorder requests;
+
+    public WebConfig(ObjectProvider<AdmissionInterceptor> admission, OrderRequestRecorder requests) {
+        this.admission = admission;
+        this.requests = requests;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // first, so that requests admission control rejects are recorded as well
+        registry.addInterceptor(requests).addPathPatterns("/api/v1/orders", "/api/v1/orders/**");
+        // absent with orders.admission.enabled=false
+        admission.ifAvailable(registry::addInterceptor);
+    }
+}
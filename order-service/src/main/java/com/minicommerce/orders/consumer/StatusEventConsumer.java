@@ -0,0 +1,154 @@
+package com.minicommerce.orders.consumer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.minicommerce.orders.events.EventEnvelopeCodec;
+import com.minicommerce.orders.events.Topics;
+import com.minicommerce.orders.repository.OrderTransitions;
+import com.minicommerce.orders.service.OrderService;
+import com.minicommerce.orders.service.StatusChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves orders on {@code payment.approved|declined} and {@code fulfillment.shipped|failed}. Records arrive in
+ * batches of up to {@code orders.status-events.max-poll-records}; each batch becomes one
+ * {@link OrderService#applyAll} transaction, and its offsets are committed only after that transaction has.
+ * <p>
+ * Within a batch only the latest stage per order counts ({@link StatusEventType#stage}); the events it supersedes
+ * are already implied by it. Delivery is at least once, so a batch may come again after a crash or a rebalance:
+ * the status guards in the UPDATE make a second delivery a no-op. A batch that fails (database down, lock
+ * timeout) is retried with backoff until it succeeds, holding back its partitions meanwhile. Records that cannot
+ * be decoded are counted, logged and skipped.
+ * <p>
+ * Values may be JSON or binary envelopes (ADR 0003), told apart per record.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.status-events", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatusEventConsumer {
+    private static final Logger log = LoggerFactory.getLogger(StatusEventConsumer.class);
+
+    enum Outcome { APPLIED, SUPERSEDED, DUPLICATE, CONFLICT, MISSING, INVALID }
+
+    private final OrderService orders;
+    private final EventEnvelopeCodec codec;
+    private final ObjectReader json;
+    private final Map<StatusEventType, Map<Outcome, Counter>> counters = new EnumMap<>(StatusEventType.class);
+    private final DistributionSummary batchSize;
+
+    public StatusEventConsumer(OrderService orders, EventEnvelopeCodec codec, ObjectMapper mapper,
+                               MeterRegistry registry) {
+        this.orders = orders;
+        this.codec = codec;
+        this.json = mapper.readerFor(Payload.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        for (StatusEventType type : StatusEventType.values()) {
+            Map<Outcome, Counter> byOutcome = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome.put(outcome, Counter.builder("orders.status-events")
+                        .description("Payment and fulfillment events consumed, by what they did")
+                        .tag("type", type.eventName())
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(registry));
+            }
+            counters.put(type, byOutcome);
+        }
+        this.batchSize = DistributionSummary.builder("orders.status-events.batch")
+                .description("Records per consumed batch")
+                .register(registry);
+    }
+
+    @KafkaListener(id = "order-status-events", idIsGroup = false,
+            topics = {Topics.PAYMENT_APPROVED, Topics.PAYMENT_DECLINED,
+                    Topics.FULFILLMENT_SHIPPED, Topics.FULFILLMENT_FAILED},
+            containerFactory = "statusEventsContainerFactory")
+    public void onBatch(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        batchSize.record(records.size());
+        Map<UUID, StatusEventType> latest = new HashMap<>(records.size() * 2);
+        for (ConsumerRecord<String, byte[]> record : records) {
+            StatusEventType type = StatusEventType.forTopic(record.topic());
+            UUID orderId = orderId(type, record);
+            if (orderId == null) continue;
+            StatusEventType previous = latest.get(orderId);
+            if (previous == null) {
+                latest.put(orderId, type);
+            } else if (type.stage() >= previous.stage()) {
+                latest.put(orderId, type);
+                count(previous, Outcome.SUPERSEDED);
+            } else {
+                count(type, Outcome.SUPERSEDED);
+            }
+        }
+
+        if (!latest.isEmpty()) {
+            List<StatusChange> changes = new ArrayList<>(latest.size());
+            latest.forEach((id, type) -> changes.add(new StatusChange(id, type.target(), type.from(), type.eventName())));
+            for (OrderTransitions.Result result : orders.applyAll(changes)) {
+                report(latest.get(result.change().id()), result);
+            }
+        }
+        ack.acknowledge();
+    }
+
+    private UUID orderId(StatusEventType type, ConsumerRecord<String, byte[]> record) {
+        byte[] value = record.value();
+        try {
+            if (value == null) throw new IllegalArgumentException("empty record");
+            if (EventEnvelopeCodec.isEnvelope(value)) {
+                EventEnvelopeCodec.Envelope envelope = codec.decode(value);
+                if (!type.eventName().equals(envelope.type())) {
+                    throw new IllegalArgumentException("unexpected event type " + envelope.type());
+                }
+                return UUID.fromString(envelope.data().path("orderId").asText());
+            }
+            Payload payload = json.readValue(value);
+            if (payload.type() != null && !type.eventName().equals(payload.type())) {
+                throw new IllegalArgumentException("unexpected event type " + payload.type());
+            }
+            if (payload.orderId() == null) throw new IllegalArgumentException("no orderId");
+            return payload.orderId();
+        } catch (IOException | IllegalArgumentException e) {
+            count(type, Outcome.INVALID);
+            log.warn("Skipping undecodable {} at {}-{}@{}: {}", type.eventName(), record.topic(), record.partition(),
+                    record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void report(StatusEventType type, OrderTransitions.Result result) {
+        UUID id = result.change().id();
+        if (result.moved() != null) {
+            count(type, Outcome.APPLIED);
+        } else if (result.current() == null) {
+            count(type, Outcome.MISSING);
+            log.warn("{} for unknown order {}", type.eventName(), id);
+        } else if (type.settledIn().contains(result.current())) {
+            count(type, Outcome.DUPLICATE);
+        } else {
+            count(type, Outcome.CONFLICT);
+            log.warn("{} for order {} ignored: order is {}", type.eventName(), id, result.current());
+        }
+    }
+
+    private void count(StatusEventType type, Outcome outcome) {
+        counters.get(type).get(outcome).increment();
+    }
+
+    record Payload(UUID orderId, String type) { }
+}
@@ -0,0 +1,94 @@
+package com.minicommerce.orders.consumer;
+
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.events.Topics;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.minicommerce.orders.domain.OrderStatus.CANCELLED;
+import static com.minicommerce.orders.domain.OrderStatus.CREATED;
+import static com.minicommerce.orders.domain.OrderStatus.FULFILLED;
+import static com.minicommerce.orders.domain.OrderStatus.PAID;
+import static com.minicommerce.orders.domain.OrderStatus.REFUNDED;
+
+/**
+ * Events from payment and fulfillment that move orders, one topic each.
+ * <p>
+ * Each event is a fact about the order's lifecycle, and a later stage implies the earlier ones: a shipment means
+ * the payment went through. So an event applies from every status before its target ({@link #from}), not only
+ * from the one right before it, and a {@code fulfillment.shipped} that overtakes its {@code payment.approved}
+ * moves a created order straight to fulfilled. The approval arriving afterwards finds the order in a status that
+ * already reflects it ({@link #settledIn}) and changes nothing, as does any redelivered event.
+ */
+public enum StatusEventType {
+    PAYMENT_APPROVED(Topics.PAYMENT_APPROVED, "payment.approved", 1, PAID,
+            EnumSet.of(CREATED), EnumSet.of(PAID, FULFILLED, REFUNDED)),
+    PAYMENT_DECLINED(Topics.PAYMENT_DECLINED, "payment.declined", 1, CANCELLED,
+            EnumSet.of(CREATED), EnumSet.of(CANCELLED)),
+    FULFILLMENT_SHIPPED(Topics.FULFILLMENT_SHIPPED, "fulfillment.shipped", 2, FULFILLED,
+            EnumSet.of(CREATED, PAID), EnumSet.of(FULFILLED, REFUNDED)),
+    FULFILLMENT_FAILED(Topics.FULFILLMENT_FAILED, "fulfillment.failed", 2, CANCELLED,
+            EnumSet.of(CREATED, PAID), EnumSet.of(CANCELLED, REFUNDED));
+
+    private final String topic;
+    private final String eventName;
+    private final int stage;
+    private final OrderStatus target;
+    private final Set<OrderStatus> from;
+    private final Set<OrderStatus> settledIn;
+
+    StatusEventType(String topic, String eventName, int stage, OrderStatus target,
+                    Set<OrderStatus> from, Set<OrderStatus> settledIn) {
+        this.topic = topic;
+        this.eventName = eventName;
+        this.stage = stage;
+        this.target = target;
+        this.from = Collections.unmodifiableSet(from);
+        this.settledIn = Collections.unmodifiableSet(settledIn);
+    }
+
+    public static StatusEventType forTopic(String topic) {
+        for (StatusEventType type : values()) {
+            if (type.topic.equals(topic)) return type;
+        }
+        throw new IllegalArgumentException("No status events on " + topic);
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    /**
+     * The {@code type} these events carry, e.g. {@code payment.approved}.
+     */
+    public String eventName() {
+        return eventName;
+    }
+
+    /**
+     * Position in the lifecycle: of two events for one order, the one at the later stage decides its status.
+     */
+    public int stage() {
+        return stage;
+    }
+
+    public OrderStatus target() {
+        return target;
+    }
+
+    /**
+     * Statuses the event moves an order out of.
+     */
+    public Set<OrderStatus> from() {
+        return from;
+    }
+
+    /**
+     * Statuses in which the event has already had its effect, so finding the order there is not a conflict.
+     */
+    public Set<OrderStatus> settledIn() {
+        return settledIn;
+    }
+}
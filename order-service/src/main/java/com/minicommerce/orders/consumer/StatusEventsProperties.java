@@ -0,0 +1,34 @@
+package com.minicommerce.orders.consumer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Consumer of payment and fulfillment events ({@link StatusEventConsumer}). {@code orders.status-events.enabled}
+ * is read by the consumer's {@code @ConditionalOnProperty}.
+ *
+ * @param groupId             consumer group; every instance of the service joins the same one
+ * @param concurrency         consumers (threads) per instance; partitions beyond this are shared, consumers
+ *                            beyond the topics' partition count sit idle
+ * @param maxPollRecords      records per poll, and so at most this many orders per UPDATE
+ * @param retryInitialBackoff first wait before a failed batch is retried
+ * @param retryMaxBackoff     longest wait between retries; a failed batch is retried until it succeeds
+ */
+@ConfigurationProperties(prefix = "orders.status-events")
+public record StatusEventsProperties(
+        @DefaultValue("order-service") String groupId,
+        @DefaultValue("4") int concurrency,
+        @DefaultValue("2000") int maxPollRecords,
+        @DefaultValue("500ms") Duration retryInitialBackoff,
+        @DefaultValue("30s") Duration retryMaxBackoff
+) {
+    public StatusEventsProperties {
+        if (concurrency < 1) throw new IllegalArgumentException("orders.status-events.concurrency must be >= 1");
+        if (maxPollRecords < 1) throw new IllegalArgumentException("orders.status-events.max-poll-records must be >= 1");
+        if (retryMaxBackoff.compareTo(retryInitialBackoff) < 0) {
+            throw new IllegalArgumentException("orders.status-events.retry-max-backoff must be >= retry-initial-backoff");
+        }
+    }
+}
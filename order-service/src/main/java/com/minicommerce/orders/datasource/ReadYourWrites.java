@@ -0,0 +1,64 @@
+package com.minicommerce.orders.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minicommerce.orders.cache.InvalidationChannel;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads of recently written orders on the primary, so a client never reads its own create or status change
+ * back from a replica that has not replayed it yet. Orders changed on other instances are learned from the
+ * order-cache {@link InvalidationChannel}; orders created elsewhere are not (a replica miss is a 404, which no
+ * cache keeps).
+ * <p>
+ * Without a replica every method is a no-op.
+ */
+@Component
+public class ReadYourWrites {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+    // bounds memory under bulk ingestion; an id pushed out early is read from the replica, at most max-lag behind
+    private static final long MAX_TRACKED = 100_000;
+
+    private final Cache<UUID, Boolean> recent;
+
+    public ReadYourWrites(ReplicaProperties props, InvalidationChannel channel) {
+        if (!props.enabled()) {
+            this.recent = null;
+            return;
+        }
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED)
+                .expireAfterWrite(props.readYourWrites())
+                .build();
+        channel.subscribe(this::written);
+    }
+
+    /**
+     * Records a write to {@code id}. Call it before the transaction commits: a read arriving between the commit
+     * and this call could otherwise reach the replica.
+     */
+    public void written(UUID id) {
+        if (recent != null) recent.put(id, Boolean.TRUE);
+    }
+
+    /**
+     * Runs {@code read}, on the primary if {@code id} was written recently. {@code read} must not have used the
+     * connection of the current transaction yet: the pool is chosen when it is first used.
+     */
+    public <T> T read(UUID id, Supplier<T> read) {
+        if (recent == null || recent.getIfPresent(id) == null || PRIMARY.get() != null) return read.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+
+    static boolean primaryRequired() {
+        return PRIMARY.get() != null;
+    }
+}
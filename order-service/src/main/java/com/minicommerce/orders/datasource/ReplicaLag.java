@@ -0,0 +1,107 @@
+package com.minicommerce.orders.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the replica's replay lag every {@code orders.replica.lag-check-interval}. Until the first successful
+ * check, and whenever the replica is unreachable, not streaming from the primary or further behind than
+ * {@link ReplicaProperties#maxLag}, it is reported unusable and read-only transactions run on the primary.
+ * <p>
+ * Lag is measured against the primary: a replica that has replayed the primary's current WAL position is
+ * current however long ago its last transaction was, otherwise it is as far behind as that last transaction.
+ * The WAL receiver's status is only visible to roles with {@code pg_read_all_stats} (e.g. {@code pg_monitor}),
+ * so the replica user needs one of them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.replica", name = "enabled", havingValue = "true")
+public class ReplicaLag {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLag.class);
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private static final String PRIMARY_LSN = "SELECT pg_current_wal_lsn()::text";
+
+    // a receiver that stopped streaming has replayed all it received, so replay alone would look current
+    private static final String REPLAY = """
+            SELECT pg_is_in_recovery(),
+                   (SELECT status FROM pg_stat_wal_receiver),
+                   pg_last_wal_replay_lsn() >= ?::pg_lsn,
+                   EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8
+            """;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final double maxLagSeconds;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+
+    public ReplicaLag(@Qualifier("primaryDataSource") DataSource primary,
+                      @Qualifier("replicaDataSource") DataSource replica, ReplicaProperties props,
+                      MeterRegistry registry) {
+        this.primary = new JdbcTemplate(primary);
+        this.primary.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+        this.maxLagSeconds = props.maxLag().toMillis() / 1000.0;
+        Gauge.builder("orders.replica.lag", this, l -> l.lagSeconds)
+                .description("Replay lag of the read replica at the last check; NaN if unknown or not streaming")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("orders.replica.usable", this, l -> l.usable ? 1 : 0)
+                .description("1 while read-only transactions may use the replica")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.replica.lag-check-interval:PT1S}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            // read before the replica, so a replica that has replayed it was current when asked
+            String primaryLsn = primary.queryForObject(PRIMARY_LSN, String.class);
+            double lag = replica.queryForObject(REPLAY, (rs, n) -> lagSeconds(rs.getBoolean(1), rs.getString(2),
+                    rs.getObject(3, Boolean.class), rs.getObject(4, Double.class)), primaryLsn);
+            lagSeconds = lag;
+            usable = lag <= maxLagSeconds;
+            if (wasUsable && Double.isNaN(lag)) {
+                log.warn("Replica not streaming from the primary, reads go to the primary");
+            } else if (wasUsable && !usable) {
+                log.warn("Replica lag {}s exceeds {}s, reads go to the primary", lag, maxLagSeconds);
+            }
+            if (!wasUsable && usable) log.info("Replica lag {}s, reads go to the replica", lag);
+        } catch (RuntimeException e) {
+            // also covers pool start-up failures, which are not DataAccessExceptions
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) log.warn("Replica lag unknown, reads go to the primary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Seconds the replica is behind the primary, or NaN when that is not known: no WAL receiver, a receiver that
+     * is not streaming, or nothing replayed yet. A database that is not in recovery (a stand-in, or a promoted
+     * replica) is current.
+     *
+     * @param receiver  {@code pg_stat_wal_receiver.status}, null without a receiver
+     * @param caughtUp  whether the replay position has reached the primary's current WAL position
+     * @param replayAge seconds since the last replayed transaction committed on the primary
+     */
+    static double lagSeconds(boolean inRecovery, String receiver, Boolean caughtUp, Double replayAge) {
+        if (!inRecovery) return 0;
+        if (!"streaming".equals(receiver)) return Double.NaN;
+        if (Boolean.TRUE.equals(caughtUp)) return 0;
+        return replayAge == null ? Double.NaN : Math.max(replayAge, 0);
+    }
+
+    public boolean usable() {
+        return usable;
+    }
+}
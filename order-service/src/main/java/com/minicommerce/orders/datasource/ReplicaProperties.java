@@ -0,0 +1,35 @@
+package com.minicommerce.orders.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Read replica for read-only transactions. The lag check interval itself is read by {@code @Scheduled} from
+ * {@code orders.replica.lag-check-interval}.
+ *
+ * @param maxPoolSize    connections in the replica pool
+ * @param maxLag         replay lag beyond which reads go back to the primary
+ * @param readYourWrites how long reads of an order written by this instance stay on the primary; must cover
+ *                       {@code maxLag} plus one lag check interval, or a read may still miss the write
+ */
+@ConfigurationProperties(prefix = "orders.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maxPoolSize,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("10s") Duration readYourWrites
+) {
+    public ReplicaProperties {
+        if (enabled && (url == null || url.isBlank())) {
+            throw new IllegalArgumentException("orders.replica.url is required when orders.replica.enabled is true");
+        }
+        if (readYourWrites.compareTo(maxLag) < 0) {
+            throw new IllegalArgumentException("orders.replica.read-your-writes must be at least orders.replica.max-lag");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.minicommerce.orders.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. The choice is made when a
+ * connection is obtained, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers open the
+ * connection before the transaction's read-only flag is published, the proxy defers it to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLag lag;
+    private final Counter writes;
+    private final Counter reads;
+    private final Counter readYourWrites;
+    private final Counter lagging;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLag lag, MeterRegistry registry) {
+        this.lag = lag;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.writes = routed(registry, "primary", "write");
+        this.readYourWrites = routed(registry, "primary", "read-your-writes");
+        this.lagging = routed(registry, "primary", "replica-unusable");
+        this.reads = routed(registry, "replica", "read");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return Target.PRIMARY;
+        }
+        if (ReadYourWrites.primaryRequired()) {
+            readYourWrites.increment();
+            return Target.PRIMARY;
+        }
+        if (!lag.usable()) {
+            lagging.increment();
+            return Target.PRIMARY;
+        }
+        reads.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter routed(MeterRegistry registry, String pool, String reason) {
+        return Counter.builder("orders.datasource.routed")
+                .description("Connections handed out by the routing data source, by pool and reason")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.minicommerce.orders.domain;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount as a count of minor units at the fixed scale of the {@code NUMERIC(12,2)} money columns, so order
+ * arithmetic is plain {@code long} math instead of {@link BigDecimal} allocations. The scale is the storage scale
+ * for every currency; a zero-decimal currency such as JPY is stored as {@code 500.00} today and stays that way.
+ * <p>
+ * Arithmetic is exact: anything that would overflow, or an input with non-zero digits past the second decimal,
+ * throws {@link ArithmeticException} rather than rounding.
+ */
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public record Money(long minorUnits) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long FACTOR = 100;
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Exact conversion; {@code 19.990} is accepted, {@code 19.995} is not.
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 19.99}, {@code -5} or {@code 1.500} without going through
+     * {@link BigDecimal}; exponent notation falls back to it.
+     *
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException   if it has non-zero digits past the scale or does not fit in a {@code long}
+     */
+    public static Money parse(CharSequence text) {
+        int len = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; i < len; i++) {
+            char c = text.charAt(i);
+            if (c == '.') break;
+            if (c < '0' || c > '9') return slowParse(text);
+            units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+            digits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < len) {
+            for (i++; i < len; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') return slowParse(text);
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + (c - '0');
+                } else if (c != '0') {
+                    throw new ArithmeticException("More than " + SCALE + " decimal places: " + text);
+                }
+                fractionDigits++;
+            }
+        }
+        if (digits + fractionDigits == 0) throw new NumberFormatException("Not a number: " + text);
+        for (int d = fractionDigits; d < SCALE; d++) fraction *= 10;
+
+        long minor = Math.addExact(Math.multiplyExact(units, FACTOR), fraction);
+        return ofMinor(negative ? -minor : minor);
+    }
+
+    private static Money slowParse(CharSequence text) {
+        return of(new BigDecimal(text.toString()));
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    /**
+     * For JDBC parameters; always at {@link #SCALE}.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * Plain decimal with exactly {@link #SCALE} fraction digits, e.g. {@code 19.90} or {@code -0.05}; this is also
+     * the JSON representation.
+     */
+    @Override
+    public String toString() {
+        if (minorUnits == Long.MIN_VALUE) {
+            // the one value that cannot be negated
+            return toBigDecimal().toPlainString();
+        }
+        long abs = Math.abs(minorUnits);
+        long whole = abs / FACTOR;
+        long fraction = abs % FACTOR;
+        StringBuilder sb = new StringBuilder(24);
+        if (minorUnits < 0) sb.append('-');
+        sb.append(whole).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction).toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.minicommerce.orders.domain;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMin;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Lets {@code @DecimalMin} guard {@link Money} fields with the same semantics and message as on {@link BigDecimal}.
+ * Registered with Hibernate Validator through {@code META-INF/services/jakarta.validation.ConstraintValidator}.
+ */
+public class MoneyDecimalMinValidator implements ConstraintValidator<DecimalMin, Money> {
+    private long threshold;
+    private boolean inclusive;
+
+    @Override
+    public void initialize(DecimalMin constraint) {
+        BigDecimal min = new BigDecimal(constraint.value());
+        inclusive = constraint.inclusive();
+        // x >= min  <=>  minor >= ceil(min * 100);  x > min  <=>  minor > floor(min * 100)
+        threshold = min.setScale(Money.SCALE, inclusive ? RoundingMode.CEILING : RoundingMode.FLOOR)
+                .unscaledValue().longValueExact();
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        if (value == null) return true;
+        return inclusive ? value.minorUnits() >= threshold : value.minorUnits() > threshold;
+    }
+}
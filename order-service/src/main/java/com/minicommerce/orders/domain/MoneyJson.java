@@ -0,0 +1,48 @@
+package com.minicommerce.orders.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link Money}: a number with two decimals ({@code 19.90}), the same text a {@code NUMERIC(12,2)}
+ * {@code BigDecimal} produced. Numbers and numeric strings are accepted on input; amounts with more precision than
+ * the columns can store are rejected instead of being rounded.
+ */
+final class MoneyJson {
+    private MoneyJson() {}
+
+    static final class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    static final class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken t = p.currentToken();
+            if (t != JsonToken.VALUE_NUMBER_INT && t != JsonToken.VALUE_NUMBER_FLOAT && t != JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            String text = p.getText().trim();
+            try {
+                return Money.parse(text);
+            } catch (NumberFormatException e) {
+                throw InvalidFormatException.from(p, "Not a valid amount", text, Money.class);
+            } catch (ArithmeticException e) {
+                throw InvalidFormatException.from(p,
+                        "Amount must have at most " + Money.SCALE + " decimal places and fit the money columns",
+                        text, Money.class);
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.minicommerce.orders.domain;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.PartitionKey;
+import org.springframework.data.domain.Persistable;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,10 +11,15 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "orders")
-public class Order {
+public class Order implements Persistable<UUID> {
     @Id
     private UUID id;
 
+    // Ids are assigned by the application, so Spring Data cannot infer newness from a null id;
+    // without this, save() merges (SELECT per entity) instead of persisting.
+    @Transient
+    private boolean isNew = true;
+
     @Column(name = "customer_id", nullable = false)
     private UUID customerId;
 
@@ -24,15 +31,24 @@ public class Order {
     private String currency;
 
     @Column(nullable = false)
-    private BigDecimal total;
+    private Money total;
 
+    // Monthly partition key: Hibernate adds it to the WHERE clause of its UPDATEs so they prune
+    @PartitionKey
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt = OffsetDateTime.now();
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Bumped by every status transition (OrderTransitions); also guards any entity update against lost writes
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Lazy + batch: a page of orders initializes all its item collections with one IN (...) query
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 200)
     private List<OrderItem> items = new ArrayList<>();
 
     public void addItem(OrderItem item){
@@ -40,6 +56,13 @@ public class Order {
         this.items.add(item);
     }
 
+    @Override
+    public boolean isNew(){ return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew(){ this.isNew = false; }
+
     // getters/setters
     public UUID getId(){ return id; }
     public void setId(UUID id){ this.id = id; }
@@ -49,12 +72,14 @@ public class Order {
     public void setStatus(OrderStatus status){ this.status = status; }
     public String getCurrency(){ return currency; }
     public void setCurrency(String currency){ this.currency = currency; }
-    public BigDecimal getTotal(){ return total; }
-    public void setTotal(BigDecimal total){ this.total = total; }
+    public Money getTotal(){ return total; }
+    public void setTotal(Money total){ this.total = total; }
     public OffsetDateTime getCreatedAt(){ return createdAt; }
     public void setCreatedAt(OffsetDateTime createdAt){ this.createdAt = createdAt; }
     public OffsetDateTime getUpdatedAt(){ return updatedAt; }
     public void setUpdatedAt(OffsetDateTime updatedAt){ this.updatedAt = updatedAt; }
+    public long getVersion(){ return version; }
+    public void setVersion(long version){ this.version = version; }
     public List<OrderItem> getItems(){ return items; }
     public void setItems(List<OrderItem> items){ this.items = items; }
 }
@@ -0,0 +1,39 @@
+package com.minicommerce.orders.domain;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Order ids are UUIDv7 (RFC 9562): the top 48 bits carry the order's {@code created_at} in epoch milliseconds,
+ * the rest is random. Lookups by id can therefore bound {@code created_at} and touch only the matching monthly
+ * partition, and new ids land at the right edge of the primary-key index instead of at random pages.
+ * <p>
+ * Orders created before the switch have random (v4) ids and no timestamp.
+ */
+public final class OrderIds {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private OrderIds() {}
+
+    public static UUID newId(OffsetDateTime createdAt) {
+        long millis = createdAt.toInstant().toEpochMilli();
+        long randA = RANDOM.nextInt(1 << 12);
+        long randB = RANDOM.nextLong();
+        long msb = (millis << 16) | (0x7L << 12) | randA;
+        long lsb = (randB & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * The creation time embedded in a v7 id, truncated to milliseconds; empty for any other version.
+     */
+    public static Optional<OffsetDateTime> createdAt(UUID id) {
+        if (id.version() != 7) return Optional.empty();
+        long millis = id.getMostSignificantBits() >>> 16;
+        return Optional.of(Instant.ofEpochMilli(millis).atOffset(ZoneOffset.UTC));
+    }
+}
@@ -1,7 +1,9 @@
 package com.minicommerce.orders.domain;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.PartitionKey;
+
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
@@ -10,7 +12,7 @@ public class OrderItem {
     @Id
     private UUID id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
 
@@ -24,7 +26,15 @@ public class OrderItem {
     private Integer quantity;
 
     @Column(name = "unit_price", nullable = false)
-    private BigDecimal unitPrice;
+    private Money unitPrice;
+
+    // Copy of the order's created_at; partitions items alongside their order
+    @PartitionKey
+    @Column(name = "order_created_at", nullable = false)
+    private OffsetDateTime orderCreatedAt;
+
+    @PrePersist
+    void copyOrderCreatedAt(){ this.orderCreatedAt = order.getCreatedAt(); }
 
     // getters/setters
     public UUID getId(){ return id; }
@@ -37,6 +47,7 @@ public class OrderItem {
     public void setName(String name){ this.name = name; }
     public Integer getQuantity(){ return quantity; }
     public void setQuantity(Integer quantity){ this.quantity = quantity; }
-    public BigDecimal getUnitPrice(){ return unitPrice; }
-    public void setUnitPrice(BigDecimal unitPrice){ this.unitPrice = unitPrice; }
+    public Money getUnitPrice(){ return unitPrice; }
+    public void setUnitPrice(Money unitPrice){ this.unitPrice = unitPrice; }
+    public OffsetDateTime getOrderCreatedAt(){ return orderCreatedAt; }
 }
@@ -1,2 +1,32 @@
 package com.minicommerce.orders.domain;
-public enum OrderStatus { CREATED, PAID, FULFILLED, CANCELLED, REFUNDED }
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+public enum OrderStatus {
+    CREATED, PAID, FULFILLED, CANCELLED, REFUNDED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        SOURCES.put(CREATED, EnumSet.noneOf(OrderStatus.class));
+        SOURCES.put(PAID, EnumSet.of(CREATED));
+        SOURCES.put(FULFILLED, EnumSet.of(PAID));
+        SOURCES.put(CANCELLED, EnumSet.of(CREATED, PAID));
+        SOURCES.put(REFUNDED, EnumSet.of(PAID, FULFILLED));
+    }
+
+    /**
+     * Statuses an order may move to this one from; empty for {@link #CREATED}, which is only ever inserted.
+     */
+    public Set<OrderStatus> reachableFrom() {
+        return Collections.unmodifiableSet(SOURCES.get(this));
+    }
+
+    public boolean canMoveTo(OrderStatus target) {
+        return target.reachableFrom().contains(this);
+    }
+}
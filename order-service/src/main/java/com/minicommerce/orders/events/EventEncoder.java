@@ -0,0 +1,53 @@
+package com.minicommerce.orders.events;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns a stored outbox payload into the record value for its topic, in the format chosen by
+ * {@code events.encoding}. Record sizes go to {@code events.encoded.size{topic,format}}.
+ */
+@Component
+public class EventEncoder {
+    private final EventsProperties.Encoding config;
+    private final EventEnvelopeCodec codec;
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> sizes = new ConcurrentHashMap<>();
+
+    public EventEncoder(EventsProperties props, EventEnvelopeCodec codec, MeterRegistry registry) {
+        this.config = props.encoding();
+        this.codec = codec;
+        this.registry = registry;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the topic is binary and the payload does not match its schema
+     */
+    public byte[] encode(String topic, UUID eventId, OffsetDateTime occurredAt, String json) {
+        EventsProperties.Format format = config.forTopic(topic);
+        byte[] value = switch (format) {
+            case JSON -> json.getBytes(StandardCharsets.UTF_8);
+            case BINARY -> codec.encode(eventId, occurredAt, json);
+        };
+        size(topic, format).record(value.length);
+        return value;
+    }
+
+    private DistributionSummary size(String topic, EventsProperties.Format format) {
+        String key = topic + '|' + format;
+        DistributionSummary s = sizes.get(key);
+        return s != null ? s : sizes.computeIfAbsent(key, k -> DistributionSummary.builder("events.encoded.size")
+                .description("Size of encoded event record values")
+                .baseUnit("bytes")
+                .tag("topic", topic)
+                .tag("format", format.name().toLowerCase())
+                .register(registry));
+    }
+}
@@ -0,0 +1,135 @@
+package com.minicommerce.orders.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary event envelope (ADR 0003). A record is:
+ * <pre>
+ *   0xCE                      magic; never the first byte of a JSON document
+ *   0x01                      format version
+ *   eventId                   16 bytes
+ *   type, version             strings, e.g. "order.created", "v1"
+ *   occurredAt                zigzag varint epoch seconds, varint nanos
+ *   data                      laid out by the schema titled "{type}.{version}"
+ * </pre>
+ * Schemas are the JSON Schemas from {@code docs/api/events}, packaged under {@code events/} on the classpath; see
+ * {@link EventSchema} for the data encoding. Field names never go on the wire, so a consumer needs the schema of
+ * the same version to decode.
+ */
+@Component
+public class EventEnvelopeCodec {
+    static final int MAGIC = 0xCE;
+    static final int FORMAT = 1;
+    private static final String SCHEMAS = "classpath:events/*.json";
+
+    private final Map<String, EventSchema> schemas;
+    private final ObjectReader reader;
+
+    public EventEnvelopeCodec(ObjectMapper mapper) {
+        // amounts keep their scale (19.90 stays 1990 x 10^-2) instead of going through double
+        this.reader = mapper.reader()
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .without(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES);
+        this.schemas = load(mapper);
+    }
+
+    /**
+     * Wraps an event's JSON payload, which must carry {@code type} and {@code version} and match their schema.
+     *
+     * @throws IllegalArgumentException if there is no schema for the event or the payload does not match it
+     */
+    public byte[] encode(UUID eventId, OffsetDateTime occurredAt, String json) {
+        JsonNode data = parse(json);
+        String type = data.path("type").asText(null);
+        String version = data.path("version").asText(null);
+        if (type == null || version == null) {
+            throw new IllegalArgumentException("Event payload has no type/version: " + json);
+        }
+
+        var out = new EventSchema.BinaryWriter(json.length() / 2);
+        out.write(MAGIC);
+        out.write(FORMAT);
+        out.fixed64(eventId.getMostSignificantBits());
+        out.fixed64(eventId.getLeastSignificantBits());
+        out.string(type);
+        out.string(version);
+        Instant at = occurredAt.toInstant();
+        out.zigzag(at.getEpochSecond());
+        out.varint(at.getNano());
+        schema(type, version).write(data, out);
+        return out.toByteArray();
+    }
+
+    public Envelope decode(byte[] record) {
+        if (!isEnvelope(record)) throw new IllegalArgumentException("Not an event envelope");
+        var in = new EventSchema.BinaryReader(record, 1);
+        int format = in.read();
+        if (format != FORMAT) throw new IllegalArgumentException("Unsupported envelope format " + format);
+        UUID eventId = new UUID(in.fixed64(), in.fixed64());
+        String type = in.string();
+        String version = in.string();
+        OffsetDateTime occurredAt = Instant.ofEpochSecond(in.zigzag(), in.varint()).atOffset(ZoneOffset.UTC);
+        JsonNode data = schema(type, version).read(in);
+        if (!in.exhausted()) throw new IllegalArgumentException("Trailing bytes after " + type + "." + version);
+        return new Envelope(eventId, type, version, occurredAt, data);
+    }
+
+    /**
+     * Tells envelopes from plain JSON records, e.g. while a topic switches format.
+     */
+    public static boolean isEnvelope(byte[] record) {
+        return record.length > 0 && (record[0] & 0xFF) == MAGIC;
+    }
+
+    private EventSchema schema(String type, String version) {
+        EventSchema schema = schemas.get(type + "." + version);
+        if (schema == null) throw new IllegalArgumentException("No event schema for " + type + "." + version);
+        return schema;
+    }
+
+    private JsonNode parse(String json) {
+        try {
+            return reader.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not JSON", e);
+        }
+    }
+
+    private static Map<String, EventSchema> load(ObjectMapper mapper) {
+        Map<String, EventSchema> byTitle = new HashMap<>();
+        try {
+            for (Resource r : new PathMatchingResourcePatternResolver().getResources(SCHEMAS)) {
+                try (InputStream in = r.getInputStream()) {
+                    JsonNode schema = mapper.readTree(in);
+                    byTitle.put(schema.path("title").asText(), EventSchema.parse(schema));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load event schemas", e);
+        }
+        return Map.copyOf(byTitle);
+    }
+
+    /**
+     * @param data the event payload without {@code type} and {@code version}
+     */
+    public record Envelope(UUID eventId, String type, String version, OffsetDateTime occurredAt, JsonNode data) { }
+}
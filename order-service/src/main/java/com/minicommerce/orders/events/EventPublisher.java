@@ -1,26 +1,254 @@
 package com.minicommerce.orders.events;
 
+import com.minicommerce.orders.jfr.EventPublishEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.InvalidTopicException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes records without parking a thread per record. Retries are scheduled from the producer's completion
+ * callback and run after a backoff on another thread, and the total size of records in flight is capped so a slow
+ * broker pushes back on callers instead of growing the heap.
+ * <p>
+ * Metrics per topic: {@code events.publish{topic,outcome}} (end-to-end latency including retries),
+ * {@code events.publish.attempts}, {@code events.publish.retries} and {@code events.publish.failures{reason}};
+ * plus the {@code events.publish.in-flight} gauge in bytes. Each attempt is also an {@link EventPublishEvent} while
+ * a Flight Recorder recording has it enabled.
+ * <p>
+ * A retry here starts after the idempotent producer has given up on the record, so the resend gets a new sequence
+ * number and, with several requests in flight, can land behind later records with the same key. Callers that need
+ * per-key order (the outbox relay) send once and retry themselves.
+ */
 @Component
 public class EventPublisher {
     private final KafkaTemplate<String, Object> kafka;
+    private final EventsProperties.Publisher cfg;
+    private final int maxInFlightBytes;
+    private final Semaphore inFlight;
+    private final MeterRegistry registry;
+    private final Map<String, TopicMeters> meters = new ConcurrentHashMap<>();
 
     public EventPublisher(KafkaTemplate<String, Object> kafka) {
+        this(kafka, EventsProperties.Publisher.defaults());
+    }
+
+    @Autowired
+    public EventPublisher(KafkaTemplate<String, Object> kafka, EventsProperties props, MeterRegistry registry) {
+        this(kafka, props.publisher(), registry);
+    }
+
+    public EventPublisher(KafkaTemplate<String, Object> kafka, EventsProperties.Publisher cfg) {
+        // an empty composite registry records nothing
+        this(kafka, cfg, new CompositeMeterRegistry());
+    }
+
+    public EventPublisher(KafkaTemplate<String, Object> kafka, EventsProperties.Publisher cfg, MeterRegistry registry) {
         this.kafka = kafka;
+        this.cfg = cfg;
+        this.maxInFlightBytes = (int) Math.min(Integer.MAX_VALUE, cfg.maxInFlight().toBytes());
+        this.inFlight = new Semaphore(maxInFlightBytes);
+        this.registry = registry;
+        Gauge.builder("events.publish.in-flight", this, EventPublisher::inFlightBytes)
+                .description("Bytes of records handed to the producer and not yet acknowledged")
+                .baseUnit("bytes")
+                .register(registry);
     }
 
+    /**
+     * Blocking variant kept for callers that need the outcome inline.
+     */
     public void publish(String topic, String key, Object payload) {
-        RuntimeException last = null;
-        for (int attempt = 1; attempt <= 3; attempt++) {
-            try {
-                kafka.send(topic, key, payload).get();
+        try {
+            publishAsync(topic, key, payload).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    /**
+     * Hands the record to the producer without waiting. The future completes once the broker acknowledges it,
+     * or exceptionally after {@code maxAttempts} or on a non-retriable error. Blocks the caller for at most
+     * {@code maxBlock} when the in-flight byte budget is exhausted.
+     */
+    public CompletableFuture<Void> publishAsync(String topic, String key, Object payload) {
+        return publishAsync(topic, key, payload, cfg.maxAttempts());
+    }
+
+    /**
+     * {@link #publishAsync(String, String, Object)} with its own attempt limit; {@code 1} sends once, leaving
+     * retries (and per-key ordering) to the caller.
+     */
+    public CompletableFuture<Void> publishAsync(String topic, String key, Object payload, int maxAttempts) {
+        TopicMeters m = meters(topic);
+        int permits = weigh(key, payload);
+        try {
+            EventPublishEvent event = EventPublishEvent.start();
+            if (!inFlight.tryAcquire(permits, cfg.maxBlock().toMillis(), TimeUnit.MILLISECONDS)) {
+                m.rejected.increment();
+                if (event != null) event.end(topic, key, 0, permits, "rejected");
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Publisher in-flight limit of %d bytes reached for %s".formatted(maxInFlightBytes, topic)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        attempt(topic, key, payload, permits, 1, maxAttempts, result, m);
+        return result.whenComplete((r, e) -> {
+            inFlight.release(permits);
+            (e == null ? m.succeeded : m.failed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /**
+     * Bytes currently reserved by records that have not been acknowledged yet.
+     */
+    public int inFlightBytes() {
+        return maxInFlightBytes - inFlight.availablePermits();
+    }
+
+    private void attempt(String topic, String key, Object payload, int bytes, int attempt, int maxAttempts,
+                         CompletableFuture<Void> result, TopicMeters m) {
+        m.attempts.increment();
+        EventPublishEvent event = EventPublishEvent.start();
+        CompletableFuture<?> send;
+        try {
+            send = kafka.send(topic, key, payload);
+        } catch (RuntimeException e) {
+            send = CompletableFuture.failedFuture(e);
+        }
+
+        send.whenComplete((r, e) -> {
+            if (e == null) {
+                if (event != null) event.end(topic, key, attempt, bytes, "success");
+                result.complete(null);
+                return;
+            }
+            Throwable cause = unwrap(e);
+            boolean permanent = isPermanent(cause);
+            if (attempt >= maxAttempts || permanent) {
+                (permanent ? m.permanent : m.exhausted).increment();
+                if (event != null) event.end(topic, key, attempt, bytes, permanent ? "permanent" : "exhausted");
+                result.completeExceptionally(new RuntimeException(
+                        "Failed to publish to %s (attempt %d)".formatted(topic, attempt), cause));
                 return;
-            } catch (Exception e) {
-                last = new RuntimeException("Failed to publish to %s (attempt %d)".formatted(topic, attempt), e);
             }
+            m.retries.increment();
+            if (event != null) event.end(topic, key, attempt, bytes, "retry");
+            // never resend inline: this is the producer's I/O thread, and a send that blocks on a full buffer here
+            // would block the thread that frees it
+            Executor next = CompletableFuture.delayedExecutor(
+                    Math.max(cfg.backoff(attempt).toMillis(), 0), TimeUnit.MILLISECONDS);
+            next.execute(() -> attempt(topic, key, payload, bytes, attempt + 1, maxAttempts, result, m));
+        });
+    }
+
+    private TopicMeters meters(String topic) {
+        TopicMeters m = meters.get(topic);
+        return m != null ? m : meters.computeIfAbsent(topic, t -> new TopicMeters(registry, t));
+    }
+
+    private int weigh(String key, Object payload) {
+        long size = key == null ? 0 : utf8Length(key);
+        if (payload instanceof byte[] bytes) {
+            size += bytes.length;
+        } else if (payload instanceof String s) {
+            size += utf8Length(s);
+        } else {
+            size += cfg.assumedRecordSize().toBytes();
+        }
+        return (int) Math.max(1, Math.min(size, maxInFlightBytes));
+    }
+
+    /**
+     * Encoded size of {@code s} as the producer's {@code StringSerializer} writes it, without encoding it.
+     */
+    static long utf8Length(String s) {
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 2;   // a surrogate pair is one 4-byte code point
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static boolean isPermanent(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SerializationException || t instanceof RecordTooLargeException
+                    || t instanceof InvalidTopicException || t instanceof AuthorizationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class TopicMeters {
+        final Counter attempts;
+        final Counter retries;
+        final Counter exhausted;
+        final Counter permanent;
+        final Counter rejected;
+        final Timer succeeded;
+        final Timer failed;
+
+        TopicMeters(MeterRegistry registry, String topic) {
+            attempts = Counter.builder("events.publish.attempts").tag("topic", topic)
+                    .description("Sends handed to the Kafka producer, including retries").register(registry);
+            retries = Counter.builder("events.publish.retries").tag("topic", topic).register(registry);
+            exhausted = failures(registry, topic, "exhausted");
+            permanent = failures(registry, topic, "permanent");
+            rejected = failures(registry, topic, "rejected");
+            succeeded = publish(registry, topic, "success");
+            failed = publish(registry, topic, "failure");
+        }
+
+        private static Counter failures(MeterRegistry registry, String topic, String reason) {
+            return Counter.builder("events.publish.failures").tag("topic", topic).tag("reason", reason)
+                    .register(registry);
+        }
+
+        private static Timer publish(MeterRegistry registry, String topic, String outcome) {
+            return Timer.builder("events.publish").tag("topic", topic).tag("outcome", outcome)
+                    .description("Time from publish to broker acknowledgement or final failure")
+                    .register(registry);
         }
-        throw last;
     }
 }
@@ -0,0 +1,378 @@
+package com.minicommerce.orders.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary layout of one event's data, derived from its JSON Schema ({@code docs/api/events}). Only the subset those
+ * schemas use is understood: objects with {@code properties}/{@code required}, arrays, strings (plain,
+ * {@code uuid}, {@code date-time}), integers, numbers, booleans and {@code ["x", "null"]} unions.
+ * <p>
+ * Properties are written in schema order without names. Properties with a {@code const} are implied by the
+ * schema and not written at all. Optional or nullable properties get a presence byte. Encodings:
+ * <ul>
+ *   <li>string: varint byte length, UTF-8</li>
+ *   <li>uuid: 16 bytes, big-endian</li>
+ *   <li>date-time: zigzag varint epoch seconds, varint nanos; read back in UTC</li>
+ *   <li>integer: zigzag varint</li>
+ *   <li>number: zigzag varint unscaled value, varint scale (19.90 is 1990, 2)</li>
+ *   <li>boolean: one byte</li>
+ *   <li>array: varint count, then the items</li>
+ * </ul>
+ */
+final class EventSchema {
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final Node root;
+
+    private EventSchema(Node root) {
+        this.root = root;
+    }
+
+    static EventSchema parse(JsonNode schema) {
+        Node root = node(schema, "$");
+        if (!(root instanceof ObjectNodeSchema)) {
+            throw new IllegalArgumentException("Event schema root must be an object: " + schema.path("title").asText());
+        }
+        return new EventSchema(root);
+    }
+
+    void write(JsonNode data, BinaryWriter out) {
+        root.write(data, out, "$");
+    }
+
+    JsonNode read(BinaryReader in) {
+        return root.read(in);
+    }
+
+    private static Node node(JsonNode schema, String path) {
+        String type = null;
+        boolean nullable = false;
+        JsonNode t = schema.path("type");
+        if (t.isArray()) {
+            for (JsonNode alternative : t) {
+                if (alternative.asText().equals("null")) nullable = true;
+                else if (type == null) type = alternative.asText();
+                else throw new IllegalArgumentException("Unsupported union at " + path + ": " + t);
+            }
+        } else {
+            type = t.asText(null);
+        }
+        if (type == null) throw new IllegalArgumentException("Missing type at " + path);
+
+        Node node = switch (type) {
+            case "object" -> object(schema, path);
+            case "array" -> new ArrayNodeSchema(node(schema.path("items"), path + "[]"));
+            case "string" -> switch (schema.path("format").asText("")) {
+                case "uuid" -> Scalar.UUID;
+                case "date-time" -> Scalar.DATE_TIME;
+                default -> Scalar.STRING;
+            };
+            case "integer" -> Scalar.INTEGER;
+            case "number" -> Scalar.NUMBER;
+            case "boolean" -> Scalar.BOOLEAN;
+            default -> throw new IllegalArgumentException("Unsupported type at " + path + ": " + type);
+        };
+        return nullable ? new Nullable(node, true) : node;
+    }
+
+    private static ObjectNodeSchema object(JsonNode schema, String path) {
+        Set<String> required = new HashSet<>();
+        schema.path("required").forEach(r -> required.add(r.asText()));
+        List<Property> properties = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = schema.path("properties").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> p = it.next();
+            JsonNode constant = p.getValue().get("const");
+            Node node = constant != null ? null : node(p.getValue(), path + "." + p.getKey());
+            if (node != null && !required.contains(p.getKey()) && !(node instanceof Nullable)) node = new Nullable(node, false);
+            properties.add(new Property(p.getKey(), node, constant));
+        }
+        return new ObjectNodeSchema(List.copyOf(properties));
+    }
+
+    private sealed interface Node permits Scalar, Nullable, ArrayNodeSchema, ObjectNodeSchema {
+        void write(JsonNode value, BinaryWriter out, String path);
+
+        JsonNode read(BinaryReader in);
+    }
+
+    private enum Scalar implements Node {
+        STRING {
+            @Override
+            public void write(JsonNode value, BinaryWriter out, String path) {
+                out.string(textual(value, path));
+            }
+
+            @Override
+            public JsonNode read(BinaryReader in) {
+                return NODES.textNode(in.string());
+            }
+        },
+        UUID {
+            @Override
+            public void write(JsonNode value, BinaryWriter out, String path) {
+                java.util.UUID id = java.util.UUID.fromString(textual(value, path));
+                out.fixed64(id.getMostSignificantBits());
+                out.fixed64(id.getLeastSignificantBits());
+            }
+
+            @Override
+            public JsonNode read(BinaryReader in) {
+                return NODES.textNode(new java.util.UUID(in.fixed64(), in.fixed64()).toString());
+            }
+        },
+        DATE_TIME {
+            @Override
+            public void write(JsonNode value, BinaryWriter out, String path) {
+                Instant instant = OffsetDateTime.parse(textual(value, path)).toInstant();
+                out.zigzag(instant.getEpochSecond());
+                out.varint(instant.getNano());
+            }
+
+            @Override
+            public JsonNode read(BinaryReader in) {
+                return NODES.textNode(Instant.ofEpochSecond(in.zigzag(), in.varint()).toString());
+            }
+        },
+        INTEGER {
+            @Override
+            public void write(JsonNode value, BinaryWriter out, String path) {
+                if (!value.canConvertToExactIntegral() || !value.canConvertToLong()) throw mismatch("integer", value, path);
+                out.zigzag(value.longValue());
+            }
+
+            @Override
+            public JsonNode read(BinaryReader in) {
+                long v = in.zigzag();
+                // same node type a JSON parser would produce
+                return v == (int) v ? NODES.numberNode((int) v) : NODES.numberNode(v);
+            }
+        },
+        NUMBER {
+            @Override
+            public void write(JsonNode value, BinaryWriter out, String path) {
+                if (!value.isNumber()) throw mismatch("number", value, path);
+                BigDecimal decimal = value.decimalValue();
+                // throws if the unscaled value does not fit a long
+                out.zigzag(decimal.unscaledValue().longValueExact());
+                out.varint(decimal.scale());
+            }
+
+            @Override
+            public JsonNode read(BinaryReader in) {
+                long unscaled = in.zigzag();
+                return NODES.numberNode(BigDecimal.valueOf(unscaled, (int) in.varint()));
+            }
+        },
+        BOOLEAN {
+            @Override
+            public void write(JsonNode value, BinaryWriter out, String path) {
+                if (!value.isBoolean()) throw mismatch("boolean", value, path);
+                out.write(value.booleanValue() ? 1 : 0);
+            }
+
+            @Override
+            public JsonNode read(BinaryReader in) {
+                return NODES.booleanNode(in.read() != 0);
+            }
+        };
+
+        private static String textual(JsonNode value, String path) {
+            if (!value.isTextual()) throw mismatch("string", value, path);
+            return value.textValue();
+        }
+    }
+
+    /**
+     * @param nullable the schema allows {@code null}, so an absent value reads back as {@code null} rather than as a
+     *                 missing property
+     */
+    private record Nullable(Node node, boolean nullable) implements Node {
+        @Override
+        public void write(JsonNode value, BinaryWriter out, String path) {
+            if (value == null || value.isNull() || value.isMissingNode()) {
+                out.write(0);
+                return;
+            }
+            out.write(1);
+            node.write(value, out, path);
+        }
+
+        @Override
+        public JsonNode read(BinaryReader in) {
+            if (in.read() != 0) return node.read(in);
+            return nullable ? NODES.nullNode() : null;
+        }
+    }
+
+    private record ArrayNodeSchema(Node items) implements Node {
+        @Override
+        public void write(JsonNode value, BinaryWriter out, String path) {
+            if (!value.isArray()) throw mismatch("array", value, path);
+            out.varint(value.size());
+            for (int i = 0; i < value.size(); i++) items.write(value.get(i), out, path + "[" + i + "]");
+        }
+
+        @Override
+        public JsonNode read(BinaryReader in) {
+            int size = Math.toIntExact(in.varint());
+            ArrayNode array = NODES.arrayNode(size);
+            for (int i = 0; i < size; i++) array.add(items.read(in));
+            return array;
+        }
+    }
+
+    /**
+     * @param node null for a {@code const} property
+     */
+    private record Property(String name, Node node, JsonNode constant) { }
+
+    private record ObjectNodeSchema(List<Property> properties) implements Node {
+        @Override
+        public void write(JsonNode value, BinaryWriter out, String path) {
+            if (!value.isObject()) throw mismatch("object", value, path);
+            int seen = 0;
+            for (Property p : properties) {
+                JsonNode v = value.get(p.name());
+                if (v != null) seen++;
+                // constants are implied by the schema (type and version travel in the envelope)
+                if (p.node() == null) continue;
+                if (v == null && !(p.node() instanceof Nullable)) {
+                    throw new IllegalArgumentException("Missing required property " + path + "." + p.name());
+                }
+                p.node().write(v, out, path + "." + p.name());
+            }
+            if (seen != value.size()) {
+                throw new IllegalArgumentException("Properties not in the schema at " + path + ": " + value);
+            }
+        }
+
+        @Override
+        public JsonNode read(BinaryReader in) {
+            ObjectNode object = NODES.objectNode();
+            for (Property p : properties) {
+                if (p.node() == null) continue;
+                JsonNode v = p.node().read(in);
+                if (v != null) object.set(p.name(), v);
+            }
+            return object;
+        }
+    }
+
+    private static IllegalArgumentException mismatch(String expected, JsonNode value, String path) {
+        return new IllegalArgumentException("Expected " + expected + " at " + path + ", got " + value.getNodeType());
+    }
+
+    /**
+     * Growable output buffer with the primitive encodings above.
+     */
+    static final class BinaryWriter {
+        private byte[] buf;
+        private int size;
+
+        BinaryWriter(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        void write(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void varint(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void zigzag(long v) {
+            varint((v << 1) ^ (v >> 63));
+        }
+
+        void fixed64(long v) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) buf[size++] = (byte) (v >>> shift);
+        }
+
+        void string(String s) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buf, size, utf8.length);
+            size += utf8.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensure(int n) {
+            if (size + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + n));
+        }
+    }
+
+    static final class BinaryReader {
+        private final byte[] buf;
+        private int pos;
+
+        BinaryReader(byte[] buf, int offset) {
+            this.buf = buf;
+            this.pos = offset;
+        }
+
+        int read() {
+            if (pos >= buf.length) throw new IllegalArgumentException("Truncated event at byte " + pos);
+            return buf[pos++] & 0xFF;
+        }
+
+        long varint() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IllegalArgumentException("Malformed varint at byte " + pos);
+        }
+
+        long zigzag() {
+            long v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        long fixed64() {
+            long v = 0;
+            for (int i = 0; i < 8; i++) v = (v << 8) | read();
+            return v;
+        }
+
+        String string() {
+            int length = Math.toIntExact(varint());
+            if (length > buf.length - pos) throw new IllegalArgumentException("Truncated event at byte " + pos);
+            String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+
+        boolean exhausted() {
+            return pos == buf.length;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.minicommerce.orders.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "events")
+public record EventsProperties(
+        @DefaultValue Producer producer,
+        @DefaultValue Publisher publisher,
+        @DefaultValue Encoding encoding
+) {
+    /**
+     * Producer tuning. {@code profile=throughput} enables compression, linger and larger batches;
+     * {@code default} keeps the Kafka client defaults. Explicit {@code spring.kafka.producer.*} settings win over both.
+     */
+    public record Producer(
+            @DefaultValue("default") Profile profile,
+            @DefaultValue("lz4") String compression,
+            @DefaultValue("5ms") Duration linger,
+            @DefaultValue("128KB") DataSize batchSize,
+            @DefaultValue("64MB") DataSize bufferMemory
+    ) { }
+
+    public enum Profile { DEFAULT, THROUGHPUT }
+
+    /**
+     * Application-level retries and backpressure for {@link EventPublisher#publishAsync}.
+     */
+    public record Publisher(
+            @DefaultValue("3") int maxAttempts,
+            @DefaultValue("100ms") Duration initialBackoff,
+            @DefaultValue("2s") Duration maxBackoff,
+            @DefaultValue("32MB") DataSize maxInFlight,
+            @DefaultValue("1KB") DataSize assumedRecordSize,
+            @DefaultValue("5s") Duration maxBlock
+    ) {
+        public static Publisher defaults() {
+            return new Publisher(3, Duration.ofMillis(100), Duration.ofSeconds(2),
+                    DataSize.ofMegabytes(32), DataSize.ofKilobytes(1), Duration.ofSeconds(5));
+        }
+
+        public Duration backoff(int attempt) {
+            long millis = initialBackoff.toMillis() << Math.min(Math.max(attempt - 1, 0), 20);
+            return millis < 0 || millis > maxBackoff.toMillis() ? maxBackoff : Duration.ofMillis(millis);
+        }
+    }
+
+    /**
+     * Value format per topic for relayed outbox events. Topic names contain dots, so map keys need brackets:
+     * {@code events.encoding.topics[mini.order.created.v1]=binary}.
+     */
+    public record Encoding(
+            @DefaultValue("json") Format defaultFormat,
+            Map<String, Format> topics
+    ) {
+        public Format forTopic(String topic) {
+            return topics == null ? defaultFormat : topics.getOrDefault(topic, defaultFormat);
+        }
+    }
+
+    public enum Format {
+        /** The outbox JSON payload as stored. */
+        JSON,
+        /** {@link EventEnvelopeCodec} envelope. */
+        BINARY
+    }
+}
@@ -1,6 +1,7 @@
 package com.minicommerce.orders.events;
 
-import java.math.BigDecimal;
+import com.minicommerce.orders.domain.Money;
+
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -11,9 +12,9 @@ public record OrderCreatedEvent(
         UUID orderId,
         UUID customerId,
         String currency,
-        BigDecimal total,
+        Money total,
         OffsetDateTime createdAt,
         List<Item> items
 ) {
-    public static record Item(String sku, String name, int quantity, BigDecimal unitPrice) {}
+    public static record Item(String sku, String name, int quantity, Money unitPrice) {}
 }
@@ -4,4 +4,10 @@ public final class Topics {
     private Topics() {}
     public static final String ORDER_CREATED = "mini.order.created.v1";
     public static final String ORDER_CANCELLED = "mini.order.cancelled.v1";
+
+    // consumed: status changes reported by payment and fulfillment (StatusEventConsumer)
+    public static final String PAYMENT_APPROVED = "mini.payment.approved.v1";
+    public static final String PAYMENT_DECLINED = "mini.payment.declined.v1";
+    public static final String FULFILLMENT_SHIPPED = "mini.fulfillment.shipped.v1";
+    public static final String FULFILLMENT_FAILED = "mini.fulfillment.failed.v1";
 }
@@ -0,0 +1,67 @@
+package com.minicommerce.orders.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One send attempt of {@code EventPublisher}, from handing the record to the producer until the broker
+ * acknowledged or refused it. Runs across threads: begun by the caller, committed from the producer callback.
+ */
+@Name(EventPublishEvent.NAME)
+@Label("Event Publish Attempt")
+@Description("One Kafka send attempt, until acknowledged or failed")
+@Category({"Mini-Commerce", "Events"})
+@StackTrace(false)
+public final class EventPublishEvent extends Event {
+    public static final String NAME = "minicommerce.EventPublish";
+
+    @Label("Topic")
+    String topic;
+
+    @Label("Key")
+    @Description("Record key; the order id for order events")
+    String key;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Outcome")
+    @Description("success, retry, exhausted, permanent or rejected")
+    String outcome;
+
+    /**
+     * A begun event, or null when no recording has this event enabled: while JFR is off, nothing is allocated.
+     */
+    public static EventPublishEvent start() {
+        if (!Type.EVENT.isEnabled()) return null;
+        EventPublishEvent event = new EventPublishEvent();
+        event.begin();
+        return event;
+    }
+
+    public void end(String topic, String key, int attempt, long bytes, String outcome) {
+        end();
+        if (!shouldCommit()) return;
+        this.topic = topic;
+        this.key = key;
+        this.attempt = attempt;
+        this.bytes = bytes;
+        this.outcome = outcome;
+        commit();
+    }
+
+    // looked up on first use, after the event class itself is initialized
+    private static final class Type {
+        static final EventType EVENT = EventType.getEventType(EventPublishEvent.class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.minicommerce.orders.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Continuous Flight Recorder recording ({@link OrderFlightRecording}), on with the {@code jfr} profile.
+ * {@code orders.jfr.enabled} is read by the recording's {@code @ConditionalOnProperty}.
+ *
+ * @param settings    JDK settings for the built-in events: {@code default} (about 1% overhead), {@code profile}
+ *                    (more detail, more overhead) or {@code none} for the order events only
+ * @param threshold   order, publish and request events shorter than this are not recorded; {@code 0} keeps all
+ * @param maxAge      oldest data kept in the rolling recording
+ * @param maxSize     most data kept on disk
+ * @param destination file written when the application stops; a running recording is dumped with
+ *                    {@code jcmd <pid> JFR.dump name=orders filename=...}
+ */
+@ConfigurationProperties(prefix = "orders.jfr")
+public record FlightRecordingProperties(
+        @DefaultValue("default") String settings,
+        @DefaultValue("10ms") Duration threshold,
+        @DefaultValue("6h") Duration maxAge,
+        @DefaultValue("256MB") DataSize maxSize,
+        @DefaultValue("/tmp/order-service.jfr") Path destination
+) {
+    public FlightRecordingProperties {
+        if (threshold.isNegative()) throw new IllegalArgumentException("orders.jfr.threshold must be >= 0");
+        if (!maxAge.isPositive()) throw new IllegalArgumentException("orders.jfr.max-age must be > 0");
+        if (maxSize.toBytes() <= 0) throw new IllegalArgumentException("orders.jfr.max-size must be > 0");
+    }
+}
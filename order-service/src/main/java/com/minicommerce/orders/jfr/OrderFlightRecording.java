@@ -0,0 +1,84 @@
+package com.minicommerce.orders.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Always-on, rolling Flight Recorder recording named {@code orders}: the JDK's events from
+ * {@code orders.jfr.settings} plus the order events at {@code orders.jfr.threshold}, so only slow requests, stages
+ * and publish attempts take space. Written to {@code orders.jfr.destination} on shutdown, or by the JVM's exit
+ * hook if the context is never closed; {@code jcmd <pid> JFR.dump name=orders} takes a dump at any time.
+ * <p>
+ * A recording started with {@code -XX:StartFlightRecording} also has the order events, but every one of them:
+ * the JDK's settings files do not list them, so they are recorded without a threshold.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.jfr", name = "enabled", havingValue = "true")
+public class OrderFlightRecording implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(OrderFlightRecording.class);
+    static final String NAME = "orders";
+    static final List<String> EVENTS = List.of(OrderRequestEvent.NAME, OrderStageEvent.NAME, EventPublishEvent.NAME);
+
+    private final FlightRecordingProperties props;
+    private volatile Recording recording;
+
+    public OrderFlightRecording(FlightRecordingProperties props) {
+        this.props = props;
+    }
+
+    @Override
+    public void start() {
+        Recording r;
+        try {
+            r = "none".equals(props.settings())
+                    ? new Recording()
+                    : new Recording(Configuration.getConfiguration(props.settings()));
+            r.setName(NAME);
+            r.setToDisk(true);
+            r.setMaxAge(props.maxAge());
+            r.setMaxSize(props.maxSize().toBytes());
+            r.setDestination(props.destination());
+            r.setDumpOnExit(true);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot set up the flight recording (orders.jfr.*)", e);
+        }
+        for (String event : EVENTS) r.enable(event).withThreshold(props.threshold());
+        r.start();
+        recording = r;
+        log.info("Flight recording '{}' started (settings {}, order events from {}), written to {} on exit",
+                NAME, props.settings(), props.threshold(), props.destination());
+    }
+
+    @Override
+    public void stop() {
+        Recording r = recording;
+        recording = null;
+        if (r == null) return;
+        // stopping writes the destination
+        r.stop();
+        r.close();
+        log.info("Flight recording '{}' written to {}", NAME, props.destination());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Stopped after the web server and the Kafka listeners, so their last requests and batches are in the file.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+}
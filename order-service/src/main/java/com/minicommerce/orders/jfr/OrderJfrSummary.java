@@ -0,0 +1,145 @@
+package com.minicommerce.orders.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Per-stage latency tables from a {@code .jfr} file: count, p50/p90/p99, max and total for each request route,
+ * order stage and publish topic, by outcome, followed by the slowest events with their order ids. Needs nothing
+ * but the JDK, so it also runs inside the image:
+ * <pre>
+ * java -cp app.jar com.minicommerce.orders.jfr.OrderJfrSummary /tmp/order-service.jfr [--top 20]
+ * </pre>
+ * A recording with a threshold only holds the events above it, so the percentiles describe the slow ones; the
+ * {@code orders.stage} timers have the full distribution.
+ */
+public final class OrderJfrSummary {
+    private static final Map<String, String> KINDS = Map.of(
+            OrderRequestEvent.NAME, "request",
+            OrderStageEvent.NAME, "stage",
+            EventPublishEvent.NAME, "publish");
+
+    private OrderJfrSummary() {}
+
+    /**
+     * @param kind    {@code request}, {@code stage} or {@code publish}
+     * @param group   {@code operation route} for requests, {@code operation/stage} for stages, the topic for
+     *                publish attempts
+     * @param outcome the event's outcome; the HTTP status for requests
+     */
+    record Row(String kind, String group, String outcome, int count, Duration p50, Duration p90, Duration p99,
+               Duration max, Duration total) { }
+
+    record Slow(Instant start, Duration duration, String kind, String group, String outcome, String orderId) { }
+
+    record Summary(List<Row> rows, List<Slow> slowest) { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && !(args.length == 3 && "--top".equals(args[1]))) {
+            System.err.println("usage: OrderJfrSummary <recording.jfr> [--top N]");
+            System.exit(2);
+        }
+        int top = args.length == 3 ? Integer.parseInt(args[2]) : 10;
+        print(read(Path.of(args[0]), top), System.out);
+    }
+
+    static Summary read(Path file, int top) throws IOException {
+        Map<List<String>, Durations> groups = new TreeMap<>(Comparator
+                .comparing((List<String> k) -> k.get(0)).thenComparing(k -> k.get(1)).thenComparing(k -> k.get(2)));
+        PriorityQueue<Slow> slowest = new PriorityQueue<>(Comparator.comparing(Slow::duration));
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent e = recording.readEvent();
+                String kind = KINDS.get(e.getEventType().getName());
+                if (kind == null) continue;
+                String group = switch (kind) {
+                    case "request" -> e.getString("operation") + " " + e.getString("route");
+                    case "stage" -> e.getString("operation") + "/" + e.getString("stage");
+                    default -> e.getString("topic");
+                };
+                String outcome = "request".equals(kind) ? String.valueOf(e.getInt("status")) : e.getString("outcome");
+                Duration duration = e.getDuration();
+                groups.computeIfAbsent(List.of(kind, group, outcome), k -> new Durations()).add(duration.toNanos());
+                if (top > 0) {
+                    String orderId = "publish".equals(kind) ? e.getString("key") : e.getString("orderId");
+                    slowest.add(new Slow(e.getStartTime(), duration, kind, group, outcome, orderId));
+                    if (slowest.size() > top) slowest.poll();
+                }
+            }
+        }
+        List<Row> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, durations) -> rows.add(durations.row(key.get(0), key.get(1), key.get(2))));
+        List<Slow> slow = new ArrayList<>(slowest);
+        slow.sort(Comparator.comparing(Slow::duration).reversed());
+        return new Summary(rows, slow);
+    }
+
+    static void print(Summary summary, PrintStream out) {
+        if (summary.rows().isEmpty()) {
+            out.println("No order events in this recording (is orders.jfr.enabled on?)");
+            return;
+        }
+        String kind = null;
+        for (Row r : summary.rows()) {
+            if (!r.kind().equals(kind)) {
+                kind = r.kind();
+                out.printf(Locale.ROOT, "%n%-44s %-12s %8s %9s %9s %9s %9s %11s%n",
+                        kind, "outcome", "count", "p50 ms", "p90 ms", "p99 ms", "max ms", "total ms");
+            }
+            out.printf(Locale.ROOT, "%-44s %-12s %8d %9.2f %9.2f %9.2f %9.2f %11.1f%n", r.group(), r.outcome(),
+                    r.count(), ms(r.p50()), ms(r.p90()), ms(r.p99()), ms(r.max()), ms(r.total()));
+        }
+        if (summary.slowest().isEmpty()) return;
+        out.printf(Locale.ROOT, "%nslowest%n%-30s %9s %-8s %-44s %-12s %s%n",
+                "start", "ms", "kind", "group", "outcome", "order");
+        for (Slow s : summary.slowest()) {
+            out.printf(Locale.ROOT, "%-30s %9.2f %-8s %-44s %-12s %s%n", s.start(), ms(s.duration()), s.kind(),
+                    s.group(), s.outcome(), s.orderId() == null ? "-" : s.orderId());
+        }
+    }
+
+    private static double ms(Duration d) {
+        return d.toNanos() / 1e6;
+    }
+
+    private static final class Durations {
+        private long[] nanos = new long[16];
+        private int count;
+
+        void add(long value) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = value;
+        }
+
+        Row row(String kind, String group, String outcome) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long n : sorted) total += n;
+            return new Row(kind, group, outcome, count, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), Duration.ofNanos(sorted[count - 1]), Duration.ofNanos(total));
+        }
+
+        /**
+         * Nearest rank: the smallest value with at least {@code p} of the values at or below it.
+         */
+        private static Duration percentile(long[] sorted, double p) {
+            int rank = (int) Math.ceil(p * sorted.length);
+            return Duration.ofNanos(sorted[Math.max(0, rank - 1)]);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.minicommerce.orders.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request to an order endpoint, from the handler being picked until the response is complete (for
+ * streamed responses, until the stream ends). Emitted by {@link OrderRequestRecorder}.
+ */
+@Name(OrderRequestEvent.NAME)
+@Label("Order Request")
+@Description("One request to an /api/v1/orders endpoint")
+@Category({"Mini-Commerce", "Orders"})
+@StackTrace(false)
+public final class OrderRequestEvent extends Event {
+    public static final String NAME = "minicommerce.OrderRequest";
+
+    @Label("Operation")
+    @Description("Handler method, e.g. create or cancel")
+    String operation;
+
+    @Label("Route")
+    String route;
+
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Items")
+    @Description("Items in the request body, 0 when it has none")
+    int items;
+
+    @Label("Status")
+    int status;
+
+    @Label("Outcome")
+    @Description("success, client_error or server_error")
+    String outcome;
+
+    /**
+     * A begun event, or null when no recording has this event enabled.
+     */
+    static OrderRequestEvent start() {
+        if (!Type.EVENT.isEnabled()) return null;
+        OrderRequestEvent event = new OrderRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    void items(int items) {
+        this.items = items;
+    }
+
+    void end(String operation, String route, String orderId, int status) {
+        end();
+        if (!shouldCommit()) return;
+        this.operation = operation;
+        this.route = route;
+        this.orderId = orderId;
+        this.status = status;
+        this.outcome = status >= 500 ? "server_error" : status >= 400 ? "client_error" : "success";
+        commit();
+    }
+
+    // looked up on first use, after the event class itself is initialized
+    private static final class Type {
+        static final EventType EVENT = EventType.getEventType(OrderRequestEvent.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.minicommerce.orders.jfr;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Emits an {@link OrderRequestEvent} per order request while a recording has it enabled; otherwise a request
+ * costs one enabled check. Registered ahead of admission control, so rejected requests are recorded too.
+ * <p>
+ * The order id comes from the {@code {id}} path variable, or for creates from the {@code Location} header.
+ */
+@Component
+public class OrderRequestRecorder implements HandlerInterceptor {
+    private static final String EVENT = OrderRequestRecorder.class.getName() + ".event";
+
+    /**
+     * Adds the item count of the current request's body to its event, if one is being recorded.
+     */
+    public static void items(int items) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(EVENT, RequestAttributes.SCOPE_REQUEST) instanceof OrderRequestEvent event) {
+            event.items(items);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // an async dispatch keeps the event begun by the first one
+        if (request.getAttribute(EVENT) != null) return true;
+        OrderRequestEvent event = OrderRequestEvent.start();
+        if (event != null) request.setAttribute(EVENT, event);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(EVENT) instanceof OrderRequestEvent event)) return;
+        request.removeAttribute(EVENT);
+        String operation = handler instanceof HandlerMethod method ? method.getMethod().getName() : null;
+        String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        event.end(operation, route, orderId(request, response), status);
+    }
+
+    private static String orderId(HttpServletRequest request, HttpServletResponse response) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get("id") instanceof String id) {
+            return id;
+        }
+        String location = response.getHeader(HttpHeaders.LOCATION);
+        return location == null ? null : location.substring(location.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.minicommerce.orders.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * One stage of an order operation, the same span as an {@code orders.stage} timer sample, with the order it
+ * worked on. Emitted by {@code OrderMetrics}.
+ */
+@Name(OrderStageEvent.NAME)
+@Label("Order Stage")
+@Description("One stage of an order operation (customer check, persist, update, outbox, commit)")
+@Category({"Mini-Commerce", "Orders"})
+@StackTrace(false)
+public final class OrderStageEvent extends Event {
+    public static final String NAME = "minicommerce.OrderStage";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Items")
+    @Description("Items in the order, 0 when not known at that stage")
+    int items;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * A begun event, or null when no recording has this event enabled: while JFR is off, nothing is allocated.
+     */
+    public static OrderStageEvent start() {
+        if (!Type.EVENT.isEnabled()) return null;
+        OrderStageEvent event = new OrderStageEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it if a recording wants it; the fields are only filled in then.
+     */
+    public void end(String operation, String stage, UUID orderId, int items, String outcome) {
+        end();
+        if (!shouldCommit()) return;
+        this.operation = operation;
+        this.stage = stage;
+        this.orderId = orderId == null ? null : orderId.toString();
+        this.items = items;
+        this.outcome = outcome;
+        commit();
+    }
+
+    // looked up on first use, after the event class itself is initialized
+    private static final class Type {
+        static final EventType EVENT = EventType.getEventType(OrderStageEvent.class);
+    }
+}
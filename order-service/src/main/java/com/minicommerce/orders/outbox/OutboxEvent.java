@@ -0,0 +1,17 @@
+package com.minicommerce.orders.outbox;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * An outbox row claimed by the relay. The payload is the JSON document exactly as stored.
+ */
+public record OutboxEvent(
+        UUID id,
+        UUID aggregateId,
+        String topic,
+        String key,
+        String payload,
+        int attempts,
+        OffsetDateTime createdAt
+) { }
@@ -0,0 +1,36 @@
+package com.minicommerce.orders.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Relay tuning. The poll interval itself is read by {@code @Scheduled} from {@code outbox.poll-interval}.
+ * {@code publishTimeout} is how long a batch waits for its sends; unset, {@link OutboxRelay} derives it from the
+ * producer's {@code delivery.timeout.ms}, and a shorter value is refused. {@code maxAttempts} counts relay
+ * attempts; each is a single producer send.
+ */
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+        @DefaultValue("true") boolean relayEnabled,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("10") int maxBatchesPerPoll,
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue("1s") Duration initialBackoff,
+        @DefaultValue("5m") Duration maxBackoff,
+        Duration publishTimeout,
+        @DefaultValue("7d") Duration retention
+) {
+    /**
+     * Exponential backoff for the given (already incremented) attempt count, capped at {@link #maxBackoff}.
+     */
+    public Duration backoff(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        long millis = initialBackoff.toMillis() << shift;
+        if (millis < 0 || millis > maxBackoff.toMillis()) {
+            return maxBackoff;
+        }
+        return Duration.ofMillis(millis);
+    }
+}
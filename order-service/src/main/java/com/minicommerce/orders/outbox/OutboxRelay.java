@@ -0,0 +1,199 @@
+package com.minicommerce.orders.outbox;
+
+import com.minicommerce.orders.events.EventEncoder;
+import com.minicommerce.orders.events.EventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains {@code outbox_events} to Kafka. Each batch is claimed in one short transaction, which leases the rows by
+ * marking them IN_FLIGHT, published with all records in flight at once and no transaction open, and settled with
+ * one UPDATE in a second transaction. A slow broker therefore holds neither row locks nor a pooled connection.
+ * Several instances can run side by side; each skips rows another has leased, and no two relays ever hold events
+ * of the same aggregate at once. A lease outlasts the publish timeout, so only a relay that died mid-batch leaves
+ * rows to be claimed again, and those events may be sent twice.
+ * <p>
+ * Each row is sent once; retries are the relay's, row by row, so a resend never overtakes a later event of the same
+ * aggregate. A batch waits for its sends at least as long as the producer may keep trying them
+ * ({@code delivery.timeout.ms}): giving up earlier would mark the row RETRY and send it again while the first send
+ * is still in flight, duplicating events exactly when the broker is slow.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int PURGE_CHUNK = 5000;
+    private static final Duration DEFAULT_DELIVERY_TIMEOUT = Duration.ofMinutes(2);   // Kafka's delivery.timeout.ms
+    private static final Duration PUBLISH_TIMEOUT_SLACK = Duration.ofSeconds(5);
+    private static final Duration LEASE_SLACK = Duration.ofSeconds(30);
+
+    private final OutboxRepository outbox;
+    private final EventPublisher events;
+    private final EventEncoder encoder;
+    private final OutboxProperties props;
+    private final TransactionTemplate tx;
+    private final Duration publishTimeout;
+    private final Duration lease;
+
+    private final Counter published;
+    private final Counter retried;
+    private final Counter failed;
+    private volatile OutboxRepository.Snapshot snapshot = new OutboxRepository.Snapshot(0, 0, 0);
+
+    public OutboxRelay(OutboxRepository outbox, EventPublisher events, EventEncoder encoder, OutboxProperties props,
+                       TransactionTemplate tx, ProducerFactory<String, Object> producers, MeterRegistry registry) {
+        this.outbox = outbox;
+        this.events = events;
+        this.encoder = encoder;
+        this.props = props;
+        this.tx = tx;
+        this.publishTimeout = publishTimeout(props, producers);
+        // settling happens within the publish timeout, so a live relay never loses its rows to another
+        this.lease = publishTimeout.plus(LEASE_SLACK);
+        this.published = registry.counter("outbox.relay.events", "outcome", "sent");
+        this.retried = registry.counter("outbox.relay.events", "outcome", "retry");
+        this.failed = registry.counter("outbox.relay.events", "outcome", "failed");
+        Gauge.builder("outbox.pending", this, r -> r.snapshot.pending())
+                .description("Outbox rows waiting to be relayed (NEW, IN_FLIGHT or RETRY)")
+                .register(registry);
+        Gauge.builder("outbox.failed", this, r -> r.snapshot.failed())
+                .description("Outbox rows that exhausted their attempts")
+                .register(registry);
+        Gauge.builder("outbox.oldest.age", this, r -> r.snapshot.oldestAgeSeconds())
+                .description("Age of the oldest undelivered outbox row")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT0.5S}")
+    public void poll() {
+        if (!props.relayEnabled()) return;
+        for (int i = 0; i < props.maxBatchesPerPoll(); i++) {
+            if (relayBatch() < props.batchSize()) break;
+        }
+    }
+
+    /**
+     * Claims, publishes and settles one batch.
+     *
+     * @return number of rows claimed
+     */
+    public int relayBatch() {
+        List<OutboxEvent> batch = tx.execute(status -> outbox.claimDue(props.batchSize(), lease));
+        if (batch == null || batch.isEmpty()) return 0;
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent e : batch) {
+            sends.add(send(e));
+        }
+
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
+        List<OutboxRepository.OutboxUpdate> updates = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            updates.add(settle(batch.get(i), sends.get(i), deadline));
+        }
+        tx.executeWithoutResult(status -> outbox.complete(updates));
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.metrics-refresh-interval:PT15S}")
+    public void refreshMetrics() {
+        try {
+            snapshot = outbox.snapshot();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        int purged;
+        do {
+            purged = outbox.purgeSent(props.retention(), PURGE_CHUNK);
+            if (purged > 0) log.info("Purged {} relayed outbox rows older than {}", purged, props.retention());
+        } while (purged == PURGE_CHUNK);
+    }
+
+    /**
+     * The configured {@code outbox.publish-timeout}, or the longest the producer may take to settle a record.
+     */
+    static Duration publishTimeout(OutboxProperties props, ProducerFactory<?, ?> producers) {
+        Object configured = producers.getConfigurationProperties().get(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG);
+        Duration delivery = deliveryTimeout(configured);
+        if (props.publishTimeout() == null) return delivery.plus(PUBLISH_TIMEOUT_SLACK);
+        if (props.publishTimeout().compareTo(delivery) < 0) {
+            throw new IllegalStateException(("outbox.publish-timeout (%s) is shorter than the producer's "
+                    + "delivery.timeout.ms (%s); rows would be resent while still in flight").formatted(
+                    props.publishTimeout(), delivery));
+        }
+        return props.publishTimeout();
+    }
+
+    private static Duration deliveryTimeout(Object configured) {
+        if (configured == null) return DEFAULT_DELIVERY_TIMEOUT;
+        if (configured instanceof Number n) return Duration.ofMillis(n.longValue());
+        return Duration.ofMillis(Long.parseLong(configured.toString().trim()));
+    }
+
+    private CompletableFuture<Void> send(OutboxEvent e) {
+        try {
+            // the outbox row id doubles as the envelope's eventId, so a retried send carries the same id
+            byte[] value = encoder.encode(e.topic(), e.id(), e.createdAt(), e.payload());
+            // one send: the relay retries the row itself, behind nothing else of its aggregate
+            return events.publishAsync(e.topic(), e.key(), value, 1);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private OutboxRepository.OutboxUpdate settle(OutboxEvent e, CompletableFuture<Void> send, long deadline) {
+        int attempts = e.attempts() + 1;
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            published.increment();
+            return new OutboxRepository.OutboxUpdate(e.id(), OutboxStatus.SENT, attempts, Duration.ZERO, null);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return failure(e, attempts, ex);
+        } catch (ExecutionException ex) {
+            return failure(e, attempts, ex.getCause());
+        } catch (TimeoutException ex) {
+            return failure(e, attempts, ex);
+        }
+    }
+
+    private OutboxRepository.OutboxUpdate failure(OutboxEvent e, int attempts, Throwable cause) {
+        String error = truncate(String.valueOf(cause));
+        if (attempts >= props.maxAttempts()) {
+            failed.increment();
+            log.error("Outbox event {} for {} on {} FAILED after {} attempts: {}",
+                    e.id(), e.aggregateId(), e.topic(), attempts, error);
+            return new OutboxRepository.OutboxUpdate(e.id(), OutboxStatus.FAILED, attempts, Duration.ZERO, error);
+        }
+        retried.increment();
+        Duration backoff = props.backoff(attempts);
+        log.warn("Outbox event {} for {} on {} will be retried in {} (attempt {}): {}",
+                e.id(), e.aggregateId(), e.topic(), backoff, attempts, error);
+        return new OutboxRepository.OutboxUpdate(e.id(), OutboxStatus.RETRY, attempts, backoff, error);
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ERROR_LENGTH ? s : s.substring(0, MAX_ERROR_LENGTH);
+    }
+}
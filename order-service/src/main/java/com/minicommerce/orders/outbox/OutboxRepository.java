@@ -0,0 +1,169 @@
+package com.minicommerce.orders.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to {@code outbox_events}. The relay queries rely on PostgreSQL features
+ * ({@code SKIP LOCKED}, {@code unnest}) that have no JPA equivalent.
+ */
+@Repository
+public class OutboxRepository {
+    private static final String INSERT = """
+            INSERT INTO outbox_events (id, aggregate_id, topic, key, payload)
+            VALUES (?, ?, ?, ?, ?::jsonb)
+            """;
+
+    // A row waits while an earlier row of its aggregate is undelivered (NEW, IN_FLIGHT, RETRY or FAILED), whoever
+    // holds it, so one aggregate's events go out one at a time and in seq order across all relays. Claimed rows
+    // become IN_FLIGHT until next_attempt_at, the end of the lease; the locks last only as long as this statement's
+    // transaction.
+    private static final String CLAIM_DUE = """
+            WITH due AS (
+                SELECT o.id
+                  FROM outbox_events o
+                 WHERE o.status IN ('NEW','RETRY','IN_FLIGHT')
+                   AND o.next_attempt_at <= now()
+                   AND NOT EXISTS (SELECT 1
+                                     FROM outbox_events p
+                                    WHERE p.aggregate_id = o.aggregate_id
+                                      AND p.seq < o.seq
+                                      AND p.status <> 'SENT')
+                 ORDER BY o.next_attempt_at, o.seq
+                 LIMIT ?
+                   FOR UPDATE OF o SKIP LOCKED
+            )
+            UPDATE outbox_events o
+               SET status          = 'IN_FLIGHT',
+                   next_attempt_at = now() + ? * interval '1 millisecond',
+                   updated_at      = now()
+              FROM due
+             WHERE o.id = due.id
+            RETURNING o.id, o.aggregate_id, o.topic, o.key, o.payload::text AS payload, o.attempts, o.created_at
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE outbox_events o
+               SET status          = u.status,
+                   attempts        = u.attempts,
+                   next_attempt_at = now() + u.backoff_ms * interval '1 millisecond',
+                   last_error      = u.last_error,
+                   updated_at      = now()
+              FROM unnest(?::uuid[], ?::text[], ?::int4[], ?::int8[], ?::text[])
+                   AS u(id, status, attempts, backoff_ms, last_error)
+             WHERE o.id = u.id
+               AND o.status = 'IN_FLIGHT'
+            """;
+
+    private static final String SNAPSHOT = """
+            SELECT (SELECT count(*) FROM outbox_events WHERE status IN ('NEW','IN_FLIGHT','RETRY')) AS pending,
+                   (SELECT count(*) FROM outbox_events WHERE status = 'FAILED')                     AS failed,
+                   (SELECT COALESCE(EXTRACT(EPOCH FROM now() - min(created_at)), 0)
+                      FROM outbox_events WHERE status IN ('NEW','IN_FLIGHT','RETRY'))               AS oldest_age_seconds
+            """;
+
+    private static final String PURGE_SENT = """
+            DELETE FROM outbox_events
+             WHERE id IN (SELECT id FROM outbox_events
+                           WHERE status = 'SENT'
+                             AND updated_at < now() - make_interval(secs => ?)
+                           LIMIT ?)
+            """;
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, n) -> new OutboxEvent(
+            rs.getObject("id", UUID.class),
+            rs.getObject("aggregate_id", UUID.class),
+            rs.getString("topic"),
+            rs.getString("key"),
+            rs.getString("payload"),
+            rs.getInt("attempts"),
+            rs.getObject("created_at", OffsetDateTime.class)
+    );
+
+    private final JdbcTemplate jdbc;
+
+    public OutboxRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void insert(UUID id, UUID aggregateId, String topic, String key, String payloadJson) {
+        jdbc.update(INSERT, id, aggregateId, topic, key, payloadJson);
+    }
+
+    public void insertBatch(List<Object[]> rows) {
+        jdbc.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Leases up to {@code limit} due rows, NEW, RETRY or IN_FLIGHT with an expired lease, by marking them IN_FLIGHT
+     * for {@code lease}. Rows another relay is claiming at the same moment are skipped, and so are rows behind an
+     * undelivered earlier event of the same aggregate (at most one per aggregate). Other relays leave the rows alone
+     * once the claiming transaction commits, so the sends need no transaction.
+     */
+    public List<OutboxEvent> claimDue(int limit, Duration lease) {
+        return jdbc.query(CLAIM_DUE, EVENT_MAPPER, limit, lease.toMillis());
+    }
+
+    /**
+     * Writes the outcome of a relay batch with a single multi-row UPDATE. Rows no longer IN_FLIGHT are left as they
+     * are: their lease ran out and another relay has settled them since.
+     */
+    public void complete(List<OutboxUpdate> updates) {
+        if (updates.isEmpty()) return;
+
+        int n = updates.size();
+        UUID[] ids = new UUID[n];
+        String[] statuses = new String[n];
+        Integer[] attempts = new Integer[n];
+        Long[] backoffs = new Long[n];
+        String[] errors = new String[n];
+        for (int i = 0; i < n; i++) {
+            OutboxUpdate u = updates.get(i);
+            ids[i] = u.id();
+            statuses[i] = u.status().name();
+            attempts[i] = u.attempts();
+            backoffs[i] = u.backoff().toMillis();
+            errors[i] = u.lastError();
+        }
+
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(COMPLETE);
+            ps.setArray(1, array(con, "uuid", ids));
+            ps.setArray(2, array(con, "text", statuses));
+            ps.setArray(3, array(con, "int4", attempts));
+            ps.setArray(4, array(con, "int8", backoffs));
+            ps.setArray(5, array(con, "text", errors));
+            return ps;
+        });
+    }
+
+    public Snapshot snapshot() {
+        return jdbc.queryForObject(SNAPSHOT, (rs, n) -> new Snapshot(
+                rs.getLong("pending"),
+                rs.getLong("failed"),
+                rs.getDouble("oldest_age_seconds")
+        ));
+    }
+
+    public int purgeSent(Duration olderThan, int limit) {
+        return jdbc.update(PURGE_SENT, olderThan.toSeconds(), limit);
+    }
+
+    private static Array array(Connection con, String type, Object[] values) throws SQLException {
+        return con.createArrayOf(type, values);
+    }
+
+    public record OutboxUpdate(UUID id, OutboxStatus status, int attempts, Duration backoff, String lastError) { }
+
+    public record Snapshot(long pending, long failed, double oldestAgeSeconds) { }
+}
@@ -0,0 +1,3 @@
+package com.minicommerce.orders.outbox;
+
+public enum OutboxStatus { NEW, IN_FLIGHT, SENT, RETRY, FAILED }
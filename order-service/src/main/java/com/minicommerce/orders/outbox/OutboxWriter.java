@@ -0,0 +1,56 @@
+package com.minicommerce.orders.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records domain events in the outbox. Must run inside the transaction that changes the aggregate,
+ * so the event is committed (or rolled back) together with the state it describes.
+ */
+@Component
+public class OutboxWriter {
+    private final OutboxRepository outbox;
+    private final ObjectMapper mapper;
+
+    public OutboxWriter(OutboxRepository outbox, ObjectMapper mapper) {
+        this.outbox = outbox;
+        this.mapper = mapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, UUID aggregateId, Object event) {
+        outbox.insert(UUID.randomUUID(), aggregateId, topic, aggregateId.toString(), serialize(topic, event));
+    }
+
+    /**
+     * Batched variant for bulk writes: all rows go to the database in one JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(List<Event> events) {
+        if (events.isEmpty()) return;
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (Event e : events) {
+            rows.add(new Object[]{
+                    UUID.randomUUID(), e.aggregateId(), e.topic(), e.aggregateId().toString(), serialize(e.topic(), e.payload())
+            });
+        }
+        outbox.insertBatch(rows);
+    }
+
+    private String serialize(String topic, Object event) {
+        try {
+            return mapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize event for " + topic, e);
+        }
+    }
+
+    public record Event(String topic, UUID aggregateId, Object payload) { }
+}
@@ -2,7 +2,23 @@ package com.minicommerce.orders.repository;
 
 import com.minicommerce.orders.domain.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.UUID;
 
-public interface CustomerRepository extends JpaRepository<Customer, UUID> { }
+public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+
+    /**
+     * Race-free create: concurrent first orders for the same customer (or a clashing email) are no-ops.
+     *
+     * @return 1 if the row was inserted, 0 if it already existed
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO customers (id, email, name) VALUES (:id, :email, :name)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("email") String email, @Param("name") String name);
+}
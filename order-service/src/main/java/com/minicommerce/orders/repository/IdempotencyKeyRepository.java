@@ -0,0 +1,82 @@
+package com.minicommerce.orders.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to {@code idempotency_keys} (V5). Claims rely on {@code INSERT ... ON CONFLICT}, which waits
+ * for a concurrent transaction holding the same key instead of failing.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+    // an expired row is taken over as if it did not exist
+    private static final String CLAIM = """
+            INSERT INTO idempotency_keys (key, request_hash, expires_at)
+            VALUES (?, ?, now() + make_interval(secs => ?))
+            ON CONFLICT (key) DO UPDATE
+               SET request_hash = EXCLUDED.request_hash,
+                   order_id     = NULL,
+                   response     = NULL,
+                   created_at   = now(),
+                   expires_at   = EXCLUDED.expires_at
+             WHERE idempotency_keys.expires_at < now()
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE idempotency_keys
+               SET order_id = ?, response = ?::jsonb
+             WHERE key = ?
+            """;
+
+    private static final String FIND = """
+            SELECT request_hash, response::text AS response
+              FROM idempotency_keys
+             WHERE key = ?
+            """;
+
+    private static final String PURGE_EXPIRED = """
+            DELETE FROM idempotency_keys
+             WHERE key IN (SELECT key FROM idempotency_keys
+                            WHERE expires_at < now()
+                            LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Claims {@code key} for the current transaction. While another transaction holds it, waits up to
+     * {@code wait} for that one to end, then fails with a
+     * {@link org.springframework.dao.PessimisticLockingFailureException}.
+     *
+     * @return false if the key is already taken by a committed, unexpired request
+     */
+    public boolean claim(String key, String requestHash, Duration ttl, Duration wait) {
+        jdbc.execute("SET LOCAL lock_timeout = " + Math.max(1, wait.toMillis()));
+        boolean claimed = jdbc.update(CLAIM, key, requestHash, ttl.toSeconds()) == 1;
+        jdbc.execute("SET LOCAL lock_timeout TO DEFAULT");
+        return claimed;
+    }
+
+    public void complete(String key, UUID orderId, String responseJson) {
+        jdbc.update(COMPLETE, orderId, responseJson, key);
+    }
+
+    public Optional<Stored> find(String key) {
+        return jdbc.query(FIND, (rs, n) -> new Stored(rs.getString("request_hash"), rs.getString("response")), key)
+                .stream().findFirst();
+    }
+
+    public int purgeExpired(int limit) {
+        return jdbc.update(PURGE_EXPIRED, limit);
+    }
+
+    public record Stored(String requestHash, String responseJson) { }
+}
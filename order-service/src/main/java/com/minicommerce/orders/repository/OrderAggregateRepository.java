@@ -0,0 +1,165 @@
+package com.minicommerce.orders.repository;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * {@code order_daily_aggregates}: order count and total per UTC day of creation, currency and current status.
+ * Rows change by additive upserts of in-memory deltas, or are rebuilt from {@code orders} one day at a time.
+ * <p>
+ * A rebuild reads {@code orders} at a whole second it records in {@code order_aggregate_rebuilds}; deltas for
+ * changes before that second are dropped when they arrive, because the rebuild already counted them. Rebuilds
+ * and flushes exclude each other (exclusive and shared advisory locks), so no flush reads the rebuild mark from
+ * before a rebuild and writes after it.
+ */
+@Repository
+public class OrderAggregateRepository {
+    // distinct from OrderPartitions' key; any constant works as long as it is only used here
+    private static final long LOCK_KEY = 0x6f72646167677273L;
+    // held shared by flushes and exclusively by a rebuild
+    private static final long WRITE_LOCK_KEY = LOCK_KEY + 1;
+
+    private static final String ADD = """
+            INSERT INTO order_daily_aggregates AS a (day, currency, status, order_count, total, updated_at)
+            SELECT ?, ?, ?, ?, ?, now()
+             WHERE NOT EXISTS (SELECT 1 FROM order_aggregate_rebuilds r WHERE r.day = ? AND r.rebuilt_at > ?)
+            ON CONFLICT (day, currency, status) DO UPDATE
+               SET order_count = a.order_count + excluded.order_count,
+                   total = a.total + excluded.total,
+                   updated_at = excluded.updated_at
+            """;
+    private static final String REBUILD = """
+            INSERT INTO order_daily_aggregates AS a (day, currency, status, order_count, total, updated_at)
+            SELECT ?, currency, status, count(*), sum(total), now()
+              FROM orders
+             WHERE created_at >= ? AND created_at < ?
+             GROUP BY currency, status
+            ON CONFLICT (day, currency, status) DO UPDATE
+               SET order_count = excluded.order_count,
+                   total = excluded.total,
+                   updated_at = excluded.updated_at
+             WHERE (a.order_count, a.total) IS DISTINCT FROM (excluded.order_count, excluded.total)
+            """;
+    private static final String NEXT_SECOND = "SELECT date_trunc('second', clock_timestamp()) + interval '1 second'";
+    private static final String MARK_REBUILT = """
+            INSERT INTO order_aggregate_rebuilds (day, rebuilt_at)
+            VALUES (?, ?)
+            ON CONFLICT (day) DO UPDATE SET rebuilt_at = excluded.rebuilt_at
+            """;
+    private static final String DELETE_EMPTY = """
+            DELETE FROM order_daily_aggregates a
+             WHERE a.day = ?
+               AND NOT EXISTS (
+                   SELECT 1
+                     FROM orders o
+                    WHERE o.created_at >= ? AND o.created_at < ?
+                      AND o.currency = a.currency
+                      AND o.status = a.status)
+            """;
+    private static final String FIND = """
+            SELECT day, currency, status, order_count, total
+              FROM order_daily_aggregates
+             WHERE day BETWEEN ? AND ?
+               AND (?::text IS NULL OR currency = ?)
+               AND (?::text IS NULL OR status = ?)
+             ORDER BY day, currency, status
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public OrderAggregateRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Adds each delta to its row, creating rows as needed, unless its day was rebuilt after the delta's second.
+     * Callers pass deltas sorted by key, so concurrent flushes from several instances lock rows in the same order.
+     * Must run in a transaction, which holds off rebuilds until it commits.
+     */
+    public void add(List<Delta> deltas) {
+        jdbc.queryForObject("SELECT pg_advisory_xact_lock_shared(?)", Object.class, WRITE_LOCK_KEY);
+        jdbc.batchUpdate(ADD, deltas, deltas.size(), (ps, d) -> {
+            ps.setObject(1, d.day());
+            ps.setString(2, d.currency());
+            ps.setString(3, d.status().name());
+            ps.setLong(4, d.orders());
+            ps.setBigDecimal(5, d.total().toBigDecimal());
+            ps.setObject(6, d.day());
+            ps.setObject(7, d.second().atOffset(ZoneOffset.UTC));
+        });
+    }
+
+    /**
+     * Replaces {@code day}'s rows with counts from {@code orders} (one partition, by {@code created_at}), read
+     * at the next whole second, and records that second. Must run in a transaction: it waits for running
+     * flushes, and holds off new ones until it commits.
+     *
+     * @return rows that were created, corrected or deleted
+     */
+    public int rebuild(LocalDate day) {
+        OffsetDateTime from = day.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = from.plusDays(1);
+        jdbc.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, WRITE_LOCK_KEY);
+        // deltas are kept per second, so reading at a second boundary leaves none straddling the rebuild
+        OffsetDateTime at = jdbc.queryForObject(NEXT_SECOND, OffsetDateTime.class);
+        jdbc.queryForObject("SELECT pg_sleep_until(?)", Object.class, at);
+        int deleted = jdbc.update(DELETE_EMPTY, day, from, to);
+        int changed = deleted + jdbc.update(REBUILD, day, from, to);
+        jdbc.update(MARK_REBUILT, day, at);
+        return changed;
+    }
+
+    /**
+     * Takes the transaction-scoped reconciliation lock.
+     *
+     * @return false if another session holds it
+     */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY));
+    }
+
+    /**
+     * Rows for {@code from}..{@code to} (inclusive), by day, currency and status; a null filter matches all.
+     */
+    public List<Row> find(LocalDate from, LocalDate to, String currency, OrderStatus status) {
+        String statusName = status == null ? null : status.name();
+        return jdbc.query(con -> {
+            var ps = con.prepareStatement(FIND);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            ps.setObject(3, currency, Types.VARCHAR);
+            ps.setObject(4, currency, Types.VARCHAR);
+            ps.setObject(5, statusName, Types.VARCHAR);
+            ps.setObject(6, statusName, Types.VARCHAR);
+            return ps;
+        }, OrderAggregateRepository::toRow);
+    }
+
+    private static Row toRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Row(rs.getObject("day", LocalDate.class), rs.getString("currency"),
+                OrderStatus.valueOf(rs.getString("status")), rs.getLong("order_count"),
+                Money.of(rs.getBigDecimal("total")));
+    }
+
+    /**
+     * One row of the table.
+     */
+    public record Row(LocalDate day, String currency, OrderStatus status, long orders, Money total) { }
+
+    /**
+     * A change to add to a row: the orders and total that moved in or out of it during one {@code second}.
+     */
+    public record Delta(LocalDate day, String currency, OrderStatus status, Instant second, long orders,
+                        Money total) { }
+}
@@ -0,0 +1,67 @@
+package com.minicommerce.orders.repository;
+
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC batch inserts for bulk ingestion. With pgjdbc's {@code reWriteBatchedInserts} each batch is sent as
+ * multi-row INSERT statements, bypassing the persistence context entirely.
+ */
+@Repository
+public class OrderBulkWriter {
+    private static final String UPSERT_CUSTOMER = """
+            INSERT INTO customers (id, email, name) VALUES (?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String INSERT_ORDER = """
+            INSERT INTO orders (id, customer_id, status, currency, total, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_ITEM = """
+            INSERT INTO order_items (id, order_id, order_created_at, sku, name, quantity, unit_price)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public OrderBulkWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Creates the minimal demo customer for any id that does not exist yet. Callers should pass ids in a
+     * stable order so concurrent batches lock rows in the same sequence.
+     */
+    public void ensureCustomers(Collection<UUID> customerIds) {
+        List<Object[]> rows = new ArrayList<>(customerIds.size());
+        for (UUID id : customerIds) {
+            rows.add(new Object[]{id, id + "@demo.local", "Demo Customer"});
+        }
+        jdbc.batchUpdate(UPSERT_CUSTOMER, rows);
+    }
+
+    public void insert(List<Order> orders) {
+        List<Object[]> headers = new ArrayList<>(orders.size());
+        List<Object[]> lines = new ArrayList<>();
+        for (Order o : orders) {
+            headers.add(new Object[]{
+                    o.getId(), o.getCustomerId(), o.getStatus().name(), o.getCurrency(), o.getTotal().toBigDecimal(),
+                    o.getCreatedAt(), o.getUpdatedAt()
+            });
+            for (OrderItem it : o.getItems()) {
+                lines.add(new Object[]{
+                        it.getId(), o.getId(), o.getCreatedAt(), it.getSku(), it.getName(), it.getQuantity(), it.getUnitPrice().toBigDecimal()
+                });
+            }
+        }
+        jdbc.batchUpdate(INSERT_ORDER, headers);
+        jdbc.batchUpdate(INSERT_ITEM, lines);
+    }
+}
@@ -0,0 +1,110 @@
+package com.minicommerce.orders.repository;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.OrderItemResponse;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only scan of orders with their items for exports. Rows bypass the persistence context and are handed
+ * to the caller one order at a time, so memory use depends on the fetch size, not on the number of orders.
+ * <p>
+ * pgjdbc only honours the fetch size (server-side portal) when autocommit is off: call inside a transaction.
+ */
+@Repository
+public class OrderExportReader {
+    // amounts are read as minor units (NUMERIC(12,2) * 100), skipping a BigDecimal per value
+    private static final String SELECT = """
+            SELECT o.id, o.customer_id, o.status, o.currency, (o.total * 100)::int8 AS total_minor,
+                   o.created_at, o.updated_at,
+                   i.id AS item_id, i.sku, i.name, i.quantity, (i.unit_price * 100)::int8 AS unit_price_minor
+              FROM orders o
+              LEFT JOIN order_items i ON i.order_id = o.id AND i.order_created_at = o.created_at
+             WHERE (?::timestamptz IS NULL OR o.created_at >= ?)
+               AND (?::timestamptz IS NULL OR o.created_at < ?)
+               AND (?::text IS NULL OR o.status = ?)
+             ORDER BY o.created_at, o.id
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public OrderExportReader(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Streams orders created in {@code [from, to)} (either bound optional), oldest first.
+     */
+    public void stream(OffsetDateTime from, OffsetDateTime to, OrderStatus status, int fetchSize,
+                       Consumer<OrderResponse> sink) {
+        String statusName = status == null ? null : status.name();
+        Grouper grouper = new Grouper(sink);
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, from);
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+            ps.setObject(4, to);
+            ps.setString(5, statusName);
+            ps.setString(6, statusName);
+            return ps;
+        }, grouper);
+        grouper.finish();
+    }
+
+    /**
+     * Rows of one order are adjacent (ORDER BY o.id within created_at); emits an order when the id changes.
+     */
+    private static final class Grouper implements RowCallbackHandler {
+        private final Consumer<OrderResponse> sink;
+        private OrderResponse header;
+        private List<OrderItemResponse> items;
+
+        Grouper(Consumer<OrderResponse> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject("id", UUID.class);
+            if (header == null || !header.id().equals(id)) {
+                finish();
+                items = new ArrayList<>();
+                header = new OrderResponse(
+                        id,
+                        rs.getObject("customer_id", UUID.class),
+                        rs.getString("status").toLowerCase(),
+                        rs.getString("currency"),
+                        Money.ofMinor(rs.getLong("total_minor")),
+                        rs.getObject("created_at", OffsetDateTime.class),
+                        rs.getObject("updated_at", OffsetDateTime.class),
+                        items
+                );
+            }
+            UUID itemId = rs.getObject("item_id", UUID.class);
+            if (itemId != null) {
+                items.add(OrderMapper.toItemResponse(itemId, rs.getString("sku"), rs.getString("name"),
+                        rs.getInt("quantity"), Money.ofMinor(rs.getLong("unit_price_minor"))));
+            }
+        }
+
+        void finish() {
+            if (header != null) sink.accept(header);
+            header = null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.minicommerce.orders.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the monthly partitions of {@code orders} and {@code order_items} (V4). Partition names are derived
+ * from a {@link YearMonth}, never from input, so they are safe to inline. Callers run these inside one
+ * transaction, starting with {@link #tryLock}.
+ */
+@Repository
+public class OrderPartitions {
+    private static final Pattern NAME = Pattern.compile("orders_p(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    // arbitrary, shared by every instance so only one of them changes partitions at a time
+    private static final long LOCK_KEY = 0x6f72_6465_7273_7054L;
+
+    private static final String LIST = """
+            SELECT c.relname
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'public.orders'::regclass
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public OrderPartitions(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Takes the transaction-scoped maintenance lock and bounds how long the following DDL waits for table locks.
+     *
+     * @return false if another session holds the maintenance lock
+     */
+    public boolean tryLock(Duration lockTimeout) {
+        jdbc.execute("SET LOCAL lock_timeout = " + lockTimeout.toMillis());
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY));
+    }
+
+    /**
+     * Months that currently have an attached {@code orders} partition, in no particular order. Partitions not
+     * named by month (e.g. a legacy table attached during an online conversion) are ignored.
+     */
+    public List<YearMonth> months() {
+        return jdbc.queryForList(LIST, String.class).stream()
+                .map(name -> {
+                    Matcher m = NAME.matcher(name);
+                    return m.matches() ? YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))) : null;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public void create(YearMonth month) {
+        jdbc.query("SELECT public.fn_create_order_partitions(?)", rs -> { }, month.atDay(1));
+    }
+
+    /**
+     * Detaches both partitions of {@code month}. They stay behind as plain tables, still linked by their
+     * month's foreign key, for archiving.
+     */
+    public void detach(YearMonth month) {
+        jdbc.execute("ALTER TABLE public.order_items DETACH PARTITION public.order_items_p" + SUFFIX.format(month));
+        jdbc.execute("ALTER TABLE public.orders DETACH PARTITION public.orders_p" + SUFFIX.format(month));
+    }
+
+    /**
+     * Drops both partitions of {@code month}, items first: they hold the only foreign key into the orders
+     * partition.
+     */
+    public void drop(YearMonth month) {
+        jdbc.execute("DROP TABLE public.order_items_p" + SUFFIX.format(month));
+        jdbc.execute("DROP TABLE public.orders_p" + SUFFIX.format(month));
+    }
+}
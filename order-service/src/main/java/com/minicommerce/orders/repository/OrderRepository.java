@@ -4,10 +4,87 @@ import com.minicommerce.orders.domain.Order;
 import com.minicommerce.orders.domain.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, UUID> {
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
+
+    /**
+     * OFFSET pages without the {@code count(*)}, for listings that do not want exact totals.
+     */
+    Slice<Order> findSliceBy(Pageable pageable);
+
+    Slice<Order> findSliceByStatus(OrderStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(UUID id);
+
+    /**
+     * {@link #findWithItemsById} restricted to {@code [from, to)} on both tables' partition keys, so PostgreSQL
+     * plans only the monthly partitions covering that window. The bounds must contain the order's
+     * {@code created_at}; {@link com.minicommerce.orders.domain.OrderIds} recovers it from v7 ids.
+     * <p>
+     * Inner fetch join: every order has at least one item, and all of them share the order's {@code created_at}
+     * (per-month FK {@code fk_order_items_pYYYY_MM_order}), so the item bounds never cut the collection short.
+     */
+    @Query("""
+            select o from Order o
+              join fetch o.items i
+             where o.id = :id
+               and o.createdAt >= :from and o.createdAt < :to
+               and i.orderCreatedAt >= :from and i.orderCreatedAt < :to
+            """)
+    Optional<Order> findWithItemsByIdCreatedBetween(@Param("id") UUID id, @Param("from") OffsetDateTime from,
+                                                    @Param("to") OffsetDateTime to);
+
+    // Keyset pagination, newest first. Row-value comparison lets PostgreSQL seek straight into
+    // ix_orders_created_at_id / ix_orders_status_created_at_id instead of scanning an OFFSET.
+    // The row comparison alone does not prune partitions; the redundant created_at <= :createdAt does.
+
+    @Query(value = """
+            SELECT * FROM orders
+             ORDER BY created_at DESC, id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Order> findFirstPage(@Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM orders
+             WHERE created_at <= :createdAt
+               AND (created_at, id) < (:createdAt, :id)
+             ORDER BY created_at DESC, id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Order> findPageAfter(@Param("createdAt") OffsetDateTime createdAt, @Param("id") UUID id,
+                              @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM orders
+             WHERE status = :status
+             ORDER BY created_at DESC, id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Order> findFirstPageByStatus(@Param("status") String status, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM orders
+             WHERE status = :status
+               AND created_at <= :createdAt
+               AND (created_at, id) < (:createdAt, :id)
+             ORDER BY created_at DESC, id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Order> findPageByStatusAfter(@Param("status") String status, @Param("createdAt") OffsetDateTime createdAt,
+                                      @Param("id") UUID id, @Param("limit") int limit);
+
+    long countByStatus(OrderStatus status);
 }
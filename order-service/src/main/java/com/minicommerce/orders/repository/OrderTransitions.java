@@ -0,0 +1,271 @@
+package com.minicommerce.orders.repository;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderItem;
+import com.minicommerce.orders.domain.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Status transitions as a single conditional {@code UPDATE ... RETURNING}: the current status (and, optionally,
+ * version) is checked by the {@code WHERE} clause rather than by loading the order first, and the updated order
+ * comes back joined with its items, and with the status it left, in the same round-trip. A concurrent
+ * transition waits on the row lock and then re-checks the condition, so of two racing transitions at most one
+ * matches.
+ * <p>
+ * Callers that know the order's creation time (from a v7 id) pass {@code created_at} bounds so the statement
+ * touches one monthly partition of each table; without them it probes every partition.
+ * <p>
+ * {@link #transitionAll} does the same for a whole batch of orders, each with its own target, in one statement.
+ */
+@Repository
+public class OrderTransitions {
+    // the order is locked and checked first so the UPDATE can return the status it replaced; a concurrent
+    // transition that committed meanwhile is seen by FOR UPDATE, which re-checks the conditions on the new row.
+    // The items are outer-joined: an order without items still comes back once it has moved
+    private static final String TRANSITION = """
+            WITH locked AS (
+                SELECT id, created_at, status
+                  FROM orders
+                 WHERE id = ?
+                   AND status = ANY (?)
+                   AND (?::bigint IS NULL OR version = ?)%s
+                   FOR UPDATE
+            ), changed AS (
+                UPDATE orders o
+                   SET status = ?, version = o.version + 1
+                  FROM locked
+                 WHERE o.id = locked.id
+                   AND o.created_at = locked.created_at%s
+                RETURNING o.id, o.customer_id, o.status, o.currency, o.total, o.created_at, o.updated_at, o.version,
+                          locked.status AS previous_status
+            )
+            SELECT c.*, i.id AS item_id, i.sku, i.name, i.quantity, i.unit_price
+              FROM changed c
+              LEFT JOIN order_items i ON i.order_id = c.id AND i.order_created_at = c.created_at%s
+            """;
+    private static final String UNBOUNDED = TRANSITION.formatted("", "", "");
+    private static final String BOUNDED = TRANSITION.formatted("""
+
+                   AND created_at BETWEEN ? AND ?""", """
+
+                   AND o.created_at BETWEEN ? AND ?""", """
+
+               AND i.order_created_at BETWEEN ? AND ?""");
+
+    // many orders, each to its own target, in one statement: rows are locked in id order so that concurrent
+    // batches (and single transitions) cannot deadlock; orders that did not match report their current status,
+    // read from the snapshot the statement started with
+    private static final String TRANSITION_ALL = """
+            WITH v AS (
+                SELECT id, target, string_to_array(sources, ',') AS sources,
+                       coalesce(lo::timestamptz, '-infinity') AS lo, coalesce(hi::timestamptz, 'infinity') AS hi
+                  FROM unnest(?::uuid[], ?::text[], ?::text[], ?::text[], ?::text[]) AS t(id, target, sources, lo, hi)
+            ), locked AS (
+                SELECT o.id, o.created_at, o.status, v.target
+                  FROM orders o
+                  JOIN v ON o.id = v.id AND o.created_at BETWEEN v.lo AND v.hi
+                 WHERE o.status = ANY (v.sources)
+                 ORDER BY o.id
+                   FOR UPDATE OF o
+            ), changed AS (
+                UPDATE orders o
+                   SET status = locked.target, version = o.version + 1
+                  FROM locked
+                 WHERE o.id = locked.id
+                   AND o.created_at = locked.created_at
+                RETURNING o.id, o.customer_id, o.status, o.currency, o.total, o.created_at, o.updated_at, o.version,
+                          locked.status AS previous_status
+            )
+            SELECT v.id AS requested_id, c.*, o.status AS current_status
+              FROM v
+              LEFT JOIN changed c ON c.id = v.id
+              LEFT JOIN orders o ON c.id IS NULL AND o.id = v.id AND o.created_at BETWEEN v.lo AND v.hi
+            """;
+
+    private static final String CURRENT = """
+            SELECT status, version
+              FROM orders
+             WHERE id = ?
+            """;
+    private static final String CURRENT_BOUNDED = CURRENT + "   AND created_at BETWEEN ? AND ?\n";
+
+    private final JdbcTemplate jdbc;
+
+    public OrderTransitions(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Moves the order to {@code target} if its status is one {@code target} may be reached from and, when
+     * {@code expectedVersion} is given, its version still matches.
+     *
+     * @param from lower bound on the order's {@code created_at}, or null to search every partition
+     * @param to   upper bound on the order's {@code created_at}; null exactly when {@code from} is
+     * @return the order as updated, with its items, detached from any persistence context, and the status it
+     * moved from; empty if nothing matched, see {@link #current} for why
+     */
+    public Optional<Moved> transition(UUID id, OrderStatus target, Long expectedVersion,
+                                      OffsetDateTime from, OffsetDateTime to) {
+        boolean bounded = from != null;
+        return Optional.ofNullable(jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(bounded ? BOUNDED : UNBOUNDED);
+            int i = 0;
+            ps.setObject(++i, id);
+            ps.setArray(++i, statuses(con, target));
+            ps.setObject(++i, expectedVersion, Types.BIGINT);
+            ps.setObject(++i, expectedVersion, Types.BIGINT);
+            if (bounded) {
+                ps.setObject(++i, from);
+                ps.setObject(++i, to);
+            }
+            ps.setString(++i, target.name());
+            if (bounded) {
+                ps.setObject(++i, from);
+                ps.setObject(++i, to);
+                ps.setObject(++i, from);
+                ps.setObject(++i, to);
+            }
+            return ps;
+        }, OrderTransitions::toMoved));
+    }
+
+    /**
+     * Applies many transitions with one statement: each order moves to its {@link Change#target} if its status is
+     * one of {@link Change#from}. Orders must be distinct.
+     *
+     * @return one result per change, in no particular order; orders are returned without their items
+     */
+    public List<Result> transitionAll(List<Change> changes) {
+        if (changes.isEmpty()) return List.of();
+        Map<UUID, Change> byId = new HashMap<>(changes.size() * 2);
+        for (Change c : changes) {
+            if (byId.put(c.id(), c) != null) throw new IllegalArgumentException("Duplicate order " + c.id());
+        }
+        return jdbc.query(con -> {
+            int n = changes.size();
+            UUID[] ids = new UUID[n];
+            String[] targets = new String[n];
+            String[] sources = new String[n];
+            String[] lo = new String[n];
+            String[] hi = new String[n];
+            for (int i = 0; i < n; i++) {
+                Change c = changes.get(i);
+                ids[i] = c.id();
+                targets[i] = c.target().name();
+                sources[i] = String.join(",", c.from().stream().map(Enum::name).toList());
+                lo[i] = c.createdFrom() == null ? null : c.createdFrom().toString();
+                hi[i] = c.createdTo() == null ? null : c.createdTo().toString();
+            }
+            PreparedStatement ps = con.prepareStatement(TRANSITION_ALL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setArray(2, con.createArrayOf("text", targets));
+            ps.setArray(3, con.createArrayOf("text", sources));
+            ps.setArray(4, con.createArrayOf("text", lo));
+            ps.setArray(5, con.createArrayOf("text", hi));
+            return ps;
+        }, (rs, rowNum) -> toResult(rs, byId));
+    }
+
+    /**
+     * Status and version of an order, to explain a transition that matched nothing.
+     *
+     * @return empty if the order does not exist
+     */
+    public Optional<Current> current(UUID id, OffsetDateTime from, OffsetDateTime to) {
+        var rows = from == null
+                ? jdbc.query(CURRENT, OrderTransitions::toCurrent, id)
+                : jdbc.query(CURRENT_BOUNDED, OrderTransitions::toCurrent, id, from, to);
+        return rows.stream().findFirst();
+    }
+
+    private static Array statuses(Connection con, OrderStatus target) throws SQLException {
+        return con.createArrayOf("text", target.reachableFrom().stream().map(Enum::name).toArray());
+    }
+
+    private static Moved toMoved(ResultSet rs) throws SQLException {
+        Order order = null;
+        OrderStatus previous = null;
+        while (rs.next()) {
+            if (order == null) {
+                order = new Order();
+                order.setId(rs.getObject("id", UUID.class));
+                order.setCustomerId(rs.getObject("customer_id", UUID.class));
+                order.setStatus(OrderStatus.valueOf(rs.getString("status")));
+                order.setCurrency(rs.getString("currency"));
+                order.setTotal(Money.of(rs.getBigDecimal("total")));
+                order.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+                order.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class));
+                order.setVersion(rs.getLong("version"));
+                previous = OrderStatus.valueOf(rs.getString("previous_status"));
+            }
+            UUID itemId = rs.getObject("item_id", UUID.class);
+            if (itemId == null) continue;
+            OrderItem item = new OrderItem();
+            item.setId(itemId);
+            item.setSku(rs.getString("sku"));
+            item.setName(rs.getString("name"));
+            item.setQuantity(rs.getInt("quantity"));
+            item.setUnitPrice(Money.of(rs.getBigDecimal("unit_price")));
+            order.addItem(item);
+        }
+        return order == null ? null : new Moved(order, previous);
+    }
+
+    private static Result toResult(ResultSet rs, Map<UUID, Change> byId) throws SQLException {
+        Change change = byId.get(rs.getObject("requested_id", UUID.class));
+        if (rs.getObject("id") == null) {
+            String current = rs.getString("current_status");
+            return new Result(change, null, current == null ? null : OrderStatus.valueOf(current));
+        }
+        Order order = new Order();
+        order.setId(rs.getObject("id", UUID.class));
+        order.setCustomerId(rs.getObject("customer_id", UUID.class));
+        order.setStatus(OrderStatus.valueOf(rs.getString("status")));
+        order.setCurrency(rs.getString("currency"));
+        order.setTotal(Money.of(rs.getBigDecimal("total")));
+        order.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        order.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class));
+        order.setVersion(rs.getLong("version"));
+        OrderStatus previous = OrderStatus.valueOf(rs.getString("previous_status"));
+        return new Result(change, new Moved(order, previous), previous);
+    }
+
+    private static Current toCurrent(ResultSet rs, int rowNum) throws SQLException {
+        return new Current(OrderStatus.valueOf(rs.getString("status")), rs.getLong("version"));
+    }
+
+    public record Current(OrderStatus status, long version) { }
+
+    public record Moved(Order order, OrderStatus from) { }
+
+    /**
+     * One order of {@link #transitionAll}.
+     *
+     * @param createdFrom lower bound on the order's {@code created_at}, or null when unknown
+     * @param createdTo   upper bound on the order's {@code created_at}, or null when unknown
+     */
+    public record Change(UUID id, OrderStatus target, Set<OrderStatus> from,
+                         OffsetDateTime createdFrom, OffsetDateTime createdTo) { }
+
+    /**
+     * @param moved   the order as updated, or null if it did not match
+     * @param current the status the order had before this statement, or null if it does not exist
+     */
+    public record Result(Change change, Moved moved, OrderStatus current) { }
+}
@@ -0,0 +1,6 @@
+package com.minicommerce.orders.service;
+
+/**
+ * How {@code totalElements} is produced for a listing: {@code count(*)}, planner estimate, or not at all.
+ */
+public enum CountMode { EXACT, ESTIMATED, NONE }
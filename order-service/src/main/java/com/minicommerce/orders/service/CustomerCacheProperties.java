@@ -0,0 +1,12 @@
+package com.minicommerce.orders.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "customers.cache")
+public record CustomerCacheProperties(
+        @DefaultValue("500000") long maxSize,
+        @DefaultValue("1h") Duration ttl
+) { }
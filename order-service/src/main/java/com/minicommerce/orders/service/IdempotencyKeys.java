@@ -0,0 +1,201 @@
+package com.minicommerce.orders.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minicommerce.orders.repository.IdempotencyKeyRepository;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Order creation under an {@code Idempotency-Key}. The first request with a key creates the order and stores its
+ * response; later ones with the same key and body get that response back without touching the orders tables.
+ * <p>
+ * Three layers, cheapest first: a bounded in-memory map of completed keys; an in-flight map, so a duplicate
+ * arriving while this instance still runs the first request waits for it instead of opening a transaction; and
+ * {@code idempotency_keys}, claimed in the same transaction as the order, so duplicates on other instances block on
+ * the key's row until the first request commits (or rolls back and lets them take over).
+ */
+@Component
+public class IdempotencyKeys {
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeys.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_CHUNK = 5000;
+
+    private final OrderService orders;
+    private final IdempotencyKeyRepository keys;
+    private final IdempotencyProperties props;
+    private final TransactionTemplate tx;
+    private final ObjectMapper mapper;
+    private final Cache<String, Completed> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+    private final Counter created;
+    private final Counter replayed;
+
+    public IdempotencyKeys(OrderService orders, IdempotencyKeyRepository keys, IdempotencyProperties props,
+                           TransactionTemplate tx, ObjectMapper mapper, MeterRegistry registry) {
+        this.orders = orders;
+        this.keys = keys;
+        this.props = props;
+        this.tx = tx;
+        this.mapper = mapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(props.cacheMaxSize())
+                .expireAfterWrite(props.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, completed, "orders.idempotency");
+        this.created = registry.counter("orders.idempotency.requests", "outcome", "created");
+        this.replayed = registry.counter("orders.idempotency.requests", "outcome", "replayed");
+    }
+
+    /**
+     * Creates the order, or returns the response stored for {@code key}.
+     *
+     * @throws IllegalArgumentException if the key is malformed or was used for a different request
+     * @throws IllegalStateException    if the first request with the key is still running after
+     *                                  {@link IdempotencyProperties#waitTimeout}
+     */
+    public Result create(String key, CreateOrderRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String hash = hash(request);
+        long deadline = System.nanoTime() + props.waitTimeout().toNanos();
+        while (true) {
+            Completed done = completed.getIfPresent(key);
+            if (done != null) return replay(key, done, hash);
+
+            CompletableFuture<Completed> mine = new CompletableFuture<>();
+            CompletableFuture<Completed> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) return run(key, hash, request, mine);
+
+            done = await(running, deadline);
+            if (done != null) return replay(key, done, hash);
+            // the first request failed without storing anything: take over
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged;
+        do {
+            purged = keys.purgeExpired(PURGE_CHUNK);
+            if (purged > 0) log.info("Purged {} expired idempotency keys", purged);
+        } while (purged == PURGE_CHUNK);
+    }
+
+    private Result run(String key, String hash, CreateOrderRequest request, CompletableFuture<Completed> mine) {
+        try {
+            Outcome outcome = tx.execute(status -> {
+                if (keys.claim(key, hash, props.ttl(), props.waitTimeout())) {
+                    OrderResponse response = OrderMapper.toResponse(orders.create(request));
+                    keys.complete(key, response.id(), write(response));
+                    return new Outcome(new Completed(hash, response), false);
+                }
+                IdempotencyKeyRepository.Stored stored = keys.find(key)
+                        .orElseThrow(() -> new IllegalStateException(HEADER + " " + key + " disappeared while claimed"));
+                return new Outcome(new Completed(stored.requestHash(), read(stored.responseJson())), true);
+            });
+            completed.put(key, outcome.completed());
+            mine.complete(outcome.completed());
+            if (outcome.replayed()) return replay(key, outcome.completed(), hash);
+            created.increment();
+            return new Result(outcome.completed().response(), false);
+        } catch (PessimisticLockingFailureException e) {
+            // lock_timeout on the claim: another instance is still running the first request
+            mine.completeExceptionally(e);
+            throw inProgress();
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * @return the first request's result, or null if it failed
+     */
+    private Completed await(CompletableFuture<Completed> running, long deadline) {
+        try {
+            return running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (System.nanoTime() - deadline >= 0) throw inProgress();
+            return null;
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private Result replay(String key, Completed done, String hash) {
+        if (!done.requestHash().equals(hash)) {
+            throw new IllegalArgumentException(HEADER + " " + key + " was already used for a different request");
+        }
+        replayed.increment();
+        return new Result(done.response(), true);
+    }
+
+    private static IllegalStateException inProgress() {
+        return new IllegalStateException("A request with this " + HEADER + " is still in progress, retry later");
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(mapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash order request", e);
+        }
+    }
+
+    private String write(OrderResponse response) {
+        try {
+            return mapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order response", e);
+        }
+    }
+
+    private OrderResponse read(String json) {
+        try {
+            return mapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored order response", e);
+        }
+    }
+
+    /**
+     * @param replayed true if {@code response} was stored by an earlier request rather than created now
+     */
+    public record Result(OrderResponse response, boolean replayed) { }
+
+    private record Completed(String requestHash, OrderResponse response) { }
+
+    private record Outcome(Completed completed, boolean replayed) { }
+}
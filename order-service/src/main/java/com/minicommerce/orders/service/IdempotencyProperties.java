@@ -0,0 +1,21 @@
+package com.minicommerce.orders.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code Idempotency-Key} handling on order creation. The purge interval itself is read by {@code @Scheduled}
+ * from {@code orders.idempotency.purge-interval}.
+ *
+ * @param ttl          how long a key is remembered, in memory and in {@code idempotency_keys}
+ * @param cacheMaxSize completed keys kept in memory; older ones are answered from the table
+ * @param waitTimeout  how long a duplicate waits for the first request with its key before answering 409
+ */
+@ConfigurationProperties(prefix = "orders.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("100000") long cacheMaxSize,
+        @DefaultValue("10s") Duration waitTimeout
+) { }
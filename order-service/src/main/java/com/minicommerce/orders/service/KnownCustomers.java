@@ -0,0 +1,73 @@
+package com.minicommerce.orders.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minicommerce.orders.repository.CustomerRepository;
+import com.minicommerce.orders.repository.OrderBulkWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bounded cache of customer ids known to exist, so repeat customers cost no extra round-trip on order creation.
+ * A miss performs one {@code INSERT ... ON CONFLICT DO NOTHING}; the id is cached only after the surrounding
+ * transaction commits, so a rolled-back insert is never remembered.
+ */
+@Component
+public class KnownCustomers {
+    private final Cache<UUID, Boolean> known;
+    private final CustomerRepository customers;
+    private final OrderBulkWriter bulk;
+
+    public KnownCustomers(CustomerRepository customers, OrderBulkWriter bulk, CustomerCacheProperties props,
+                          MeterRegistry registry) {
+        this.customers = customers;
+        this.bulk = bulk;
+        this.known = Caffeine.newBuilder()
+                .maximumSize(props.maxSize())
+                .expireAfterWrite(props.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, known, "customers.known");
+    }
+
+    public void ensureExists(UUID customerId) {
+        if (known.getIfPresent(customerId) != null) return;
+        // auto-create minimal customer for demo purposes
+        customers.insertIfAbsent(customerId, customerId + "@demo.local", "Demo Customer");
+        rememberAfterCommit(List.of(customerId));
+    }
+
+    /**
+     * Bulk variant; callers should pass ids in a stable order so concurrent batches lock rows consistently.
+     */
+    public void ensureAllExist(Collection<UUID> customerIds) {
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : customerIds) {
+            if (known.getIfPresent(id) == null) missing.add(id);
+        }
+        if (missing.isEmpty()) return;
+        bulk.ensureCustomers(missing);
+        rememberAfterCommit(missing);
+    }
+
+    private void rememberAfterCommit(List<UUID> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(id -> known.put(id, Boolean.TRUE));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(id -> known.put(id, Boolean.TRUE));
+            }
+        });
+    }
+}
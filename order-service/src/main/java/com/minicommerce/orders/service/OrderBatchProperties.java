@@ -0,0 +1,13 @@
+package com.minicommerce.orders.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits for {@code POST /api/v1/orders:batch}: orders per transaction and per request.
+ */
+@ConfigurationProperties(prefix = "orders.batch")
+public record OrderBatchProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("50000") int maxOrders
+) { }
@@ -0,0 +1,39 @@
+package com.minicommerce.orders.service;
+
+import com.minicommerce.orders.domain.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the (created_at DESC, id DESC) ordering of orders. Clients only ever see the opaque token.
+ */
+public record OrderCursor(OffsetDateTime createdAt, UUID id) {
+    private static final char SEPARATOR = '|';
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            return new OrderCursor(
+                    Instant.parse(raw.substring(0, sep)).atOffset(ZoneOffset.UTC),
+                    UUID.fromString(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
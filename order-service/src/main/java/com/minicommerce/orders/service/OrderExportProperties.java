@@ -0,0 +1,9 @@
+package com.minicommerce.orders.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.export")
+public record OrderExportProperties(
+        @DefaultValue("1000") int fetchSize
+) { }
@@ -0,0 +1,59 @@
+package com.minicommerce.orders.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.repository.OrderExportReader;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+
+/**
+ * Writes orders as NDJSON (one {@link OrderResponse} per line) straight from a JDBC cursor to a stream.
+ * The read-only transaction lasts as long as the export; it holds a snapshot but no entities.
+ */
+@Service
+public class OrderExporter {
+    private final OrderExportReader reader;
+    private final OrderExportProperties props;
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+
+    public OrderExporter(OrderExportReader reader, OrderExportProperties props, ObjectMapper mapper) {
+        this.reader = reader;
+        this.props = props;
+        this.mapper = mapper;
+        // flushing per line would turn every order into its own socket write
+        this.writer = mapper.writerFor(OrderResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @return number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long export(OffsetDateTime from, OffsetDateTime to, OrderStatus status, OutputStream out) throws IOException {
+        long[] count = {0};
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            reader.stream(from, to, status, props.fetchSize(), order -> {
+                try {
+                    writer.writeValue(gen, order);
+                    gen.writeRaw('\n');
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+}
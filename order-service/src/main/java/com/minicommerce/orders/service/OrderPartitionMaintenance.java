@@ -0,0 +1,96 @@
+package com.minicommerce.orders.service;
+
+import com.minicommerce.orders.repository.OrderPartitions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the monthly partitions of {@code orders}/{@code order_items} ahead of the clock and expires months past
+ * the retention. Runs at startup and then every {@code orders.partitions.check-interval}; every instance may run
+ * it, the advisory lock lets one of them act at a time. Months are UTC, like the partition bounds.
+ */
+@Component
+public class OrderPartitionMaintenance {
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionMaintenance.class);
+
+    private final OrderPartitions partitions;
+    private final OrderPartitionProperties props;
+    private final TransactionTemplate tx;
+
+    public OrderPartitionMaintenance(OrderPartitions partitions, OrderPartitionProperties props, TransactionTemplate tx) {
+        this.partitions = partitions;
+        this.props = props;
+        this.tx = tx;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.partitions.check-interval:PT1H}")
+    public void run() {
+        if (!props.enabled()) return;
+        try {
+            maintain(LocalDate.now(ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            // typically a lock timeout behind a long transaction; the premade months leave time for the next run
+            log.warn("Order partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates missing partitions from {@code today}'s month through {@link OrderPartitionProperties#premakeMonths}
+     * ahead, then expires every earlier month that ended at least {@link OrderPartitionProperties#retention} before
+     * {@code today}.
+     */
+    public Result maintain(LocalDate today) {
+        Result result = tx.execute(status -> {
+            if (!partitions.tryLock(props.lockTimeout())) return Result.SKIPPED;
+
+            Set<YearMonth> existing = new HashSet<>(partitions.months());
+            YearMonth current = YearMonth.from(today);
+            List<YearMonth> created = new ArrayList<>();
+            for (int i = 0; i <= props.premakeMonths(); i++) {
+                YearMonth month = current.plusMonths(i);
+                if (!existing.contains(month)) {
+                    partitions.create(month);
+                    created.add(month);
+                }
+            }
+
+            List<YearMonth> expired = new ArrayList<>();
+            if (props.retention() != null) {
+                LocalDate cutoff = today.minus(props.retention());
+                existing.stream()
+                        .filter(month -> month.isBefore(current) && !month.plusMonths(1).atDay(1).isAfter(cutoff))
+                        .sorted()
+                        .forEach(month -> {
+                            if (props.expireAction() == OrderPartitionProperties.ExpireAction.DROP) {
+                                partitions.drop(month);
+                            } else {
+                                partitions.detach(month);
+                            }
+                            expired.add(month);
+                        });
+            }
+            return new Result(created, expired);
+        });
+
+        if (!result.created().isEmpty()) log.info("Created order partitions for {}", result.created());
+        if (!result.expired().isEmpty()) {
+            log.info("Expired order partitions for {} ({})", result.expired(), props.expireAction());
+        }
+        return result;
+    }
+
+    public record Result(List<YearMonth> created, List<YearMonth> expired) {
+        static final Result SKIPPED = new Result(List.of(), List.of());
+    }
+}
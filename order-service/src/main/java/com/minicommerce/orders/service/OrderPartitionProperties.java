@@ -0,0 +1,32 @@
+package com.minicommerce.orders.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Monthly partition upkeep for {@code orders}/{@code order_items}. The check interval itself is read by
+ * {@code @Scheduled} from {@code orders.partitions.check-interval}.
+ *
+ * @param premakeMonths months after the current one whose partitions must already exist
+ * @param retention     age after which a whole month is expired; {@code null} keeps every month
+ * @param expireAction  what happens to an expired month
+ * @param lockTimeout   how long DDL may wait for the parent table's lock before giving up until the next run
+ */
+@ConfigurationProperties(prefix = "orders.partitions")
+public record OrderPartitionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("3") int premakeMonths,
+        Period retention,
+        @DefaultValue("DETACH") ExpireAction expireAction,
+        @DefaultValue("5s") Duration lockTimeout
+) {
+    public enum ExpireAction {
+        /** Detach both partitions and leave them as plain tables for archiving. */
+        DETACH,
+        /** Drop both partitions. */
+        DROP
+    }
+}
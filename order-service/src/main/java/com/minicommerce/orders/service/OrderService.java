@@ -1,133 +1,328 @@
 package com.minicommerce.orders.service;
 
+import com.minicommerce.orders.aggregates.OrderAggregates;
+import com.minicommerce.orders.cache.OrderCache;
+import com.minicommerce.orders.datasource.ReadYourWrites;
 import com.minicommerce.orders.domain.*;
-import com.minicommerce.orders.events.EventPublisher;
 import com.minicommerce.orders.events.OrderCancelledEvent;
-import com.minicommerce.orders.events.OrderCreatedEvent;
 import com.minicommerce.orders.events.Topics;
-import com.minicommerce.orders.repository.CustomerRepository;
+import com.minicommerce.orders.outbox.OutboxWriter;
+import com.minicommerce.orders.repository.OrderBulkWriter;
+import com.minicommerce.orders.repository.OrderCountEstimator;
 import com.minicommerce.orders.repository.OrderRepository;
+import com.minicommerce.orders.repository.OrderTransitions;
+import com.minicommerce.orders.util.OrderMapper;
 import com.minicommerce.orders.web.dto.CreateOrderRequest;
-import com.minicommerce.orders.web.dto.OrderItemRequest;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.UUID;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 @Service
 public class OrderService {
+    // created_at and the id's timestamp come from the same clock read; the slack only guards against edits
+    private static final Duration ID_TIME_SLACK = Duration.ofDays(1);
+
     private final OrderRepository orders;
-    private final CustomerRepository customers;
-    private final EventPublisher events;
-    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+    private final KnownCustomers customers;
+    private final OutboxWriter outbox;
+    private final OrderCountEstimator estimator;
+    private final OrderBulkWriter bulk;
+    private final OrderCache cache;
+    private final OrderAggregates aggregates;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readOnly;
+    private final OrderMetrics.Operation createOps;
+    private final OrderMetrics.Operation batchOps;
+    private final OrderTransitions transitions;
+    private final Map<OrderStatus, OrderMetrics.Operation> transitionOps = new EnumMap<>(OrderStatus.class);
+    private final OrderMetrics.Operation statusEventOps;
 
-    public OrderService(OrderRepository orders, CustomerRepository customers, EventPublisher events) {
+    public OrderService(OrderRepository orders, KnownCustomers customers, OutboxWriter outbox,
+                        OrderCountEstimator estimator, OrderBulkWriter bulk, OrderTransitions transitions,
+                        OrderCache cache, OrderAggregates aggregates, ReadYourWrites readYourWrites,
+                        PlatformTransactionManager txManager, OrderMetrics metrics) {
         this.orders = orders;
         this.customers = customers;
-        this.events = events;
+        this.outbox = outbox;
+        this.estimator = estimator;
+        this.bulk = bulk;
+        this.transitions = transitions;
+        this.cache = cache;
+        this.aggregates = aggregates;
+        this.readYourWrites = readYourWrites;
+        this.readOnly = new TransactionTemplate(txManager);
+        this.readOnly.setReadOnly(true);
+        this.createOps = metrics.operation(OrderMetrics.CREATE, "customer", "persist", "outbox");
+        this.batchOps = metrics.operation(OrderMetrics.CREATE_BATCH, "customer", "insert", "outbox");
+        this.transitionOps.put(OrderStatus.CANCELLED, metrics.operation(OrderMetrics.CANCEL, "update", "outbox"));
+        this.transitionOps.put(OrderStatus.PAID, metrics.operation(OrderMetrics.PAY, "update"));
+        this.transitionOps.put(OrderStatus.FULFILLED, metrics.operation(OrderMetrics.FULFILL, "update"));
+        this.transitionOps.put(OrderStatus.REFUNDED, metrics.operation(OrderMetrics.REFUND, "update"));
+        this.statusEventOps = metrics.operation(OrderMetrics.STATUS_EVENTS, "update", "outbox");
     }
 
     @Transactional
     public Order create(CreateOrderRequest orderRequest) {
-        if (!customers.existsById(orderRequest.customerId())) {
-            // auto-create minimal customer for demo purposes
-            Customer c = new Customer();
-            c.setId(orderRequest.customerId());
-            c.setEmail(orderRequest.customerId() + "@demo.local");
-            c.setName("Demo Customer");
-            customers.save(c);
-        }
+        // the id is assigned here, so every stage's event can carry it
+        Order order = OrderMapper.toEntity(orderRequest);
+        UUID id = order.getId();
+        int items = orderRequest.items().size();
+        createOps.stage("customer").run(id, items, () -> customers.ensureExists(orderRequest.customerId()));
 
-        Order order = new Order();
-        order.setId(UUID.randomUUID());
-        order.setCustomerId(orderRequest.customerId());
-        order.setCurrency(orderRequest.currency());
-        BigDecimal total = BigDecimal.ZERO;
-
-        for (OrderItemRequest itemRequest : orderRequest.items()) {
-            OrderItem item = new OrderItem();
-            item.setId(UUID.randomUUID());
-            item.setSku(itemRequest.sku());
-            item.setName(itemRequest.name());
-            item.setQuantity(itemRequest.quantity());
-            item.setUnitPrice(itemRequest.unitPrice());
-            order.addItem(item);
-            total = total.add(itemRequest.unitPrice().multiply(BigDecimal.valueOf(itemRequest.quantity())));
-        }
-        order.setTotal(total);
-        Order saved = orders.save(order);
-
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                var items = saved.getItems().stream()
-                        .map(i -> new OrderCreatedEvent.Item(i.getSku(), i.getName(), i.getQuantity(), i.getUnitPrice()))
-                        .toList();
-                try {
-                    events.publish(Topics.ORDER_CREATED, saved.getId().toString(),
-                            new OrderCreatedEvent(
-                                    "order.created",
-                                    "v1",
-                                    saved.getId(),
-                                    saved.getCustomerId(),
-                                    saved.getCurrency(),
-                                    saved.getTotal(),
-                                    saved.getCreatedAt(),
-                                    items
-                            ));
-                } catch (RuntimeException e) {
-                    log.error("Failed to publish ORDER_CREATED event for order {}: {}", saved.getId(), e.getMessage(), e);
-                }
-            }
-        });
+        Order saved = createOps.stage("persist").record(id, items, () -> orders.save(order));
+        readYourWrites.written(saved.getId());
+        createOps.stage("outbox").run(id, items, () ->
+                outbox.enqueue(Topics.ORDER_CREATED, saved.getId(), OrderMapper.toCreatedEvent(saved)));
+        aggregates.created(List.of(saved));
 
+        createOps.commit().track(id, items);
         return saved;
     }
 
+    /**
+     * Creates a chunk of already-validated orders in one transaction using JDBC batches for customers,
+     * headers, items and outbox rows (four round-trips regardless of chunk size).
+     *
+     * @return created order ids, in request order
+     */
+    @Transactional
+    public List<UUID> createAll(List<CreateOrderRequest> requests) {
+        List<Order> batch = new ArrayList<>(requests.size());
+        List<OutboxWriter.Event> events = new ArrayList<>(requests.size());
+        SortedSet<UUID> customerIds = new TreeSet<>();
+        for (CreateOrderRequest r : requests) {
+            Order order = OrderMapper.toEntity(r);
+            batch.add(order);
+            readYourWrites.written(order.getId());
+            events.add(new OutboxWriter.Event(Topics.ORDER_CREATED, order.getId(), OrderMapper.toCreatedEvent(order)));
+            customerIds.add(order.getCustomerId());
+        }
+
+        batchOps.stage("customer").run(() -> customers.ensureAllExist(customerIds));
+        batchOps.stage("insert").run(() -> bulk.insert(batch));
+        batchOps.stage("outbox").run(() -> outbox.enqueueAll(events));
+        aggregates.created(batch);
+        batchOps.commit().track();
+        return batch.stream().map(Order::getId).toList();
+    }
+
+    /**
+     * Cached read for GET by id. Deliberately not {@code @Transactional}: a hit must not borrow a connection,
+     * so only the load opens a transaction.
+     */
+    public OrderResponse getResponse(UUID id) {
+        return cache.get(id, orderId -> readOnly.execute(s -> OrderMapper.toResponse(get(orderId))));
+    }
+
+    /**
+     * Loads an order with its items. A v7 id carries the order's creation time, so the lookup is bounded to the
+     * partition(s) around it; older v4 ids fall back to probing every partition. With a replica configured, an
+     * order this instance wrote moments ago is read from the primary.
+     */
+    @Transactional(readOnly = true)
     public Order get(UUID id) {
-        return orders.findById(id).orElseThrow(() -> new RuntimeException("Order not found: " + id));
+        var found = readYourWrites.read(id, () -> OrderIds.createdAt(id)
+                .map(t -> orders.findWithItemsByIdCreatedBetween(id, t.minus(ID_TIME_SLACK), t.plus(ID_TIME_SLACK)))
+                .orElseGet(() -> orders.findWithItemsById(id)));
+        return found.orElseThrow(() -> new RuntimeException("Order not found: " + id));
     }
 
-    public Page<Order> list(OrderStatus status, Pageable pageable) {
-        if (status == null) return orders.findAll(pageable);
-        return orders.findByStatus(status, pageable);
+    /**
+     * OFFSET page of orders. Only {@link CountMode#EXACT} runs {@code count(*)}; the other modes read one page.
+     */
+    @Transactional(readOnly = true)
+    public OrderSlice list(OrderStatus status, Pageable pageable, CountMode count, OrderView view) {
+        Slice<Order> page;
+        if (count == CountMode.EXACT) {
+            page = status == null ? orders.findAll(pageable) : orders.findByStatus(status, pageable);
+        } else {
+            page = status == null ? orders.findSliceBy(pageable) : orders.findSliceByStatus(status, pageable);
+        }
+        if (view == OrderView.FULL) loadItems(page.getContent());
+
+        String next = null;
+        if (page.hasNext()) {
+            next = OrderCursor.of(page.getContent().get(page.getNumberOfElements() - 1)).encode();
+        }
+        // Page skips its count(*) when this page alone shows the total
+        Long total = page instanceof Page<Order> counted ? counted.getTotalElements() : total(status, count);
+        return new OrderSlice(page.getContent(), next, total);
+    }
+
+    /**
+     * Keyset page of orders, newest first, starting after {@code after} (or from the top when null).
+     */
+    @Transactional(readOnly = true)
+    public OrderSlice list(OrderStatus status, OrderCursor after, int size, CountMode count, OrderView view) {
+        int limit = size + 1;
+        List<Order> rows;
+        if (status == null) {
+            rows = after == null
+                    ? orders.findFirstPage(limit)
+                    : orders.findPageAfter(after.createdAt(), after.id(), limit);
+        } else {
+            rows = after == null
+                    ? orders.findFirstPageByStatus(status.name(), limit)
+                    : orders.findPageByStatusAfter(status.name(), after.createdAt(), after.id(), limit);
+        }
+
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            next = OrderCursor.of(rows.get(size - 1)).encode();
+        }
+        if (view == OrderView.FULL) loadItems(rows);
+
+        return new OrderSlice(rows, next, total(status, count));
+    }
+
+    private Long total(OrderStatus status, CountMode count) {
+        return switch (count) {
+            case EXACT -> status == null ? orders.count() : orders.countByStatus(status);
+            case ESTIMATED -> estimator.estimate(status);
+            case NONE -> null;
+        };
+    }
+
+    private static void loadItems(List<Order> page) {
+        // the first initialization batch-loads every pending collection in the page (@BatchSize on Order.items)
+        for (Order o : page) {
+            Hibernate.initialize(o.getItems());
+        }
     }
 
     @Transactional
     public Order cancel(UUID id) {
-        Order o = get(id);
-        if (o.getStatus() == OrderStatus.CANCELLED || o.getStatus() == OrderStatus.FULFILLED || o.getStatus() == OrderStatus.REFUNDED) {
-            throw new IllegalStateException("Cannot cancel order in status: " + o.getStatus());
+        return transition(id, OrderStatus.CANCELLED, null);
+    }
+
+    @Transactional
+    public Order pay(UUID id) {
+        return transition(id, OrderStatus.PAID, null);
+    }
+
+    @Transactional
+    public Order fulfill(UUID id) {
+        return transition(id, OrderStatus.FULFILLED, null);
+    }
+
+    @Transactional
+    public Order refund(UUID id) {
+        return transition(id, OrderStatus.REFUNDED, null);
+    }
+
+    /**
+     * Moves an order to {@code target} with one conditional UPDATE (plus one SELECT when it matches nothing, to
+     * tell the two failures apart). Allowed moves come from {@link OrderStatus#reachableFrom}.
+     *
+     * @param expectedVersion if not null, the transition also requires the order's current version
+     * @throws IllegalStateException if the order's status does not allow the move or its version differs
+     */
+    @Transactional
+    public Order transition(UUID id, OrderStatus target, Long expectedVersion) {
+        OrderMetrics.Operation ops = transitionOps.get(target);
+        if (ops == null) throw new IllegalArgumentException("Orders cannot move to " + target);
+
+        Optional<OffsetDateTime> idTime = OrderIds.createdAt(id);
+        OffsetDateTime from = idTime.map(t -> t.minus(ID_TIME_SLACK)).orElse(null);
+        OffsetDateTime to = idTime.map(t -> t.plus(ID_TIME_SLACK)).orElse(null);
+        OrderTransitions.Moved result = ops.stage("update")
+                .record(id, 0, () -> transitions.transition(id, target, expectedVersion, from, to))
+                .orElseThrow(() -> rejected(id, target, expectedVersion, from, to));
+        Order moved = result.order();
+        readYourWrites.written(id);
+        cache.evictAfterCommit(id);
+        aggregates.moved(moved, result.from());
+
+        int items = moved.getItems().size();
+        if (target == OrderStatus.CANCELLED) {
+            ops.stage("outbox").run(id, items, () -> outbox.enqueue(Topics.ORDER_CANCELLED, moved.getId(),
+                    new OrderCancelledEvent(
+                            "order.cancelled",
+                            "v1",
+                            moved.getId(),
+                            moved.getUpdatedAt(),
+                            null
+                    )));
+        }
+
+        ops.commit().track(id, items);
+        return moved;
+    }
+
+    /**
+     * Applies a batch of reported status changes, one per order, with a single statement (plus one outbox batch
+     * for the cancellations among them). Changes whose order is not in one of their {@code from} statuses are
+     * left alone and reported back with the order's current status, so applying the same batch twice changes
+     * nothing the second time.
+     *
+     * @return one result per change, in no particular order
+     */
+    @Transactional
+    public List<OrderTransitions.Result> applyAll(List<StatusChange> changes) {
+        Map<UUID, StatusChange> byId = new HashMap<>(changes.size() * 2);
+        List<OrderTransitions.Change> batch = new ArrayList<>(changes.size());
+        for (StatusChange c : changes) {
+            byId.put(c.orderId(), c);
+            Optional<OffsetDateTime> idTime = OrderIds.createdAt(c.orderId());
+            batch.add(new OrderTransitions.Change(c.orderId(), c.target(), c.from(),
+                    idTime.map(t -> t.minus(ID_TIME_SLACK)).orElse(null),
+                    idTime.map(t -> t.plus(ID_TIME_SLACK)).orElse(null)));
         }
-        o.setStatus(OrderStatus.CANCELLED);
-        Order saved = orders.save(o);
-
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                try {
-                    events.publish(Topics.ORDER_CANCELLED, saved.getId().toString(),
-                            new OrderCancelledEvent(
-                                    "order.cancelled",
-                                    "v1",
-                                    saved.getId(),
-                                    OffsetDateTime.now(),
-                                    null
-                            ));
-                } catch (RuntimeException e) {
-                    log.error("Failed to publish ORDER_CANCELLED event for order {}: {}", saved.getId(), e.getMessage(), e);
-                }
+        List<OrderTransitions.Result> results = statusEventOps.stage("update")
+                .record(() -> transitions.transitionAll(batch));
+
+        List<OrderTransitions.Moved> moves = new ArrayList<>();
+        List<OutboxWriter.Event> events = new ArrayList<>();
+        for (OrderTransitions.Result r : results) {
+            if (r.moved() == null) continue;
+            Order moved = r.moved().order();
+            moves.add(r.moved());
+            readYourWrites.written(moved.getId());
+            if (moved.getStatus() == OrderStatus.CANCELLED) {
+                events.add(new OutboxWriter.Event(Topics.ORDER_CANCELLED, moved.getId(), new OrderCancelledEvent(
+                        "order.cancelled",
+                        "v1",
+                        moved.getId(),
+                        moved.getUpdatedAt(),
+                        byId.get(moved.getId()).reason()
+                )));
             }
-        });
+        }
+        cache.evictAllAfterCommit(moves.stream().map(m -> m.order().getId()).toList());
+        aggregates.moved(moves);
+        if (!events.isEmpty()) statusEventOps.stage("outbox").run(() -> outbox.enqueueAll(events));
 
-        return saved;
+        statusEventOps.commit().track();
+        return results;
+    }
+
+    private RuntimeException rejected(UUID id, OrderStatus target, Long expectedVersion,
+                                      OffsetDateTime from, OffsetDateTime to) {
+        OrderTransitions.Current current = transitions.current(id, from, to)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + id));
+        if (!current.status().canMoveTo(target)) {
+            return new IllegalStateException("Cannot move order " + id + " from " + current.status() + " to " + target);
+        }
+        return new IllegalStateException("Order " + id + " is at version " + current.version()
+                + ", expected " + expectedVersion);
     }
 }
@@ -0,0 +1,10 @@
+package com.minicommerce.orders.service;
+
+import com.minicommerce.orders.domain.Order;
+
+import java.util.List;
+
+/**
+ * One page of a listing. {@code nextCursor} is null on the last page; {@code totalElements} is null when not requested.
+ */
+public record OrderSlice(List<Order> content, String nextCursor, Long totalElements) { }
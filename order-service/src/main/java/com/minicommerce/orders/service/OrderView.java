@@ -0,0 +1,6 @@
+package com.minicommerce.orders.service;
+
+/**
+ * How much of an order a read loads: {@code SUMMARY} never touches {@code order_items}.
+ */
+public enum OrderView { FULL, SUMMARY }
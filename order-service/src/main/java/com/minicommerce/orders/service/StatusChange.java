@@ -0,0 +1,12 @@
+package com.minicommerce.orders.service;
+
+import com.minicommerce.orders.domain.OrderStatus;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A status change another service reported for one order: move it to {@code target} if it is in one of
+ * {@code from}. {@code reason} ends up in {@code order.cancelled} when the target is {@link OrderStatus#CANCELLED}.
+ */
+public record StatusChange(UUID orderId, OrderStatus target, Set<OrderStatus> from, String reason) { }
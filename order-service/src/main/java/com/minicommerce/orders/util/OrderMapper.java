@@ -1,15 +1,24 @@
 package com.minicommerce.orders.util;
 
+import com.minicommerce.orders.domain.Money;
 import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderIds;
 import com.minicommerce.orders.domain.OrderItem;
+import com.minicommerce.orders.events.OrderCreatedEvent;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
 import com.minicommerce.orders.web.dto.OrderItemResponse;
 import com.minicommerce.orders.web.dto.OrderResponse;
+import com.minicommerce.orders.web.dto.OrderSummaryResponse;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public final class OrderMapper {
+    // largest value of orders.total, NUMERIC(12,2)
+    private static final Money MAX_TOTAL = Money.ofMinor(999_999_999_999L);
+
     private OrderMapper() {}
 
     public static OrderResponse toResponse(Order order) {
@@ -28,8 +37,81 @@ public final class OrderMapper {
         );
     }
 
+    /**
+     * New, not yet persisted order with fresh ids and the computed total.
+     */
+    public static Order toEntity(CreateOrderRequest orderRequest) {
+        Order order = new Order();
+        order.setId(OrderIds.newId(order.getCreatedAt()));
+        order.setCustomerId(orderRequest.customerId());
+        order.setCurrency(orderRequest.currency());
+
+        for (OrderItemRequest itemRequest : orderRequest.items()) {
+            OrderItem item = new OrderItem();
+            item.setId(UUID.randomUUID());
+            item.setSku(itemRequest.sku());
+            item.setName(itemRequest.name());
+            item.setQuantity(itemRequest.quantity());
+            item.setUnitPrice(itemRequest.unitPrice());
+            order.addItem(item);
+        }
+        order.setTotal(total(orderRequest.items()));
+        return order;
+    }
+
+    /**
+     * Sum of {@code unitPrice * quantity} over all lines.
+     *
+     * @throws ArithmeticException if it is larger than {@code orders.total} (NUMERIC(12,2)) can hold
+     */
+    public static Money total(List<OrderItemRequest> items) {
+        long total = 0;
+        try {
+            for (OrderItemRequest itemRequest : items) {
+                total = Math.addExact(total, Math.multiplyExact(itemRequest.unitPrice().minorUnits(), itemRequest.quantity()));
+            }
+        } catch (ArithmeticException e) {
+            total = Long.MAX_VALUE;
+        }
+        if (total > MAX_TOTAL.minorUnits()) {
+            throw new ArithmeticException("Order total exceeds " + MAX_TOTAL);
+        }
+        return Money.ofMinor(total);
+    }
+
+    public static OrderCreatedEvent toCreatedEvent(Order order) {
+        var items = order.getItems().stream()
+                .map(i -> new OrderCreatedEvent.Item(i.getSku(), i.getName(), i.getQuantity(), i.getUnitPrice()))
+                .toList();
+        return new OrderCreatedEvent(
+                "order.created",
+                "v1",
+                order.getId(),
+                order.getCustomerId(),
+                order.getCurrency(),
+                order.getTotal(),
+                order.getCreatedAt(),
+                items
+        );
+    }
+
+    public static OrderSummaryResponse toSummary(Order order) {
+        return new OrderSummaryResponse(
+                order.getId(),
+                order.getCustomerId(),
+                order.getStatus().name().toLowerCase(),
+                order.getCurrency(),
+                order.getTotal(),
+                order.getCreatedAt(),
+                order.getUpdatedAt()
+        );
+    }
+
+    public static OrderItemResponse toItemResponse(UUID id, String sku, String name, int quantity, Money unitPrice) {
+        return new OrderItemResponse(id, sku, name, quantity, unitPrice, unitPrice.times(quantity));
+    }
+
     private static OrderItemResponse toItem(OrderItem it) {
-        BigDecimal line = it.getUnitPrice().multiply(BigDecimal.valueOf(it.getQuantity()));
-        return new OrderItemResponse(it.getId(), it.getSku(), it.getName(), it.getQuantity(), it.getUnitPrice(), line);
+        return toItemResponse(it.getId(), it.getSku(), it.getName(), it.getQuantity(), it.getUnitPrice());
     }
 }
@@ -0,0 +1,167 @@
+package com.minicommerce.orders.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.minicommerce.orders.service.OrderBatchProperties;
+import com.minicommerce.orders.service.OrderService;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.BatchItemResult;
+import com.minicommerce.orders.web.dto.BatchResponse;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk ingestion: accepts a JSON array or NDJSON stream of {@link CreateOrderRequest}, parses and validates it
+ * one order at a time, and writes valid orders in chunked transactions. Invalid entries are reported per index
+ * and do not affect the others.
+ */
+@RestController
+public class OrderBatchController {
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchController.class);
+    private static final String CHUNK_FAILED = "Not created: the chunk this order was written with failed";
+
+    private final OrderService orderService;
+    private final OrderBatchProperties props;
+    private final Validator validator;
+    private final ObjectReader reader;
+
+    public OrderBatchController(OrderService orderService, OrderBatchProperties props,
+                                Validator validator, ObjectMapper mapper) {
+        this.orderService = orderService;
+        this.props = props;
+        this.validator = validator;
+        this.reader = mapper.readerFor(CreateOrderRequest.class);
+    }
+
+    @PostMapping(path = "/api/v1/orders:batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BatchResponse ingest(HttpServletRequest request) throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        Chunk chunk = new Chunk(props.chunkSize());
+        int index = 0;
+
+        // readValues handles both a top-level array and whitespace/newline separated documents
+        try (InputStream in = request.getInputStream();
+             MappingIterator<CreateOrderRequest> it = reader.readValues(in)) {
+            while (true) {
+                CreateOrderRequest order;
+                try {
+                    if (!it.hasNextValue()) break;
+                    order = it.nextValue();
+                } catch (JsonMappingException e) {
+                    // well-formed but wrong shape: skip just this document
+                    results.add(BatchItemResult.rejected(index++, e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // malformed JSON: the stream cannot be resynchronized
+                    results.add(BatchItemResult.rejected(index, "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                if (index >= props.maxOrders()) {
+                    results.add(BatchItemResult.rejected(index, "Batch limit of %d orders exceeded".formatted(props.maxOrders())));
+                    break;
+                }
+
+                String violation = firstViolation(order);
+                if (violation != null) {
+                    results.add(BatchItemResult.rejected(index++, violation));
+                    continue;
+                }
+
+                chunk.add(index++, order);
+                if (chunk.isFull()) flush(chunk, results);
+            }
+        }
+        flush(chunk, results);
+
+        results.sort(Comparator.comparingInt(BatchItemResult::index));
+        int created = 0, rejected = 0, failed = 0;
+        for (BatchItemResult r : results) {
+            switch (r.status()) {
+                case "created" -> created++;
+                case "rejected" -> rejected++;
+                default -> failed++;
+            }
+        }
+        return new BatchResponse(index, created, rejected, failed, results);
+    }
+
+    private void flush(Chunk chunk, List<BatchItemResult> results) {
+        if (chunk.orders.isEmpty()) return;
+        try {
+            List<UUID> ids = orderService.createAll(chunk.orders);
+            for (int i = 0; i < ids.size(); i++) {
+                results.add(BatchItemResult.created(chunk.indexes.get(i), ids.get(i)));
+            }
+        } catch (RuntimeException e) {
+            log.error("Batch chunk of {} orders failed: {}", chunk.orders.size(), e.getMessage(), e);
+            // the cause is in the log; it may name another order of the chunk or the database's internals
+            for (Integer i : chunk.indexes) {
+                results.add(BatchItemResult.failed(i, CHUNK_FAILED));
+            }
+        }
+        chunk.clear();
+    }
+
+    /**
+     * The first constraint violation, or a total too large to store, which would otherwise fail the whole chunk.
+     */
+    private String firstViolation(CreateOrderRequest order) {
+        Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<CreateOrderRequest> v = violations.iterator().next();
+            return v.getPropertyPath() + " " + v.getMessage();
+        }
+        try {
+            OrderMapper.total(order.items());
+            return null;
+        } catch (ArithmeticException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static final class Chunk {
+        private final int capacity;
+        private final List<Integer> indexes;
+        private final List<CreateOrderRequest> orders;
+
+        Chunk(int capacity) {
+            this.capacity = capacity;
+            this.indexes = new ArrayList<>(capacity);
+            this.orders = new ArrayList<>(capacity);
+        }
+
+        void add(int index, CreateOrderRequest order) {
+            indexes.add(index);
+            orders.add(order);
+        }
+
+        boolean isFull() {
+            return orders.size() >= capacity;
+        }
+
+        void clear() {
+            indexes.clear();
+            orders.clear();
+        }
+    }
+}
@@ -2,12 +2,21 @@ package com.minicommerce.orders.web;
 
 import com.minicommerce.orders.domain.Order;
 import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.jfr.OrderRequestRecorder;
+import com.minicommerce.orders.service.CountMode;
+import com.minicommerce.orders.service.IdempotencyKeys;
+import com.minicommerce.orders.service.OrderCursor;
 import com.minicommerce.orders.service.OrderService;
+import com.minicommerce.orders.service.OrderSlice;
+import com.minicommerce.orders.service.OrderView;
 import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.admission.Admission;
+import com.minicommerce.orders.web.admission.RouteClass;
 import com.minicommerce.orders.web.dto.*;
+import com.minicommerce.orders.web.json.OrderPage;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,47 +26,114 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/v1/orders")
 public class OrderController {
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final IdempotencyKeys idempotencyKeys;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, IdempotencyKeys idempotencyKeys) {
         this.orderService = orderService;
+        this.idempotencyKeys = idempotencyKeys;
     }
 
+    /**
+     * With an {@code Idempotency-Key}, a retry of the same request gets the first response back (marked
+     * {@code Idempotent-Replayed: true}) instead of creating another order.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponse> create(@RequestBody @Valid CreateOrderRequest orderRequest) {
-        Order created = orderService.create(orderRequest);
-        OrderResponse body = OrderMapper.toResponse(created);
-        return ResponseEntity
-                .created(URI.create("/api/v1/orders/" + created.getId()))
-                .body(body);
+    @Admission(RouteClass.WRITE)
+    public ResponseEntity<OrderResponse> create(@RequestBody @Valid CreateOrderRequest orderRequest,
+                                                @RequestHeader(name = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        OrderRequestRecorder.items(orderRequest.items().size());
+        if (idempotencyKey == null) {
+            Order created = orderService.create(orderRequest);
+            OrderResponse body = OrderMapper.toResponse(created);
+            return ResponseEntity
+                    .created(URI.create("/api/v1/orders/" + created.getId()))
+                    .body(body);
+        }
+        IdempotencyKeys.Result result = idempotencyKeys.create(idempotencyKey, orderRequest);
+        var response = ResponseEntity.created(URI.create("/api/v1/orders/" + result.response().id()));
+        if (result.replayed()) response.header(REPLAYED_HEADER, "true");
+        return response.body(result.response());
     }
 
     @GetMapping("/{id}")
+    @Admission(RouteClass.READ)
     public OrderResponse get(@PathVariable UUID id) {
-        return OrderMapper.toResponse(orderService.get(id));
+        return orderService.getResponse(id);
     }
 
+    /**
+     * OFFSET pages ({@code page}, default 0) unless a {@code cursor} from a previous response's {@code nextCursor}
+     * selects keyset mode, which leaves {@code page}/{@code totalPages} null. Totals are exact by default;
+     * {@code count=estimated} or {@code count=none} skips the {@code count(*)}.
+     * {@code view=summary} returns headers only and never reads order items.
+     */
     @GetMapping
-    public PageResponse<OrderResponse> list(
+    @Admission(RouteClass.READ)
+    public OrderPage list(
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(defaultValue = "full") String view
     ) {
         OrderStatus orderStatus = null;
 
         if (status != null) {
             orderStatus = OrderStatus.valueOf(status.toUpperCase());
         }
+        size = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        CountMode countMode = CountMode.valueOf(count.toUpperCase());
+        OrderView orderView = OrderView.valueOf(view.toUpperCase());
 
-        Page<Order> orders = orderService.list(orderStatus, PageRequest.of(page, size));
-        return new PageResponse<>(
-                orders.map(OrderMapper::toResponse).getContent(),
-                orders.getNumber(), orders.getSize(), orders.getTotalElements(), orders.getTotalPages()
+        if (cursor == null || cursor.isBlank()) {
+            PageRequest pageable = PageRequest.of(Math.max(page, 0), size, NEWEST_FIRST);
+            OrderSlice orders = orderService.list(orderStatus, pageable, countMode, orderView);
+            Long total = orders.totalElements();
+            Integer totalPages = total == null ? null : (int) ((total + size - 1) / size);
+            return new OrderPage(
+                    orders.content(), orderView,
+                    pageable.getPageNumber(), size, total, totalPages, orders.nextCursor()
+            );
+        }
+
+        OrderSlice slice = orderService.list(orderStatus, OrderCursor.decode(cursor), size, countMode, orderView);
+        return new OrderPage(
+                slice.content(), orderView,
+                null, size, slice.totalElements(), null, slice.nextCursor()
         );
     }
 
+    /**
+     * Status transitions. Each is one conditional UPDATE; a move the current status does not allow is a 409.
+     */
     @PatchMapping("/{id}/cancel")
+    @Admission(RouteClass.WRITE)
     public OrderResponse cancel(@PathVariable UUID id) {
         return OrderMapper.toResponse(orderService.cancel(id));
     }
+
+    @PatchMapping("/{id}/pay")
+    @Admission(RouteClass.WRITE)
+    public OrderResponse pay(@PathVariable UUID id) {
+        return OrderMapper.toResponse(orderService.pay(id));
+    }
+
+    @PatchMapping("/{id}/fulfill")
+    @Admission(RouteClass.WRITE)
+    public OrderResponse fulfill(@PathVariable UUID id) {
+        return OrderMapper.toResponse(orderService.fulfill(id));
+    }
+
+    @PatchMapping("/{id}/refund")
+    @Admission(RouteClass.WRITE)
+    public OrderResponse refund(@PathVariable UUID id) {
+        return OrderMapper.toResponse(orderService.refund(id));
+    }
 }
@@ -0,0 +1,62 @@
+package com.minicommerce.orders.web;
+
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.service.OrderExporter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk extract for reporting: every matching order as one NDJSON line, oldest first, streamed as it is read.
+ * Gzip is applied when the client sends {@code Accept-Encoding: gzip}.
+ */
+@RestController
+public class OrderExportController {
+    private static final Logger log = LoggerFactory.getLogger(OrderExportController.class);
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final OrderExporter exporter;
+
+    public OrderExportController(OrderExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @GetMapping("/api/v1/orders/export")
+    public void export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        // validate before the response is committed to NDJSON, so errors still render as ApiError
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        OrderStatus orderStatus = status == null ? null : OrderStatus.valueOf(status.toUpperCase());
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.ndjson\"");
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER) : response.getOutputStream();
+        long started = System.nanoTime();
+        long written = exporter.export(from, to, orderStatus, out);
+        out.close();
+        log.info("Exported {} orders (from={}, to={}, status={}) in {} ms",
+                written, from, to, orderStatus, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,55 @@
+package com.minicommerce.orders.web;
+
+import com.minicommerce.orders.aggregates.OrderAggregates;
+import com.minicommerce.orders.aggregates.OrderAggregatesProperties;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.web.admission.Admission;
+import com.minicommerce.orders.web.admission.RouteClass;
+import com.minicommerce.orders.web.dto.OrderStatsResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Dashboard figures from {@code order_daily_aggregates}: a few rows per day of the range, whatever the number of
+ * orders. At most {@code orders.aggregates.flush-interval} behind the orders themselves.
+ */
+@RestController
+public class OrderStatsController {
+    private static final int DEFAULT_DAYS = 7;
+
+    private final OrderAggregates aggregates;
+    private final OrderAggregatesProperties props;
+
+    public OrderStatsController(OrderAggregates aggregates, OrderAggregatesProperties props) {
+        this.aggregates = aggregates;
+        this.props = props;
+    }
+
+    /**
+     * Days are UTC days of the orders' creation; {@code to} defaults to today and {@code from} to six days before it.
+     */
+    @GetMapping("/api/v1/orders/stats")
+    @Admission(RouteClass.READ)
+    public OrderStatsResponse stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) String status
+    ) {
+        LocalDate last = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate first = from != null ? from : last.minusDays(DEFAULT_DAYS - 1);
+        if (first.isAfter(last)) throw new IllegalArgumentException("'from' must not be after 'to'");
+        if (ChronoUnit.DAYS.between(first, last) >= props.maxRangeDays()) {
+            throw new IllegalArgumentException("At most " + props.maxRangeDays() + " days per request");
+        }
+        String currencyCode = currency == null ? null : currency.toUpperCase();
+        OrderStatus orderStatus = status == null ? null : OrderStatus.valueOf(status.toUpperCase());
+        return aggregates.stats(first, last, currencyCode, orderStatus);
+    }
+}
@@ -0,0 +1,131 @@
+package com.minicommerce.orders.web.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit that follows latency, after Netflix's gradient limiter. Completed requests are averaged
+ * over windows of {@link #WINDOW} samples. Each window's average (the short RTT) is compared with a baseline
+ * (the long RTT), the latency of requests that did not queue:
+ * <pre>
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)
+ *   estimate = limit * gradient + sqrt(limit)
+ *   limit    = limit + smoothing * (estimate - limit), within [min, max]
+ * </pre>
+ * While latency stays within {@code tolerance} of the baseline, the gradient is 1 and the limit grows by about
+ * {@code sqrt(limit)} per window. When requests queue (on the Hikari pool, on row locks, in Postgres), latency
+ * rises and the limit shrinks towards what completes at baseline latency. A window with a 5xx response cuts the
+ * limit by {@link #BACKOFF} at once, whatever the latency. The limit only grows while at least half of it is in
+ * use, so an idle period does not inflate it.
+ * <p>
+ * Unlike Gradient2, whose baseline is a moving average of all windows, the baseline here only moves up from
+ * windows that cannot contain queueing: when the limit is less than half used, or already at its minimum.
+ * Otherwise sustained overload would become the new baseline within a few thousand requests and the limit would
+ * climb back to where it collapses.
+ * <p>
+ * {@link #tryAcquire} is a CAS on the in-flight count. Samples are folded in under a lock that is only held for
+ * arithmetic.
+ */
+class AdaptiveLimit {
+    static final int WINDOW = 10;
+    static final double BACKOFF = 0.9;
+    // weight of a window when the baseline moves: it follows a lasting change within a few dozen windows
+    private static final double BASELINE_WEIGHT = 0.1;
+
+    private final AdmissionProperties.Limit config;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double limit;
+    private volatile double shortRttNanos = Double.NaN;
+    private volatile double longRttNanos = Double.NaN;
+    // guarded by lock
+    private long windowRttSum;
+    private int windowSamples;
+    private boolean windowFailed;
+
+    AdaptiveLimit(AdmissionProperties.Limit config, double smoothing) {
+        this.config = config;
+        this.smoothing = smoothing;
+        this.limit = config.initial();
+    }
+
+    /**
+     * @return true if the request may start; it must then call {@link #release} exactly once
+     */
+    boolean tryAcquire() {
+        int max = limit();
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= max) return false;
+        } while (!inFlight.compareAndSet(current, current + 1));
+        peakInFlight.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    /**
+     * @param rttNanos time from {@link #tryAcquire} to completion
+     * @param failed   the request ended in a server error, e.g. no database connection in time
+     */
+    void release(long rttNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        lock.lock();
+        try {
+            windowRttSum += rttNanos;
+            windowFailed |= failed;
+            if (++windowSamples < WINDOW) return;
+            update((double) windowRttSum / windowSamples, windowFailed, peakInFlight.getAndSet(inFlight.get()));
+            windowRttSum = 0;
+            windowSamples = 0;
+            windowFailed = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    double shortRttNanos() {
+        return shortRttNanos;
+    }
+
+    double longRttNanos() {
+        return longRttNanos;
+    }
+
+    private void update(double rtt, boolean failed, int peak) {
+        double current = limit;
+        boolean busy = peak >= current / 2;
+        double baseline = longRttNanos;
+        if (Double.isNaN(baseline)) {
+            baseline = rtt;
+        } else if (rtt < baseline || !busy || current <= config.min()) {
+            // while busy above the minimum, latency over the baseline is queueing and must not become the new
+            // normal; it may rise only when the limit cannot shrink further (the work itself got slower)
+            baseline += (rtt - baseline) * BASELINE_WEIGHT;
+        }
+        shortRttNanos = rtt;
+        longRttNanos = baseline;
+
+        double next;
+        if (failed) {
+            next = current * BACKOFF;
+        } else if (!busy) {
+            return;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, config.tolerance() * baseline / rtt));
+            double estimate = current * gradient + Math.sqrt(current);
+            next = current + smoothing * (estimate - current);
+        }
+        limit = Math.max(config.min(), Math.min(config.max(), next));
+    }
+}
@@ -0,0 +1,16 @@
+package com.minicommerce.orders.web.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method behind the adaptive concurrency limit of its {@link RouteClass}. Unannotated handlers are
+ * not limited.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+    RouteClass value();
+}
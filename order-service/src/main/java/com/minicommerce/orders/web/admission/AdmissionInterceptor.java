@@ -0,0 +1,93 @@
+package com.minicommerce.orders.web.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control for handlers marked {@link Admission}: a request runs only if its {@link RouteClass} is under
+ * its {@link AdaptiveLimit}, otherwise it fails at once with {@link AdmissionRejectedException} (503 with
+ * {@code Retry-After}), before the body is read or a connection is taken. Rejecting the excess early keeps
+ * latency for the admitted requests near normal, instead of letting every request queue on the Tomcat and Hikari
+ * pools until all of them time out.
+ * <p>
+ * Metrics per {@code route} (read, write): {@code orders.admission.limit}, {@code orders.admission.in-flight},
+ * {@code orders.admission.rtt{window=short|long}} and {@code orders.admission.requests{outcome=admitted|rejected}}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionInterceptor implements HandlerInterceptor {
+    private static final String STARTED = AdmissionInterceptor.class.getName() + ".started";
+
+    private final AdmissionProperties props;
+    private final Map<RouteClass, AdaptiveLimit> limits = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> admitted = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+
+    public AdmissionInterceptor(AdmissionProperties props, MeterRegistry registry) {
+        this.props = props;
+        for (RouteClass route : RouteClass.values()) {
+            AdaptiveLimit limit = new AdaptiveLimit(props.limit(route), props.smoothing());
+            limits.put(route, limit);
+            String tag = route.name().toLowerCase();
+            Gauge.builder("orders.admission.limit", limit, AdaptiveLimit::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("route", tag)
+                    .register(registry);
+            Gauge.builder("orders.admission.in-flight", limit, AdaptiveLimit::inFlight)
+                    .description("Admitted requests still running")
+                    .tag("route", tag)
+                    .register(registry);
+            Gauge.builder("orders.admission.rtt", limit, l -> l.shortRttNanos() / 1e9)
+                    .description("Mean latency of the last sample window")
+                    .tags("route", tag, "window", "short")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("orders.admission.rtt", limit, l -> l.longRttNanos() / 1e9)
+                    .description("Baseline latency the limit is adjusted against")
+                    .tags("route", tag, "window", "long")
+                    .baseUnit("seconds")
+                    .register(registry);
+            admitted.put(route, registry.counter("orders.admission.requests", "route", tag, "outcome", "admitted"));
+            rejected.put(route, registry.counter("orders.admission.requests", "route", tag, "outcome", "rejected"));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RouteClass route = routeClass(handler);
+        if (route == null) return true;
+        AdaptiveLimit limit = limits.get(route);
+        if (!limit.tryAcquire()) {
+            rejected.get(route).increment();
+            throw new AdmissionRejectedException(route, limit.limit(), props.retryAfter());
+        }
+        admitted.get(route).increment();
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(STARTED) instanceof Long started)) return;
+        request.removeAttribute(STARTED);
+        boolean failed = ex != null || response.getStatus() >= 500;
+        limits.get(routeClass(handler)).release(System.nanoTime() - started, failed);
+    }
+
+    private static RouteClass routeClass(Object handler) {
+        if (!(handler instanceof HandlerMethod method)) return null;
+        Admission admission = method.getMethodAnnotation(Admission.class);
+        return admission == null ? null : admission.value();
+    }
+}
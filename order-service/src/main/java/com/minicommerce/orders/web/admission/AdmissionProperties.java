@@ -0,0 +1,52 @@
+package com.minicommerce.orders.web.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limits in front of the order endpoints ({@link AdmissionInterceptor}).
+ *
+ * @param retryAfter what rejected clients are told to wait ({@code Retry-After}, whole seconds, at least 1)
+ * @param smoothing  how far each adjustment moves the limit towards its new estimate, 0 (never) to 1 (at once)
+ */
+@ConfigurationProperties(prefix = "orders.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("0.2") double smoothing,
+        @DefaultValue Limit reads,
+        @DefaultValue Limit writes
+) {
+    public AdmissionProperties {
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("orders.admission.smoothing must be in (0, 1]");
+        }
+    }
+
+    public Limit limit(RouteClass routeClass) {
+        return routeClass == RouteClass.READ ? reads : writes;
+    }
+
+    /**
+     * @param initial   concurrency allowed before any latency has been observed
+     * @param tolerance how much the recent latency may exceed the long-term baseline before the limit shrinks
+     *                  (2.0: up to twice the baseline is still healthy)
+     */
+    public record Limit(
+            @DefaultValue("20") int initial,
+            @DefaultValue("4") int min,
+            @DefaultValue("200") int max,
+            @DefaultValue("2.0") double tolerance
+    ) {
+        public Limit {
+            if (min < 1 || min > initial || initial > max) {
+                throw new IllegalArgumentException("orders.admission limits need 1 <= min <= initial <= max");
+            }
+            if (tolerance < 1) {
+                throw new IllegalArgumentException("orders.admission tolerance must be at least 1");
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.minicommerce.orders.web.admission;
+
+import java.time.Duration;
+
+/**
+ * The route class was at its concurrency limit; the request was not started.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    private final RouteClass routeClass;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(RouteClass routeClass, int limit, Duration retryAfter) {
+        super("Too many concurrent order " + routeClass.name().toLowerCase() + "s (limit " + limit + "), retry later");
+        this.routeClass = routeClass;
+        this.retryAfter = retryAfter;
+    }
+
+    public RouteClass routeClass() {
+        return routeClass;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package com.minicommerce.orders.web.admission;
+
+/**
+ * Endpoints that share a concurrency limit. Reads and writes are limited separately, so slow writes (row locks,
+ * WAL, the outbox) cannot use up the capacity reads need, and the other way around.
+ */
+public enum RouteClass { READ, WRITE }
@@ -0,0 +1,25 @@
+package com.minicommerce.orders.web.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome for one entry of a batch request; {@code index} is its zero-based position in the input.
+ */
+public record BatchItemResult(
+        int index,
+        String status,
+        UUID orderId,
+        String error
+) {
+    public static BatchItemResult created(int index, UUID orderId) {
+        return new BatchItemResult(index, "created", orderId, null);
+    }
+
+    public static BatchItemResult rejected(int index, String error) {
+        return new BatchItemResult(index, "rejected", null, error);
+    }
+
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, "failed", null, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.minicommerce.orders.web.dto;
+
+import java.util.List;
+
+public record BatchResponse(
+        int received,
+        int created,
+        int rejected,
+        int failed,
+        List<BatchItemResult> results
+) { }
@@ -1,7 +1,6 @@
 package com.minicommerce.orders.web.dto;
 
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
@@ -1,11 +1,11 @@
 package com.minicommerce.orders.web.dto;
 
+import com.minicommerce.orders.domain.Money;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 
 public record OrderItemRequest(
         @NotBlank String sku,
         @NotBlank String name,
         @NotNull @Positive Integer quantity,
-        @NotNull @DecimalMin(value="0.0", inclusive=true) BigDecimal unitPrice
+        @NotNull @DecimalMin(value="0.0", inclusive=true) Money unitPrice
 ) { }
@@ -1,6 +1,7 @@
 package com.minicommerce.orders.web.dto;
 
-import java.math.BigDecimal;
+import com.minicommerce.orders.domain.Money;
+
 import java.util.UUID;
 
 public record OrderItemResponse(
@@ -8,6 +9,6 @@ public record OrderItemResponse(
         String sku,
         String name,
         Integer quantity,
-        BigDecimal unitPrice,
-        BigDecimal lineTotal
+        Money unitPrice,
+        Money lineTotal
 ) { }
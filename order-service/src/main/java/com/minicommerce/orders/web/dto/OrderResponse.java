@@ -1,6 +1,7 @@
 package com.minicommerce.orders.web.dto;
 
-import java.math.BigDecimal;
+import com.minicommerce.orders.domain.Money;
+
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -10,7 +11,7 @@ public record OrderResponse(
         UUID customerId,
         String status,
         String currency,
-        BigDecimal total,
+        Money total,
         OffsetDateTime createdAt,
         OffsetDateTime updatedAt,
         List<OrderItemResponse> items
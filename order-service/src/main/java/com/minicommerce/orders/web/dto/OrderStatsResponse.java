@@ -0,0 +1,20 @@
+package com.minicommerce.orders.web.dto;
+
+import com.minicommerce.orders.domain.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Orders by UTC day of creation, currency and current status, plus the same summed over the range.
+ */
+public record OrderStatsResponse(
+        LocalDate from,
+        LocalDate to,
+        List<Day> days,
+        List<Total> totals
+) {
+    public record Day(LocalDate day, String currency, String status, long orders, Money total) { }
+
+    public record Total(String currency, String status, long orders, Money total) { }
+}
@@ -0,0 +1,16 @@
+package com.minicommerce.orders.web.dto;
+
+import com.minicommerce.orders.domain.Money;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record OrderSummaryResponse(
+        UUID id,
+        UUID customerId,
+        String status,
+        String currency,
+        Money total,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt
+) { }
@@ -2,10 +2,16 @@ package com.minicommerce.orders.web.dto;
 
 import java.util.List;
 
+/**
+ * Offset pages fill {@code page}; keyset pages (requested with a {@code cursor}) leave {@code page} and
+ * {@code totalPages} null. {@code totalElements} and {@code totalPages} are null when the caller asked for
+ * {@code count=none}.
+ */
 public record PageResponse<T>(
         List<T> content,
-        int page,
+        Integer page,
         int size,
-        long totalElements,
-        int totalPages
+        Long totalElements,
+        Integer totalPages,
+        String nextCursor
 ) { }
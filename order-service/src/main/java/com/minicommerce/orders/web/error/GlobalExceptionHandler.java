@@ -1,8 +1,15 @@
 package com.minicommerce.orders.web.error;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.minicommerce.orders.web.admission.AdmissionRejectedException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -21,8 +28,22 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.BAD_REQUEST, "Bad Request", msg, req.getRequestURI());
     }
 
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ApiError> handleIllegalArg(IllegalArgumentException ex, HttpServletRequest req) {
+    /**
+     * Unparseable body, including amounts with more precision than the money columns store.
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ApiError> handleUnreadable(HttpMessageNotReadableException ex, HttpServletRequest req) {
+        String msg = ex.getMostSpecificCause() instanceof JsonProcessingException jpe
+                ? jpe.getOriginalMessage()
+                : "Malformed request body";
+        return build(HttpStatus.BAD_REQUEST, "Bad Request", msg, req.getRequestURI());
+    }
+
+    /**
+     * {@link ArithmeticException}: an order total that overflows {@code Money}.
+     */
+    @ExceptionHandler({IllegalArgumentException.class, ArithmeticException.class})
+    public ResponseEntity<ApiError> handleIllegalArg(RuntimeException ex, HttpServletRequest req) {
         return build(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), req.getRequestURI());
     }
 
@@ -31,11 +52,37 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.CONFLICT, "Conflict", ex.getMessage(), req.getRequestURI());
     }
 
+    /**
+     * No database connection within the pool's connection-timeout: the service is saturated, not the order missing.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            TransientDataAccessResourceException.class})
+    public ResponseEntity<ApiError> handleUnavailable(RuntimeException ex, HttpServletRequest req) {
+        return unavailable("Database unavailable or saturated, retry later", 1, req.getRequestURI());
+    }
+
+    /**
+     * Shed by admission control before any work was done, so the request is always safe to retry.
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ApiError> handleRejected(AdmissionRejectedException ex, HttpServletRequest req) {
+        long seconds = Math.max(1, (ex.retryAfter().toMillis() + 999) / 1000);
+        return unavailable(ex.getMessage(), seconds, req.getRequestURI());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiError> handleRuntime(RuntimeException ex, HttpServletRequest req) {
         return build(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), req.getRequestURI());
     }
 
+    private ResponseEntity<ApiError> unavailable(String msg, long retryAfterSeconds, String path) {
+        ApiError body = new ApiError(OffsetDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable", msg, path);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(body);
+    }
+
     private ResponseEntity<ApiError> build(HttpStatus status, String error, String msg, String path) {
         ApiError body = new ApiError(OffsetDateTime.now(), status.value(), error, msg, path);
         return new ResponseEntity<>(body, status);
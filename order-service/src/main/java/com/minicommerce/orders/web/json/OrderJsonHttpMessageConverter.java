@@ -0,0 +1,86 @@
+package com.minicommerce.orders.web.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link OrderResponse} and {@link OrderPage} bodies with {@link OrderJsonWriter} instead of Jackson
+ * databind. Spring Boot puts converter beans ahead of its defaults; everything else (requests, errors, batch
+ * results) still goes through the Jackson converter.
+ * <p>
+ * The writer reproduces Spring Boot's default Jackson output. If {@code spring.jackson.*} changes something it
+ * depends on, the converter stands down and Jackson writes these bodies too.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.json", name = "streaming-writer", havingValue = "true", matchIfMissing = true)
+public class OrderJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    private static final Logger log = LoggerFactory.getLogger(OrderJsonHttpMessageConverter.class);
+
+    private final ObjectMapper mapper;
+    private final boolean compatible;
+
+    public OrderJsonHttpMessageConverter(ObjectMapper mapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.mapper = mapper;
+        this.compatible = compatible(mapper);
+        if (!compatible) {
+            log.warn("spring.jackson settings differ from what OrderJsonWriter reproduces; order bodies use Jackson");
+        }
+    }
+
+    /**
+     * @return whether {@link OrderJsonWriter} output matches {@code mapper}'s for order bodies
+     */
+    static boolean compatible(ObjectMapper mapper) {
+        SerializationConfig config = mapper.getSerializationConfig();
+        JsonInclude.Include inclusion = config.getDefaultPropertyInclusion().getValueInclusion();
+        return !config.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                && !config.isEnabled(SerializationFeature.INDENT_OUTPUT)
+                && !config.hasExplicitTimeZone()
+                && config.getPropertyNamingStrategy() == null
+                && (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return compatible && (clazz == OrderResponse.class || clazz == OrderPage.class);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator gen = mapper.getFactory()
+                .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            OrderJsonWriter writer = new OrderJsonWriter(gen);
+            if (body instanceof OrderPage page) writer.write(page);
+            else writer.write((OrderResponse) body);
+            gen.flush();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.minicommerce.orders.web.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderItem;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.service.OrderView;
+import com.minicommerce.orders.web.dto.OrderItemResponse;
+import com.minicommerce.orders.web.dto.OrderResponse;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes order bodies with a {@link JsonGenerator}, byte for byte what Jackson produces for {@link OrderResponse},
+ * {@link com.minicommerce.orders.web.dto.OrderSummaryResponse} and {@link com.minicommerce.orders.web.dto.PageResponse}
+ * with Spring Boot's defaults (ISO-8601 timestamps, nulls included, no indentation). Pages are written straight
+ * from the entities, so no response records are built; field names and statuses are encoded once, and UUIDs,
+ * amounts and timestamps are formatted into one scratch buffer instead of intermediate strings.
+ * <p>
+ * Not thread-safe: one instance per body.
+ */
+public final class OrderJsonWriter {
+    private static final SerializableString ID = name("id");
+    private static final SerializableString CUSTOMER_ID = name("customerId");
+    private static final SerializableString STATUS = name("status");
+    private static final SerializableString CURRENCY = name("currency");
+    private static final SerializableString TOTAL = name("total");
+    private static final SerializableString CREATED_AT = name("createdAt");
+    private static final SerializableString UPDATED_AT = name("updatedAt");
+    private static final SerializableString ITEMS = name("items");
+    private static final SerializableString SKU = name("sku");
+    private static final SerializableString NAME = name("name");
+    private static final SerializableString QUANTITY = name("quantity");
+    private static final SerializableString UNIT_PRICE = name("unitPrice");
+    private static final SerializableString LINE_TOTAL = name("lineTotal");
+    private static final SerializableString CONTENT = name("content");
+    private static final SerializableString PAGE = name("page");
+    private static final SerializableString SIZE = name("size");
+    private static final SerializableString TOTAL_ELEMENTS = name("totalElements");
+    private static final SerializableString TOTAL_PAGES = name("totalPages");
+    private static final SerializableString NEXT_CURSOR = name("nextCursor");
+
+    private static final SerializableString[] STATUSES = statuses();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final JsonGenerator gen;
+    // longest value formatted here: a timestamp with nanos and a seconds offset (35 chars)
+    private final char[] buf = new char[40];
+
+    public OrderJsonWriter(JsonGenerator gen) {
+        this.gen = gen;
+    }
+
+    public void write(OrderPage page) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(CONTENT);
+        gen.writeStartArray();
+        if (page.view() == OrderView.SUMMARY) {
+            for (Order order : page.content()) summary(order);
+        } else {
+            for (Order order : page.content()) order(order);
+        }
+        gen.writeEndArray();
+        gen.writeFieldName(PAGE);
+        number(page.page());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.size());
+        gen.writeFieldName(TOTAL_ELEMENTS);
+        if (page.totalElements() == null) gen.writeNull();
+        else gen.writeNumber(page.totalElements());
+        gen.writeFieldName(TOTAL_PAGES);
+        number(page.totalPages());
+        gen.writeFieldName(NEXT_CURSOR);
+        gen.writeString(page.nextCursor());
+        gen.writeEndObject();
+    }
+
+    /**
+     * For bodies that are already records, e.g. cached or replayed responses.
+     */
+    public void write(OrderResponse order) throws IOException {
+        gen.writeStartObject();
+        uuid(ID, order.id());
+        uuid(CUSTOMER_ID, order.customerId());
+        gen.writeFieldName(STATUS);
+        gen.writeString(order.status());
+        header(order.currency(), order.total(), order.createdAt(), order.updatedAt());
+        gen.writeFieldName(ITEMS);
+        if (order.items() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray();
+            for (OrderItemResponse item : order.items()) {
+                item(item.id(), item.sku(), item.name(), item.quantity(), item.unitPrice());
+                money(item.lineTotal());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    private void order(Order order) throws IOException {
+        gen.writeStartObject();
+        header(order);
+        gen.writeFieldName(ITEMS);
+        gen.writeStartArray();
+        List<OrderItem> items = order.getItems();
+        for (int i = 0, n = items.size(); i < n; i++) {
+            OrderItem item = items.get(i);
+            Money unitPrice = item.getUnitPrice();
+            item(item.getId(), item.getSku(), item.getName(), item.getQuantity(), unitPrice);
+            // same overflow check as Money.times, without the Money
+            money(Math.multiplyExact(unitPrice.minorUnits(), item.getQuantity()));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void summary(Order order) throws IOException {
+        gen.writeStartObject();
+        header(order);
+        gen.writeEndObject();
+    }
+
+    private void header(Order order) throws IOException {
+        uuid(ID, order.getId());
+        uuid(CUSTOMER_ID, order.getCustomerId());
+        gen.writeFieldName(STATUS);
+        OrderStatus status = order.getStatus();
+        if (status == null) gen.writeNull();
+        else gen.writeString(STATUSES[status.ordinal()]);
+        header(order.getCurrency(), order.getTotal(), order.getCreatedAt(), order.getUpdatedAt());
+    }
+
+    private void header(String currency, Money total, OffsetDateTime createdAt, OffsetDateTime updatedAt)
+            throws IOException {
+        gen.writeFieldName(CURRENCY);
+        gen.writeString(currency);
+        gen.writeFieldName(TOTAL);
+        money(total);
+        gen.writeFieldName(CREATED_AT);
+        timestamp(createdAt);
+        gen.writeFieldName(UPDATED_AT);
+        timestamp(updatedAt);
+    }
+
+    /**
+     * Opens an item and writes it up to the {@code lineTotal} name; the caller writes the value and closes it.
+     */
+    private void item(UUID id, String sku, String name, Integer quantity, Money unitPrice) throws IOException {
+        gen.writeStartObject();
+        uuid(ID, id);
+        gen.writeFieldName(SKU);
+        gen.writeString(sku);
+        gen.writeFieldName(NAME);
+        gen.writeString(name);
+        gen.writeFieldName(QUANTITY);
+        number(quantity);
+        gen.writeFieldName(UNIT_PRICE);
+        money(unitPrice);
+        gen.writeFieldName(LINE_TOTAL);
+    }
+
+    private void number(Integer value) throws IOException {
+        if (value == null) gen.writeNull();
+        else gen.writeNumber(value);
+    }
+
+    private void uuid(SerializableString field, UUID id) throws IOException {
+        gen.writeFieldName(field);
+        if (id == null) {
+            gen.writeNull();
+            return;
+        }
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        hex(hi >>> 32, 8, 0);
+        buf[8] = '-';
+        hex(hi >>> 16, 4, 9);
+        buf[13] = '-';
+        hex(hi, 4, 14);
+        buf[18] = '-';
+        hex(lo >>> 48, 4, 19);
+        buf[23] = '-';
+        hex(lo, 12, 24);
+        gen.writeString(buf, 0, 36);
+    }
+
+    private void hex(long bits, int digits, int at) {
+        for (int i = at + digits - 1; i >= at; i--) {
+            buf[i] = HEX[(int) bits & 0xF];
+            bits >>>= 4;
+        }
+    }
+
+    private void money(Money money) throws IOException {
+        if (money == null) gen.writeNull();
+        else money(money.minorUnits());
+    }
+
+    /**
+     * Same text as {@link Money#toString()}: at least one integer digit and exactly two decimals.
+     */
+    private void money(long minor) throws IOException {
+        if (minor == Long.MIN_VALUE) {
+            gen.writeNumber(Money.ofMinor(minor).toString());
+            return;
+        }
+        long abs = Math.abs(minor);
+        int end = buf.length;
+        int at = end;
+        long fraction = abs % 100;
+        buf[--at] = (char) ('0' + fraction % 10);
+        buf[--at] = (char) ('0' + fraction / 10);
+        buf[--at] = '.';
+        long whole = abs / 100;
+        do {
+            buf[--at] = (char) ('0' + whole % 10);
+            whole /= 10;
+        } while (whole != 0);
+        if (minor < 0) buf[--at] = '-';
+        gen.writeNumber(buf, at, end - at);
+    }
+
+    /**
+     * {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME}, which Jackson uses for {@link OffsetDateTime}: seconds always,
+     * the fraction only if non-zero and without trailing zeros, {@code Z} for UTC. Years outside 0-9999 and offsets
+     * with seconds go through the formatter.
+     */
+    private void timestamp(OffsetDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        int offset = value.getOffset().getTotalSeconds();
+        if (year < 0 || year > 9999 || offset % 60 != 0) {
+            gen.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+            return;
+        }
+        digits(year, 4, 0);
+        buf[4] = '-';
+        digits(value.getMonthValue(), 2, 5);
+        buf[7] = '-';
+        digits(value.getDayOfMonth(), 2, 8);
+        buf[10] = 'T';
+        digits(value.getHour(), 2, 11);
+        buf[13] = ':';
+        digits(value.getMinute(), 2, 14);
+        buf[16] = ':';
+        digits(value.getSecond(), 2, 17);
+        int len = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            buf[len++] = '.';
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            digits(nano, width, len);
+            len += width;
+        }
+        if (offset == 0) {
+            buf[len++] = 'Z';
+        } else {
+            buf[len++] = offset < 0 ? '-' : '+';
+            int minutes = Math.abs(offset) / 60;
+            digits(minutes / 60, 2, len);
+            buf[len + 2] = ':';
+            digits(minutes % 60, 2, len + 3);
+            len += 5;
+        }
+        gen.writeString(buf, 0, len);
+    }
+
+    private void digits(int value, int width, int at) {
+        for (int i = at + width - 1; i >= at; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static SerializableString name(String field) {
+        return new SerializedString(field);
+    }
+
+    private static SerializableString[] statuses() {
+        OrderStatus[] values = OrderStatus.values();
+        SerializableString[] encoded = new SerializableString[values.length];
+        for (OrderStatus s : values) encoded[s.ordinal()] = new SerializedString(s.name().toLowerCase());
+        return encoded;
+    }
+}
@@ -0,0 +1,34 @@
+package com.minicommerce.orders.web.json;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.service.OrderView;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import com.minicommerce.orders.web.dto.OrderSummaryResponse;
+import com.minicommerce.orders.web.dto.PageResponse;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of loaded orders as the list endpoint returns it: a {@link PageResponse} of {@link OrderResponse}, or of
+ * {@link OrderSummaryResponse} for {@code view=summary}. It holds entities, so it lives next to
+ * {@link OrderJsonHttpMessageConverter}, which writes it straight from them, rather than among the DTOs; any other
+ * serializer gets {@link #toResponse()}.
+ */
+public record OrderPage(
+        List<Order> content,
+        OrderView view,
+        Integer page,
+        int size,
+        Long totalElements,
+        Integer totalPages,
+        String nextCursor
+) {
+    @JsonValue
+    public PageResponse<?> toResponse() {
+        Function<Order, ?> mapper = view == OrderView.SUMMARY ? OrderMapper::toSummary : OrderMapper::toResponse;
+        return new PageResponse<>(content.stream().map(mapper).toList(), page, size, totalElements, totalPages, nextCursor);
+    }
+}
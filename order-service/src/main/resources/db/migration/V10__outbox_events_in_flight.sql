@@ -0,0 +1,21 @@
+-- V10__outbox_events_in_flight.sql
+-- Purpose: Let the relay send without holding row locks or a transaction open (ADR 0001).
+-- Notes:
+--   - The relay claims rows by setting them IN_FLIGHT and commits; it sends with no transaction open and
+--     settles the rows in a second transaction
+--   - next_attempt_at of an IN_FLIGHT row is the end of its lease: a relay that died before settling leaves
+--     the row to be claimed again once the lease is over (the event may then be sent twice)
+--   - Status lifecycle: NEW | RETRY -> IN_FLIGHT -> SENT | RETRY | FAILED
+
+ALTER TABLE public.outbox_events DROP CONSTRAINT IF EXISTS ck_outbox_events_status;
+ALTER TABLE public.outbox_events
+  ADD CONSTRAINT ck_outbox_events_status
+  CHECK (status IN ('NEW','IN_FLIGHT','SENT','RETRY','FAILED'));
+
+COMMENT ON COLUMN public.outbox_events.next_attempt_at IS 'Earliest time the relay may (re)try this row; for IN_FLIGHT rows, the end of the lease';
+
+-- Relay scan now also finds IN_FLIGHT rows whose lease is over
+DROP INDEX IF EXISTS public.ix_outbox_events_due;
+CREATE INDEX IF NOT EXISTS ix_outbox_events_due
+  ON public.outbox_events(next_attempt_at)
+  WHERE status IN ('NEW','RETRY','IN_FLIGHT');
@@ -0,0 +1,50 @@
+-- V2__outbox_events.sql
+-- Purpose: Transactional outbox for domain events (ADR 0001, Phase 1).
+-- Conventions:
+--   - Rows are inserted in the same transaction as the order change they describe
+--   - Relay claims due rows with FOR UPDATE SKIP LOCKED, so several pods can drain concurrently
+--   - Status lifecycle: NEW -> SENT | RETRY -> SENT | FAILED (requeue = set back to NEW)
+
+-- ────────────────────────────────────────────────────────────────
+-- Outbox events
+-- ────────────────────────────────────────────────────────────────
+CREATE TABLE IF NOT EXISTS public.outbox_events (
+  id              UUID NOT NULL
+    CONSTRAINT pk_outbox_events_id PRIMARY KEY,
+  aggregate_id    UUID NOT NULL,
+  topic           TEXT NOT NULL,
+  key             TEXT NOT NULL,
+  payload         JSONB NOT NULL,
+  status          VARCHAR(10) NOT NULL DEFAULT 'NEW'
+    CONSTRAINT ck_outbox_events_status
+    CHECK (status IN ('NEW','SENT','RETRY','FAILED')),
+  attempts        INTEGER NOT NULL DEFAULT 0
+    CONSTRAINT ck_outbox_events_attempts_nonneg CHECK (attempts >= 0),
+  next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  created_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+  last_error      TEXT
+);
+
+COMMENT ON TABLE  public.outbox_events                 IS 'Domain events awaiting relay to Kafka (transactional outbox)';
+COMMENT ON COLUMN public.outbox_events.key             IS 'Kafka record key; always the aggregate identifier for ordering';
+COMMENT ON COLUMN public.outbox_events.next_attempt_at IS 'Earliest time the relay may (re)try this row';
+
+-- Relay scan: only undelivered rows are indexed, so the index stays small once rows are SENT
+CREATE INDEX IF NOT EXISTS ix_outbox_events_due
+  ON public.outbox_events(next_attempt_at)
+  WHERE status IN ('NEW','RETRY');
+
+CREATE INDEX IF NOT EXISTS ix_outbox_events_failed
+  ON public.outbox_events(created_at)
+  WHERE status = 'FAILED';
+
+CREATE INDEX IF NOT EXISTS ix_outbox_events_sent_updated_at
+  ON public.outbox_events(updated_at)
+  WHERE status = 'SENT';
+
+DROP TRIGGER IF EXISTS trg_outbox_events_set_updated_at ON public.outbox_events;
+CREATE TRIGGER trg_outbox_events_set_updated_at
+    BEFORE UPDATE ON public.outbox_events
+    FOR EACH ROW
+EXECUTE FUNCTION public.fn_orders_set_updated_at();
@@ -0,0 +1,15 @@
+-- V3__orders_keyset_indexes.sql
+-- Purpose: Support keyset (seek) pagination on (created_at, id), optionally filtered by status.
+-- Notes:
+--   - Both indexes serve ORDER BY created_at DESC, id DESC via backward scans
+--   - They supersede ix_orders_created_at and ix_orders_status (leading-column prefixes)
+--   - On large live tables, pre-create these with CREATE INDEX CONCURRENTLY before running this migration
+
+CREATE INDEX IF NOT EXISTS ix_orders_created_at_id
+  ON public.orders(created_at, id);
+
+CREATE INDEX IF NOT EXISTS ix_orders_status_created_at_id
+  ON public.orders(status, created_at, id);
+
+DROP INDEX IF EXISTS public.ix_orders_created_at;
+DROP INDEX IF EXISTS public.ix_orders_status;
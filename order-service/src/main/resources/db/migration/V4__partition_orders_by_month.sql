@@ -0,0 +1,131 @@
+-- V4__partition_orders_by_month.sql
+-- Purpose: Range-partition orders and order_items by month of the order's created_at, so retention becomes
+--          DETACH/DROP PARTITION instead of DELETE and vacuum/index upkeep happens one month at a time.
+-- Notes:
+--   - Primary keys must contain the partition key: orders (id, created_at), order_items (id, order_created_at)
+--   - order_items carries its order's created_at so both tables split on the same bounds. The FK
+--     (order_id, order_created_at) is declared per month, items partition -> orders partition, not on the
+--     parents: detaching or dropping a month then never has to scan the other months for references
+--   - Bounds are UTC months; partitions are named orders_pYYYY_MM / order_items_pYYYY_MM
+--   - Existing rows are copied in this transaction. For large live tables, convert online first
+--     (docs/adr/0002-monthly-partitioning-of-orders.md); this migration then only (re)creates the helper function
+--   - OrderPartitionMaintenance keeps upcoming months created and expires old ones
+
+-- ────────────────────────────────────────────────────────────────
+-- Partition helper (also called by OrderPartitionMaintenance)
+-- ────────────────────────────────────────────────────────────────
+CREATE OR REPLACE FUNCTION public.fn_create_order_partitions(p_month DATE)
+    RETURNS VOID AS $$
+DECLARE
+    v_month  TIMESTAMP   := date_trunc('month', p_month::timestamp);
+    -- add the month before converting: timestamptz + interval follows the session time zone
+    v_from   TIMESTAMPTZ := v_month AT TIME ZONE 'UTC';
+    v_to     TIMESTAMPTZ := (v_month + interval '1 month') AT TIME ZONE 'UTC';
+    v_orders TEXT        := 'orders_p' || to_char(v_month, 'YYYY_MM');
+    v_items  TEXT        := 'order_items_p' || to_char(v_month, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS public.%I PARTITION OF public.orders FOR VALUES FROM (%L) TO (%L)',
+                   v_orders, v_from, v_to);
+    EXECUTE format('CREATE TABLE IF NOT EXISTS public.%I PARTITION OF public.order_items FOR VALUES FROM (%L) TO (%L)',
+                   v_items, v_from, v_to);
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                    WHERE conrelid = format('public.%I', v_items)::regclass AND conname = 'fk_' || v_items || '_order') THEN
+        EXECUTE format('ALTER TABLE public.%I ADD CONSTRAINT %I FOREIGN KEY (order_id, order_created_at) '
+                       'REFERENCES public.%I (id, created_at) ON DELETE CASCADE',
+                       v_items, 'fk_' || v_items || '_order', v_orders);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION public.fn_create_order_partitions(DATE) IS 'Creates the orders and order_items partitions for the UTC month containing p_month, and the FK between them';
+
+-- ────────────────────────────────────────────────────────────────
+-- Conversion (skipped when orders is already partitioned)
+-- ────────────────────────────────────────────────────────────────
+DO $$
+DECLARE
+    v_first DATE;
+    v_month DATE;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'public.orders'::regclass) = 'p' THEN
+        RAISE NOTICE 'public.orders is already partitioned, skipping conversion';
+        RETURN;
+    END IF;
+
+    ALTER TABLE public.order_items RENAME TO order_items_unpartitioned;
+    ALTER TABLE public.orders      RENAME TO orders_unpartitioned;
+
+    CREATE TABLE public.orders (
+      id           UUID NOT NULL,
+      customer_id  UUID NOT NULL
+        CONSTRAINT fk_orders_customer_id
+        REFERENCES public.customers(id),
+      status       VARCHAR(20) NOT NULL
+        CONSTRAINT ck_orders_status
+        CHECK (status IN ('CREATED','PAID','FULFILLED','CANCELLED','REFUNDED')),
+      currency     VARCHAR(3) NOT NULL
+        CONSTRAINT ck_orders_currency_len
+        CHECK (char_length(currency) = 3),
+      total        NUMERIC(12,2) NOT NULL
+        CONSTRAINT ck_orders_total_nonneg CHECK (total >= 0),
+      created_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+      updated_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+      CONSTRAINT pk_orders PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE TABLE public.order_items (
+      id               UUID NOT NULL,
+      order_id         UUID NOT NULL,
+      order_created_at TIMESTAMPTZ NOT NULL,
+      sku              TEXT NOT NULL,
+      name             TEXT NOT NULL,
+      quantity         INTEGER NOT NULL
+        CONSTRAINT ck_order_items_quantity_pos CHECK (quantity > 0),
+      unit_price       NUMERIC(12,2) NOT NULL
+        CONSTRAINT ck_order_items_price_non_negative CHECK (unit_price >= 0),
+      CONSTRAINT pk_order_items PRIMARY KEY (id, order_created_at)
+    ) PARTITION BY RANGE (order_created_at);
+
+    -- every month with data, through three months ahead
+    SELECT date_trunc('month', min(created_at) AT TIME ZONE 'UTC')::date INTO v_first FROM public.orders_unpartitioned;
+    FOR v_month IN
+        SELECT generate_series(COALESCE(v_first, date_trunc('month', now() AT TIME ZONE 'UTC')::date),
+                               (date_trunc('month', now() AT TIME ZONE 'UTC') + interval '3 months')::date,
+                               interval '1 month')::date
+    LOOP
+        PERFORM public.fn_create_order_partitions(v_month);
+    END LOOP;
+
+    INSERT INTO public.orders (id, customer_id, status, currency, total, created_at, updated_at)
+    SELECT id, customer_id, status, currency, total, created_at, updated_at
+      FROM public.orders_unpartitioned;
+
+    INSERT INTO public.order_items (id, order_id, order_created_at, sku, name, quantity, unit_price)
+    SELECT i.id, i.order_id, o.created_at, i.sku, i.name, i.quantity, i.unit_price
+      FROM public.order_items_unpartitioned i
+      JOIN public.orders_unpartitioned o ON o.id = i.order_id;
+
+    DROP TABLE public.order_items_unpartitioned;
+    DROP TABLE public.orders_unpartitioned;
+END;
+$$;
+
+-- ────────────────────────────────────────────────────────────────
+-- Indexes (declared on the parents, built per partition), trigger, comments
+-- ────────────────────────────────────────────────────────────────
+CREATE INDEX IF NOT EXISTS ix_orders_created_at_id        ON public.orders(created_at, id);
+CREATE INDEX IF NOT EXISTS ix_orders_status_created_at_id ON public.orders(status, created_at, id);
+CREATE INDEX IF NOT EXISTS ix_orders_customer_id          ON public.orders(customer_id);
+CREATE INDEX IF NOT EXISTS ix_order_items_order_id        ON public.order_items(order_id);
+
+DROP TRIGGER IF EXISTS trg_orders_set_updated_at ON public.orders;
+CREATE TRIGGER trg_orders_set_updated_at
+    BEFORE UPDATE ON public.orders
+    FOR EACH ROW
+EXECUTE FUNCTION public.fn_orders_set_updated_at();
+
+COMMENT ON TABLE  public.orders                        IS 'Order header; authoritative for order lifecycle. Partitioned by UTC month of created_at';
+COMMENT ON COLUMN public.orders.status                 IS 'Enum stored as UPPERCASE to match JPA EnumType.STRING';
+COMMENT ON COLUMN public.orders.currency               IS 'ISO 4217 alpha-3 currency code';
+COMMENT ON TABLE  public.order_items                   IS 'Items belonging to orders (line-level). Partitioned with their order';
+COMMENT ON COLUMN public.order_items.order_created_at  IS 'Copy of orders.created_at: partition key and half of the per-month FK to orders';
@@ -0,0 +1,30 @@
+-- V5__idempotency_keys.sql
+-- Purpose: Durable store behind the Idempotency-Key header on POST /api/v1/orders.
+-- Notes:
+--   - A key is claimed and completed in the same transaction as the order it creates, so a committed row
+--     always carries its response; a concurrent claim of the same key blocks on the primary key until
+--     the first transaction ends, then reads the stored response (or takes over if it rolled back)
+--   - request_hash (SHA-256 of the request body) detects a key reused for a different request
+--   - Rows past expires_at may be reclaimed by a new request and are purged by IdempotencyKeys
+
+-- ────────────────────────────────────────────────────────────────
+-- Idempotency keys
+-- ────────────────────────────────────────────────────────────────
+CREATE TABLE IF NOT EXISTS public.idempotency_keys (
+  key           TEXT NOT NULL
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY
+    CONSTRAINT ck_idempotency_keys_key_len CHECK (char_length(key) BETWEEN 1 AND 255),
+  request_hash  TEXT NOT NULL,
+  order_id      UUID,
+  response      JSONB,
+  created_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+  expires_at    TIMESTAMPTZ NOT NULL
+);
+
+COMMENT ON TABLE  public.idempotency_keys              IS 'Idempotency-Key of each order create and the response it produced';
+COMMENT ON COLUMN public.idempotency_keys.request_hash IS 'Hex SHA-256 of the request body the key was first used with';
+COMMENT ON COLUMN public.idempotency_keys.response     IS 'OrderResponse returned to the first request, replayed verbatim';
+
+-- TTL purge
+CREATE INDEX IF NOT EXISTS ix_idempotency_keys_expires_at
+  ON public.idempotency_keys(expires_at);
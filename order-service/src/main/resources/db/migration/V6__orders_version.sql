@@ -0,0 +1,10 @@
+-- V6__orders_version.sql
+-- Purpose: Row version for optimistic checks on order status transitions.
+-- Notes:
+--   - Every transition bumps version; callers that read an order first can require the version they saw
+--   - A constant default makes ADD COLUMN a catalog-only change (no table rewrite), on every partition
+
+ALTER TABLE public.orders
+  ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN public.orders.version IS 'Incremented by every status transition';
@@ -0,0 +1,32 @@
+-- V7__order_daily_aggregates.sql
+-- Purpose: Order count and total per UTC day of creation, currency and current status, for dashboards
+--          (GET /api/v1/orders/stats) without scanning orders.
+-- Notes:
+--   - Maintained by OrderAggregates: in-memory deltas from creates and transitions, added here by upserts
+--     every few seconds; a transition moves one order between two rows of its creation day
+--   - OrderAggregateReconciler rebuilds a day from that day's orders partition; so does the backfill below
+--   - total has more digits than orders.total: it sums a whole day
+
+-- ────────────────────────────────────────────────────────────────
+-- Daily aggregates
+-- ────────────────────────────────────────────────────────────────
+CREATE TABLE IF NOT EXISTS public.order_daily_aggregates (
+  day          DATE NOT NULL,
+  currency     VARCHAR(3) NOT NULL,
+  status       VARCHAR(20) NOT NULL,
+  order_count  BIGINT NOT NULL,
+  total        NUMERIC(18,2) NOT NULL,
+  updated_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+  CONSTRAINT pk_order_daily_aggregates PRIMARY KEY (day, currency, status)
+);
+
+COMMENT ON TABLE  public.order_daily_aggregates             IS 'Orders per UTC day of created_at, currency and current status';
+COMMENT ON COLUMN public.order_daily_aggregates.order_count IS 'Orders created that day that are now in this status';
+COMMENT ON COLUMN public.order_daily_aggregates.total       IS 'Sum of those orders'' totals';
+
+-- Backfill from existing orders (one pass, at migration time)
+INSERT INTO public.order_daily_aggregates (day, currency, status, order_count, total)
+SELECT (created_at AT TIME ZONE 'UTC')::date, currency, status, count(*), sum(total)
+  FROM public.orders
+ GROUP BY 1, 2, 3
+ON CONFLICT (day, currency, status) DO NOTHING;
@@ -0,0 +1,29 @@
+-- V8__outbox_events_sequence.sql
+-- Purpose: Relay events of one aggregate strictly in the order they were written (ADR 0001).
+-- Notes:
+--   - seq numbers rows in insert order; created_at cannot, since it is the transaction start time and a
+--     transaction that waited on the order's row lock can start before the one it waited for
+--   - The relay only claims a row when no earlier row of the same aggregate is still NEW, RETRY or FAILED,
+--     so a later event never overtakes one that is waiting for its retry or was given up on
+--   - Rows already in the table are numbered by created_at, id
+
+ALTER TABLE public.outbox_events ADD COLUMN IF NOT EXISTS seq BIGINT;
+
+UPDATE public.outbox_events o
+   SET seq = n.seq
+  FROM (SELECT id, row_number() OVER (ORDER BY created_at, id) AS seq FROM public.outbox_events) n
+ WHERE o.id = n.id;
+
+ALTER TABLE public.outbox_events
+  ALTER COLUMN seq SET NOT NULL,
+  ALTER COLUMN seq ADD GENERATED BY DEFAULT AS IDENTITY;
+
+SELECT setval(pg_get_serial_sequence('public.outbox_events', 'seq'),
+              COALESCE((SELECT max(seq) FROM public.outbox_events), 0) + 1, false);
+
+COMMENT ON COLUMN public.outbox_events.seq IS 'Insert order; events of one aggregate are relayed in seq order';
+
+-- Relay ordering check: earlier undelivered rows of the same aggregate
+CREATE INDEX IF NOT EXISTS ix_outbox_events_unsent_aggregate
+  ON public.outbox_events(aggregate_id, seq)
+  WHERE status <> 'SENT';
@@ -0,0 +1,15 @@
+-- V9__order_aggregate_rebuilds.sql
+-- Purpose: Keep reconciliation from counting changes twice (order_daily_aggregates, V7).
+-- Notes:
+--   - OrderAggregateReconciler records, per day, the whole second at which its rebuild read orders
+--   - Deltas carry the second of the change they describe (orders.created_at or updated_at); a flush drops
+--     a day's deltas from before its last rebuild, since the rebuild already counted those changes
+
+CREATE TABLE IF NOT EXISTS public.order_aggregate_rebuilds (
+  day         DATE NOT NULL
+    CONSTRAINT pk_order_aggregate_rebuilds PRIMARY KEY,
+  rebuilt_at  TIMESTAMPTZ NOT NULL
+);
+
+COMMENT ON TABLE  public.order_aggregate_rebuilds            IS 'Last rebuild of each day of order_daily_aggregates';
+COMMENT ON COLUMN public.order_aggregate_rebuilds.rebuilt_at IS 'Changes before this instant are included in the rebuilt rows';
@@ -1,6 +1,9 @@
 package com.minicommerce.orders;
 
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.OrderIds;
 import com.minicommerce.orders.events.Topics;
+import com.minicommerce.orders.service.OrderPartitionMaintenance;
 import com.minicommerce.orders.web.dto.CreateOrderRequest;
 import com.minicommerce.orders.web.dto.OrderItemRequest;
 import com.minicommerce.orders.web.dto.OrderResponse;
@@ -15,10 +18,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.KafkaContainer;
@@ -27,13 +32,36 @@ import org.testcontainers.utility.DockerImageName;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
-import java.math.BigDecimal;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
 @Testcontainers
 class OrderIntegrationTest {
 
@@ -47,14 +75,24 @@ class OrderIntegrationTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
-        registry.add("spring.flyway.enabled", () -> "false");
         registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        // the test drives maintenance itself; a concurrent scheduled run would hold the advisory lock
+        registry.add("orders.partitions.enabled", () -> "false");
+        registry.add("orders.partitions.retention", () -> "P24M");
     }
 
     @Autowired
     TestRestTemplate http;
 
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    ObjectMapper json;
+
+    @Autowired
+    OrderPartitionMaintenance partitionMaintenance;
+
     @BeforeEach
     void enablePatchSupport() {
         http.getRestTemplate()
@@ -66,7 +104,7 @@ class OrderIntegrationTest {
         var req = new CreateOrderRequest(
                 UUID.fromString("00000000-0000-0000-0000-000000000001"),
                 "USD",
-                List.of(new OrderItemRequest("SKU-1", "Mouse", 2, new BigDecimal("19.99")))
+                List.of(new OrderItemRequest("SKU-1", "Mouse", 2, Money.parse("19.99")))
         );
 
         ObjectMapper mapper = new ObjectMapper();
@@ -87,7 +125,10 @@ class OrderIntegrationTest {
             var order = created.getBody();
             Assertions.assertNotNull(order);
             Assertions.assertEquals("created", order.status());
-            Assertions.assertEquals(new BigDecimal("39.98"), order.total());
+            Assertions.assertEquals(Money.parse("39.98"), order.total());
+            // warms the GET-by-id cache so the read after cancel proves it was evicted
+            Assertions.assertEquals("created",
+                    http.getForObject("/api/v1/orders/{id}", OrderResponse.class, order.id()).status());
 
             ConsumerRecord<String, String> createdEvent = pollForEvent(consumer, Topics.ORDER_CREATED, order.id().toString());
             Assertions.assertNotNull(createdEvent, "ORDER_CREATED event not received");
@@ -101,6 +142,15 @@ class OrderIntegrationTest {
             );
             Assertions.assertEquals(HttpStatus.OK, cancelled.getStatusCode());
             Assertions.assertEquals("cancelled", cancelled.getBody().status());
+            Assertions.assertEquals("cancelled",
+                    http.getForObject("/api/v1/orders/{id}", OrderResponse.class, order.id()).status());
+
+            List<String> scrape = http.getForObject("/actuator/prometheus", String.class).lines().toList();
+            Assertions.assertTrue(hasSample(scrape, "orders_stage_seconds_bucket", "operation=\"create\"", "stage=\"persist\""), "stage histogram");
+            Assertions.assertTrue(hasSample(scrape, "orders_stage_seconds_count", "operation=\"cancel\"", "stage=\"commit\""), "commit timer");
+            Assertions.assertTrue(hasSample(scrape, "hikaricp_connections_active"), "pool gauges");
+            Assertions.assertTrue(hasSample(scrape, "events_publish_attempts_total", "topic=\"" + Topics.ORDER_CREATED + "\""), "publish counters");
+            Assertions.assertTrue(hasSample(scrape, "kafka_producer_"), "producer gauges");
 
             ConsumerRecord<String, String> cancelledEvent = pollForEvent(consumer, Topics.ORDER_CANCELLED, order.id().toString());
             Assertions.assertNotNull(cancelledEvent, "ORDER_CANCELLED event not received");
@@ -112,6 +162,271 @@ class OrderIntegrationTest {
         }
     }
 
+    @Test
+    void list_walks_keyset_pages_newest_first_and_counts_by_default() {
+        var req = new CreateOrderRequest(
+                UUID.randomUUID(),
+                "EUR",
+                List.of(new OrderItemRequest("SKU-2", "Keyboard", 1, Money.parse("49.00")))
+        );
+        List<UUID> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(http.postForEntity("/api/v1/orders", req, OrderResponse.class).getBody().id());
+        }
+        Collections.reverse(created);
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/v1/orders?size=2&count=none" + (cursor == null ? "" : "&cursor=" + cursor);
+            JsonNode page = http.getForObject(url, JsonNode.class);
+            Assertions.assertTrue(page.get("totalElements").isNull());
+            page.get("content").forEach(o -> seen.add(UUID.fromString(o.get("id").asText())));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        seen.retainAll(created);
+        Assertions.assertEquals(created, seen);
+
+        JsonNode counted = http.getForObject("/api/v1/orders?status=created&size=1", JsonNode.class);
+        Assertions.assertTrue(counted.get("totalElements").asLong() >= 5);
+        Assertions.assertEquals(0, counted.get("page").asInt());
+        Assertions.assertEquals(counted.get("totalElements").asInt(), counted.get("totalPages").asInt());
+        Assertions.assertEquals(1, counted.get("content").size());
+
+        String next = counted.get("nextCursor").asText();
+        JsonNode second = http.getForObject("/api/v1/orders?status=created&size=1&cursor=" + next, JsonNode.class);
+        Assertions.assertTrue(second.get("totalElements").asLong() >= 5);
+        Assertions.assertTrue(second.get("page").isNull());
+    }
+
+    @Test
+    void batch_ingests_ndjson_and_reports_per_entry() {
+        String customer = UUID.randomUUID().toString();
+        String valid = "{\"customerId\":\"%s\",\"currency\":\"USD\",\"items\":[{\"sku\":\"S\",\"name\":\"N\",\"quantity\":2,\"unitPrice\":1.50}]}"
+                .formatted(customer);
+        String missingItems = "{\"customerId\":\"%s\",\"currency\":\"USD\",\"items\":[]}".formatted(customer);
+        String subCent = valid.replace("1.50", "1.505");
+        String body = String.join("\n", valid, missingItems, subCent, valid);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        JsonNode result = http.postForObject("/api/v1/orders:batch", new HttpEntity<>(body, headers), JsonNode.class);
+
+        Assertions.assertEquals(4, result.get("received").asInt());
+        Assertions.assertEquals(2, result.get("created").asInt());
+        Assertions.assertEquals(2, result.get("rejected").asInt());
+        Assertions.assertEquals("rejected", result.get("results").get(1).get("status").asText());
+        Assertions.assertEquals("rejected", result.get("results").get(2).get("status").asText());
+
+        String createdId = result.get("results").get(3).get("orderId").asText();
+        OrderResponse order = http.getForObject("/api/v1/orders/{id}", OrderResponse.class, createdId);
+        Assertions.assertEquals(Money.parse("3.00"), order.total());
+        Assertions.assertEquals(1, order.items().size());
+    }
+
+    @Test
+    void batch_rejects_only_the_order_whose_total_is_too_large() {
+        String customer = UUID.randomUUID().toString();
+        String valid = "{\"customerId\":\"%s\",\"currency\":\"USD\",\"items\":[{\"sku\":\"S\",\"name\":\"N\",\"quantity\":2,\"unitPrice\":1.50}]}"
+                .formatted(customer);
+        String tooLarge = valid.replace("1.50", "9999999999.99");
+        String overflow = valid.replace("\"quantity\":2", "\"quantity\":2000000000").replace("1.50", "99999999999.99");
+        String body = String.join("\n", valid, tooLarge, overflow, valid);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        JsonNode result = http.postForObject("/api/v1/orders:batch", new HttpEntity<>(body, headers), JsonNode.class);
+
+        Assertions.assertEquals(2, result.get("created").asInt());
+        Assertions.assertEquals(2, result.get("rejected").asInt());
+        Assertions.assertEquals(0, result.get("failed").asInt());
+        for (int i : new int[] {1, 2}) {
+            JsonNode rejected = result.get("results").get(i);
+            Assertions.assertEquals("rejected", rejected.get("status").asText());
+            Assertions.assertTrue(rejected.get("error").asText().contains("exceeds"), rejected.toString());
+        }
+        Assertions.assertEquals("created", result.get("results").get(3).get("status").asText());
+    }
+
+    @Test
+    void export_streams_ndjson_oldest_first_with_optional_gzip() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        List<OrderResponse> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            created.add(http.postForObject("/api/v1/orders", new CreateOrderRequest(customerId, "USD",
+                    List.of(new OrderItemRequest("SKU-" + i, "Item", 1, Money.parse("1.00")))), OrderResponse.class));
+        }
+        URI uri = URI.create(http.getRootUri() + "/api/v1/orders/export?status=created&from="
+                + URLEncoder.encode(created.get(0).createdAt().truncatedTo(ChronoUnit.MILLIS).toString(), StandardCharsets.UTF_8));
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<String> plain = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(200, plain.statusCode());
+        Assertions.assertEquals(MediaType.APPLICATION_NDJSON_VALUE, plain.headers().firstValue("Content-Type").orElse(null));
+        List<String> lines = plain.body().lines().toList();
+
+        HttpResponse<byte[]> gzipped = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        Assertions.assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            Assertions.assertEquals(lines, new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+        }
+
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        List<UUID> exported = new ArrayList<>();
+        for (String line : lines) {
+            OrderResponse o = mapper.readValue(line, OrderResponse.class);
+            if (o.customerId().equals(customerId)) {
+                Assertions.assertEquals(1, o.items().size());
+                exported.add(o.id());
+            }
+        }
+        Assertions.assertEquals(created.stream().map(OrderResponse::id).toList(), exported);
+    }
+
+    @Test
+    void idempotency_key_replays_the_first_response_and_waits_for_concurrent_duplicates() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        var req = new CreateOrderRequest(customerId, "USD",
+                List.of(new OrderItemRequest("SKU-1", "Mouse", 1, Money.parse("9.99"))));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", UUID.randomUUID().toString());
+
+        List<Future<ResponseEntity<OrderResponse>>> calls = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                calls.add(pool.submit(() -> http.exchange("/api/v1/orders", HttpMethod.POST,
+                        new HttpEntity<>(req, headers), OrderResponse.class)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        List<ResponseEntity<OrderResponse>> responses = new ArrayList<>();
+        for (var call : calls) responses.add(call.get(30, TimeUnit.SECONDS));
+
+        OrderResponse first = responses.get(0).getBody();
+        for (var r : responses) {
+            Assertions.assertEquals(HttpStatus.CREATED, r.getStatusCode());
+            Assertions.assertEquals(first, r.getBody());
+            Assertions.assertEquals(URI.create("/api/v1/orders/" + first.id()), r.getHeaders().getLocation());
+        }
+        Assertions.assertEquals(1, responses.stream().filter(r -> !r.getHeaders().containsKey("Idempotent-Replayed")).count());
+        Assertions.assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM orders WHERE customer_id = ?", Integer.class, customerId));
+        Assertions.assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM outbox_events WHERE aggregate_id = ?", Integer.class, first.id()));
+
+        var changed = new CreateOrderRequest(customerId, "USD",
+                List.of(new OrderItemRequest("SKU-1", "Mouse", 2, Money.parse("9.99"))));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, http.exchange("/api/v1/orders", HttpMethod.POST,
+                new HttpEntity<>(changed, headers), String.class).getStatusCode());
+
+        // a key completed on another instance is only in the table
+        HttpHeaders other = new HttpHeaders();
+        other.set("Idempotency-Key", UUID.randomUUID().toString());
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json.writeValueAsBytes(changed)));
+        jdbc.update("INSERT INTO idempotency_keys (key, request_hash, order_id, response, expires_at) VALUES (?, ?, ?, ?::jsonb, now() + interval '1 hour')",
+                other.getFirst("Idempotency-Key"), hash, first.id(), json.writeValueAsString(first));
+        ResponseEntity<OrderResponse> fromTable = http.exchange("/api/v1/orders", HttpMethod.POST,
+                new HttpEntity<>(changed, other), OrderResponse.class);
+        Assertions.assertEquals("true", fromTable.getHeaders().getFirst("Idempotent-Replayed"));
+        Assertions.assertEquals(first, fromTable.getBody());
+        Assertions.assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM orders WHERE customer_id = ?", Integer.class, customerId));
+    }
+
+    @Test
+    void status_transitions_follow_the_lifecycle_and_race_to_a_single_winner() throws Exception {
+        var req = new CreateOrderRequest(UUID.randomUUID(), "USD",
+                List.of(new OrderItemRequest("SKU-1", "Mouse", 1, Money.parse("9.99")),
+                        new OrderItemRequest("SKU-2", "Pad", 2, Money.parse("1.50"))));
+        UUID id = http.postForObject("/api/v1/orders", req, OrderResponse.class).id();
+
+        Assertions.assertEquals("paid", patch(id, "pay", OrderResponse.class).getBody().status());
+        ResponseEntity<OrderResponse> fulfilled = patch(id, "fulfill", OrderResponse.class);
+        Assertions.assertEquals("fulfilled", fulfilled.getBody().status());
+        Assertions.assertEquals(2, fulfilled.getBody().items().size());
+        Assertions.assertEquals(Money.parse("12.99"), fulfilled.getBody().total());
+        Assertions.assertEquals(HttpStatus.CONFLICT, patch(id, "cancel", String.class).getStatusCode());
+        Assertions.assertEquals("refunded", patch(id, "refund", OrderResponse.class).getBody().status());
+        Assertions.assertEquals(HttpStatus.CONFLICT, patch(id, "refund", String.class).getStatusCode());
+        Assertions.assertEquals(3, jdbc.queryForObject("SELECT version FROM orders WHERE id = ?", Long.class, id));
+        Assertions.assertEquals("refunded", http.getForObject("/api/v1/orders/{id}", OrderResponse.class, id).status());
+
+        UUID racing = http.postForObject("/api/v1/orders", req, OrderResponse.class).id();
+        List<Future<ResponseEntity<String>>> calls = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) calls.add(pool.submit(() -> patch(racing, "cancel", String.class)));
+        } finally {
+            pool.shutdown();
+        }
+        List<HttpStatusCode> statuses = new ArrayList<>();
+        for (var call : calls) statuses.add(call.get(30, TimeUnit.SECONDS).getStatusCode());
+        Assertions.assertEquals(1, Collections.frequency(statuses, HttpStatus.OK), statuses.toString());
+        Assertions.assertEquals(3, Collections.frequency(statuses, HttpStatus.CONFLICT), statuses.toString());
+        Assertions.assertEquals(1, jdbc.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE aggregate_id = ? AND topic = ?", Integer.class, racing, Topics.ORDER_CANCELLED));
+
+        // v7 ids take the partition-bounded path, v4 ids probe every partition
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, patch(OrderIds.newId(OffsetDateTime.now()), "pay", String.class).getStatusCode());
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, patch(UUID.randomUUID(), "pay", String.class).getStatusCode());
+    }
+
+    @Test
+    void order_without_item_rows_still_reports_its_transition() {
+        var req = new CreateOrderRequest(UUID.randomUUID(), "USD",
+                List.of(new OrderItemRequest("SKU-1", "Mouse", 1, Money.parse("9.99"))));
+        UUID id = http.postForObject("/api/v1/orders", req, OrderResponse.class).id();
+        jdbc.update("DELETE FROM order_items WHERE order_id = ?", id);
+
+        ResponseEntity<OrderResponse> cancelled = patch(id, "cancel", OrderResponse.class);
+
+        Assertions.assertEquals(HttpStatus.OK, cancelled.getStatusCode());
+        Assertions.assertEquals("cancelled", cancelled.getBody().status());
+        Assertions.assertTrue(cancelled.getBody().items().isEmpty());
+        Assertions.assertEquals(1, jdbc.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE aggregate_id = ? AND topic = ?", Integer.class, id, Topics.ORDER_CANCELLED));
+    }
+
+    private <T> ResponseEntity<T> patch(UUID id, String action, Class<T> body) {
+        return http.exchange("/api/v1/orders/{id}/" + action, HttpMethod.PATCH, HttpEntity.EMPTY, body, Map.of("id", id));
+    }
+
+    @Test
+    void partition_maintenance_premakes_upcoming_and_detaches_expired_months() {
+        UUID customerId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        OffsetDateTime longAgo = OffsetDateTime.parse("2001-01-15T10:00:00Z");
+        jdbc.execute("SELECT fn_create_order_partitions('2001-01-01')");
+        jdbc.update("INSERT INTO customers (id, email, name) VALUES (?, ?, 'Old')", customerId, customerId + "@old.local");
+        jdbc.update("INSERT INTO orders (id, customer_id, status, currency, total, created_at) VALUES (?, ?, 'FULFILLED', 'USD', 1.00, ?)",
+                orderId, customerId, longAgo);
+        jdbc.update("INSERT INTO order_items (id, order_id, order_created_at, sku, name, quantity, unit_price) VALUES (?, ?, ?, 'SKU', 'Old', 1, 1.00)",
+                UUID.randomUUID(), orderId, longAgo);
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        var result = partitionMaintenance.maintain(today);
+
+        Assertions.assertTrue(result.expired().contains(YearMonth.of(2001, 1)), "expired " + result.expired());
+        for (int i = 0; i <= 3; i++) {
+            String suffix = YearMonth.from(today).plusMonths(i).format(DateTimeFormatter.ofPattern("yyyy_MM"));
+            Assertions.assertEquals(Boolean.TRUE, jdbc.queryForObject(
+                    "SELECT relispartition FROM pg_class WHERE relname = ?", Boolean.class, "orders_p" + suffix));
+        }
+        // detached, not dropped: gone from the API, kept as plain tables
+        Assertions.assertEquals(Boolean.FALSE, jdbc.queryForObject(
+                "SELECT relispartition FROM pg_class WHERE relname = 'orders_p2001_01'", Boolean.class));
+        Assertions.assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM order_items_p2001_01", Integer.class));
+        Assertions.assertEquals(1, jdbc.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conname = 'fk_order_items_p2001_01_order'", Integer.class));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, http.getForEntity("/api/v1/orders/{id}", String.class, orderId).getStatusCode());
+        Assertions.assertTrue(partitionMaintenance.maintain(today).expired().isEmpty());
+    }
+
+    private static boolean hasSample(List<String> scrape, String metric, String... labels) {
+        return scrape.stream().anyMatch(l -> l.startsWith(metric) && Arrays.stream(labels).allMatch(l::contains));
+    }
+
     private ConsumerRecord<String, String> pollForEvent(KafkaConsumer<String, String> consumer, String topic, String key) {
         long deadline = System.currentTimeMillis() + 10_000; // 10s
 
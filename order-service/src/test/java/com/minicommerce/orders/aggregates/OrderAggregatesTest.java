@@ -0,0 +1,168 @@
+package com.minicommerce.orders.aggregates;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.repository.OrderAggregateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderAggregatesTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+    private static final Instant AT = Instant.parse("2026-03-02T10:15:30Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OrderAggregateRepository repository = Mockito.mock(OrderAggregateRepository.class);
+    private final TransactionTemplate tx = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+    private final OrderAggregates aggregates = new OrderAggregates(
+            new OrderAggregatesProperties(true, 2, 366), repository, tx, registry);
+
+    @Test
+    void created_and_moved_without_transaction_apply_at_once() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2026, 3, 1, 23, 30, 0, 0, ZoneOffset.ofHours(-2));
+        Order order = order(createdAt, 1250);
+
+        aggregates.created(List.of(order));
+        order.setStatus(OrderStatus.PAID);
+        order.setUpdatedAt(createdAt.plusNanos(400_000_000));
+        aggregates.moved(order, OrderStatus.CREATED);
+
+        // 23:30 at -02:00 is the next UTC day; both changes fall in the same second
+        Instant second = createdAt.toInstant();
+        Map<OrderAggregates.Key, OrderAggregates.Delta> pending = aggregates.drain();
+        OrderAggregates.Delta created = pending.get(key(DAY.plusDays(1), "EUR", OrderStatus.CREATED, second));
+        OrderAggregates.Delta paid = pending.get(key(DAY.plusDays(1), "EUR", OrderStatus.PAID, second));
+        assertEquals(0, created.orders);
+        assertEquals(0, created.minorUnits);
+        assertEquals(1, paid.orders);
+        assertEquals(1250, paid.minorUnits);
+        assertTrue(aggregates.drain().isEmpty());
+    }
+
+    @Test
+    void changes_in_different_seconds_stay_apart() {
+        Order order = order(AT.atOffset(ZoneOffset.UTC), 500);
+        aggregates.created(List.of(order));
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setUpdatedAt(AT.plusSeconds(3).atOffset(ZoneOffset.UTC));
+        aggregates.moved(order, OrderStatus.CREATED);
+
+        aggregates.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderAggregateRepository.Delta>> deltas = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(repository).add(deltas.capture());
+        LocalDate day = LocalDate.of(2026, 3, 2);
+        assertEquals(List.of(
+                new OrderAggregateRepository.Delta(day, "EUR", OrderStatus.CREATED, AT, 1, Money.ofMinor(500)),
+                new OrderAggregateRepository.Delta(day, "EUR", OrderStatus.CREATED, AT.plusSeconds(3), -1,
+                        Money.ofMinor(-500)),
+                new OrderAggregateRepository.Delta(day, "EUR", OrderStatus.CANCELLED, AT.plusSeconds(3), 1,
+                        Money.ofMinor(500))),
+                deltas.getValue());
+    }
+
+    @Test
+    void concurrent_adds_are_all_counted() throws Exception {
+        OrderAggregates.Key key = key(DAY, "EUR", OrderStatus.CREATED, AT);
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) aggregates.add(key, 1, 100);
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        OrderAggregates.Delta delta = aggregates.drain().get(key);
+        assertEquals((long) threads * perThread, delta.orders);
+        assertEquals((long) threads * perThread * 100, delta.minorUnits);
+    }
+
+    @Test
+    void flush_writes_non_zero_deltas_in_key_order() {
+        aggregates.add(key(DAY.plusDays(1), "EUR", OrderStatus.CREATED, AT), 1, 500);
+        aggregates.add(key(DAY, "USD", OrderStatus.PAID, AT), 2, 700);
+        aggregates.add(key(DAY, "EUR", OrderStatus.PAID, AT), 1, 300);
+        // created then moved before the flush: nothing to write
+        aggregates.add(key(DAY, "EUR", OrderStatus.CREATED, AT), 1, 300);
+        aggregates.add(key(DAY, "EUR", OrderStatus.CREATED, AT), -1, -300);
+
+        aggregates.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderAggregateRepository.Delta>> deltas = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(repository).add(deltas.capture());
+        assertEquals(List.of(
+                new OrderAggregateRepository.Delta(DAY, "EUR", OrderStatus.PAID, AT, 1, Money.ofMinor(300)),
+                new OrderAggregateRepository.Delta(DAY, "USD", OrderStatus.PAID, AT, 2, Money.ofMinor(700)),
+                new OrderAggregateRepository.Delta(DAY.plusDays(1), "EUR", OrderStatus.CREATED, AT, 1,
+                        Money.ofMinor(500))),
+                deltas.getValue());
+        assertTrue(aggregates.drain().isEmpty());
+    }
+
+    @Test
+    void failed_flush_keeps_the_deltas() {
+        OrderAggregates.Key key = key(DAY, "EUR", OrderStatus.CREATED, AT);
+        aggregates.add(key, 3, 900);
+        Mockito.doThrow(new IllegalStateException("down")).when(repository).add(Mockito.anyList());
+
+        aggregates.flush();
+        aggregates.add(key, 1, 100);
+
+        OrderAggregates.Delta delta = aggregates.drain().get(key);
+        assertEquals(4, delta.orders);
+        assertEquals(1000, delta.minorUnits);
+        assertEquals(1, registry.get("orders.aggregates.flush").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void disabled_records_nothing() {
+        OrderAggregates off = new OrderAggregates(
+                new OrderAggregatesProperties(false, 2, 366), repository, tx, new SimpleMeterRegistry());
+
+        off.created(List.of(order(OffsetDateTime.now(ZoneOffset.UTC), 100)));
+        off.flush();
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    private static OrderAggregates.Key key(LocalDate day, String currency, OrderStatus status, Instant second) {
+        return new OrderAggregates.Key(day, currency, status, second);
+    }
+
+    private static Order order(OffsetDateTime createdAt, long minorUnits) {
+        Order order = new Order();
+        order.setStatus(OrderStatus.CREATED);
+        order.setCurrency("EUR");
+        order.setTotal(Money.ofMinor(minorUnits));
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+}
@@ -0,0 +1,89 @@
+package com.minicommerce.orders.cache;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class OrderCacheTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordingChannel channel = new RecordingChannel();
+    private final OrderCache cache = new OrderCache(
+            new OrderCacheProperties(true, 100, Duration.ofMinutes(10), OrderCacheProperties.Channel.LOCAL, "t"),
+            channel, registry);
+
+    @Test
+    void loads_once_then_hits() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        OrderResponse first = cache.get(id, i -> { loads.incrementAndGet(); return response(i, "created"); });
+        OrderResponse second = cache.get(id, i -> { loads.incrementAndGet(); return response(i, "created"); });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "orders.by-id").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void eviction_during_load_discards_the_stale_result() {
+        UUID id = UUID.randomUUID();
+
+        // the order changes (and is evicted) while this load is still reading the old row
+        cache.get(id, i -> { cache.evict(i); return response(i, "created"); });
+
+        assertEquals("cancelled", cache.get(id, i -> response(i, "cancelled")).status());
+    }
+
+    @Test
+    void evict_after_commit_without_transaction_evicts_and_broadcasts() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, i -> response(i, "created"));
+
+        cache.evictAfterCommit(id);
+
+        assertEquals(List.of(id), channel.published);
+        assertEquals("cancelled", cache.get(id, i -> response(i, "cancelled")).status());
+    }
+
+    @Test
+    void remote_invalidation_evicts_local_entry() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, i -> response(i, "created"));
+
+        channel.listener.accept(id);
+
+        assertEquals("cancelled", cache.get(id, i -> response(i, "cancelled")).status());
+    }
+
+    private static OrderResponse response(UUID id, String status) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return new OrderResponse(id, UUID.randomUUID(), status, "USD", Money.parse("1.00"), now, now, List.of());
+    }
+
+    private static final class RecordingChannel implements InvalidationChannel {
+        final List<UUID> published = new ArrayList<>();
+        Consumer<UUID> listener;
+
+        @Override
+        public void publish(UUID orderId) {
+            published.add(orderId);
+        }
+
+        @Override
+        public void subscribe(Consumer<UUID> listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.minicommerce.orders.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.events.EventEnvelopeCodec;
+import com.minicommerce.orders.events.Topics;
+import com.minicommerce.orders.repository.OrderTransitions;
+import com.minicommerce.orders.service.OrderService;
+import com.minicommerce.orders.service.StatusChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatusEventConsumerTest {
+    private static final OffsetDateTime AT = OffsetDateTime.of(2026, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final EventEnvelopeCodec codec = new EventEnvelopeCodec(mapper);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OrderService orders = Mockito.mock(OrderService.class);
+    private final Acknowledgment ack = Mockito.mock(Acknowledgment.class);
+    private final StatusEventConsumer consumer = new StatusEventConsumer(orders, codec, mapper, registry);
+    private long offset;
+
+    @Test
+    void keeps_the_latest_stage_per_order_and_applies_the_batch_at_once() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        answer(change -> moved(change, OrderStatus.CREATED));
+
+        // a's shipment overtakes its approval; b's approval is delivered twice
+        consumer.onBatch(List.of(
+                record(Topics.FULFILLMENT_SHIPPED, json("fulfillment.shipped", a)),
+                record(Topics.PAYMENT_APPROVED, json("payment.approved", a)),
+                record(Topics.PAYMENT_APPROVED, json("payment.approved", b)),
+                record(Topics.PAYMENT_APPROVED, json("payment.approved", b))), ack);
+
+        List<StatusChange> changes = applied();
+        assertEquals(List.of(
+                new StatusChange(b, OrderStatus.PAID, EnumSet.of(OrderStatus.CREATED), "payment.approved"),
+                new StatusChange(a, OrderStatus.FULFILLED, EnumSet.of(OrderStatus.CREATED, OrderStatus.PAID),
+                        "fulfillment.shipped")),
+                changes.stream().sorted(Comparator.comparing(c -> c.target().ordinal())).toList());
+        assertEquals(1, count("payment.approved", "applied"));
+        assertEquals(1, count("fulfillment.shipped", "applied"));
+        assertEquals(2, count("payment.approved", "superseded"));
+        Mockito.verify(ack).acknowledge();
+    }
+
+    @Test
+    void reads_binary_envelopes_too() throws Exception {
+        UUID id = UUID.randomUUID();
+        byte[] envelope = codec.encode(UUID.randomUUID(), AT, new String(json("payment.declined", id), StandardCharsets.UTF_8));
+        answer(change -> moved(change, OrderStatus.CREATED));
+
+        consumer.onBatch(List.of(record(Topics.PAYMENT_DECLINED, envelope)), ack);
+
+        assertEquals(List.of(new StatusChange(id, OrderStatus.CANCELLED, EnumSet.of(OrderStatus.CREATED),
+                "payment.declined")), applied());
+    }
+
+    @Test
+    void tells_duplicates_from_conflicts_and_unknown_orders() {
+        UUID paid = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        Map<UUID, OrderStatus> current = Map.of(paid, OrderStatus.PAID, cancelled, OrderStatus.CANCELLED);
+        answer(change -> new OrderTransitions.Result(transitionsChange(change), null, current.get(change.orderId())));
+
+        consumer.onBatch(List.of(
+                record(Topics.PAYMENT_APPROVED, json("payment.approved", paid)),
+                record(Topics.PAYMENT_APPROVED, json("payment.approved", cancelled)),
+                record(Topics.PAYMENT_APPROVED, json("payment.approved", unknown))), ack);
+
+        assertEquals(1, count("payment.approved", "duplicate"));
+        assertEquals(1, count("payment.approved", "conflict"));
+        assertEquals(1, count("payment.approved", "missing"));
+        Mockito.verify(ack).acknowledge();
+    }
+
+    @Test
+    void skips_records_it_cannot_read() {
+        consumer.onBatch(List.of(
+                record(Topics.PAYMENT_APPROVED, "not json".getBytes(StandardCharsets.UTF_8)),
+                record(Topics.PAYMENT_APPROVED, "{\"type\":\"payment.approved\"}".getBytes(StandardCharsets.UTF_8)),
+                // on the wrong topic
+                record(Topics.FULFILLMENT_SHIPPED, json("payment.approved", UUID.randomUUID())),
+                record(Topics.FULFILLMENT_SHIPPED, null)), ack);
+
+        assertEquals(2, count("payment.approved", "invalid"));
+        assertEquals(2, count("fulfillment.shipped", "invalid"));
+        Mockito.verifyNoInteractions(orders);
+        Mockito.verify(ack).acknowledge();
+    }
+
+    @Test
+    void does_not_acknowledge_a_batch_that_failed() {
+        Mockito.when(orders.applyAll(Mockito.anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> consumer.onBatch(
+                List.of(record(Topics.PAYMENT_APPROVED, json("payment.approved", UUID.randomUUID()))), ack));
+
+        Mockito.verifyNoInteractions(ack);
+    }
+
+    private void answer(Function<StatusChange, OrderTransitions.Result> result) {
+        Mockito.when(orders.applyAll(Mockito.anyList())).thenAnswer(inv -> {
+            List<StatusChange> changes = inv.getArgument(0);
+            List<OrderTransitions.Result> results = new ArrayList<>();
+            for (StatusChange c : changes) results.add(result.apply(c));
+            return results;
+        });
+    }
+
+    private List<StatusChange> applied() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StatusChange>> changes = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(orders).applyAll(changes.capture());
+        return changes.getValue();
+    }
+
+    private static OrderTransitions.Result moved(StatusChange change, OrderStatus from) {
+        Order order = new Order();
+        order.setId(change.orderId());
+        order.setStatus(change.target());
+        return new OrderTransitions.Result(transitionsChange(change), new OrderTransitions.Moved(order, from), from);
+    }
+
+    private static OrderTransitions.Change transitionsChange(StatusChange change) {
+        return new OrderTransitions.Change(change.orderId(), change.target(), change.from(), null, null);
+    }
+
+    private double count(String type, String outcome) {
+        return registry.get("orders.status-events").tag("type", type).tag("outcome", outcome).counter().count();
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic, byte[] value) {
+        return new ConsumerRecord<>(topic, 0, offset++, null, value);
+    }
+
+    private byte[] json(String type, UUID orderId) {
+        String at = switch (type) {
+            case "payment.approved" -> "approvedAt";
+            case "payment.declined" -> "declinedAt";
+            case "fulfillment.shipped" -> "shippedAt";
+            default -> "failedAt";
+        };
+        String reference = type.startsWith("payment") ? "paymentId" : "shipmentId";
+        return """
+                {"type":"%s","version":"v1","orderId":"%s","%s":"%s","%s":"%s"}"""
+                .formatted(type, orderId, reference, UUID.randomUUID(), at, AT)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,28 @@
+package com.minicommerce.orders.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaLagTest {
+
+    @Test
+    void disconnected_receiver_is_not_current_although_it_replayed_all_it_received() {
+        assertTrue(Double.isNaN(ReplicaLag.lagSeconds(true, null, false, 0.5)), "no receiver");
+        assertTrue(Double.isNaN(ReplicaLag.lagSeconds(true, "waiting", false, 0.5)), "receiver waiting");
+        assertTrue(Double.isNaN(ReplicaLag.lagSeconds(true, "stopping", true, 0.0)), "receiver stopping");
+    }
+
+    @Test
+    void streaming_replica_is_behind_by_its_last_replayed_transaction_until_it_reaches_the_primary() {
+        assertEquals(0, ReplicaLag.lagSeconds(true, "streaming", true, 3600.0));
+        assertEquals(2.5, ReplicaLag.lagSeconds(true, "streaming", false, 2.5));
+        assertTrue(Double.isNaN(ReplicaLag.lagSeconds(true, "streaming", false, null)), "nothing replayed yet");
+    }
+
+    @Test
+    void database_not_in_recovery_is_current() {
+        assertEquals(0, ReplicaLag.lagSeconds(false, null, null, null));
+    }
+}
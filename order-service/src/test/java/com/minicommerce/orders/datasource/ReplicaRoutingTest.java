@@ -0,0 +1,169 @@
+package com.minicommerce.orders.datasource;
+
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.OrderIds;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing against a stand-in replica: a second database in the same Postgres, migrated but never written by the
+ * service. Rows only the stand-in has are visible exactly when a read was routed to it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@Testcontainers
+class ReplicaRoutingTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    @Container
+    static KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+
+    static DriverManagerDataSource standIn;
+
+    @DynamicPropertySource
+    static void datasourceProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        registry.add("orders.replica.enabled", () -> "true");
+        registry.add("orders.replica.url", () -> createStandIn(postgres::getJdbcUrl, postgres::getUsername, postgres::getPassword));
+        registry.add("orders.replica.username", postgres::getUsername);
+        registry.add("orders.replica.password", postgres::getPassword);
+        registry.add("orders.replica.max-lag", () -> "1s");
+        registry.add("orders.replica.read-your-writes", () -> "1s");
+        // the tests run lag checks by hand
+        registry.add("orders.replica.lag-check-interval", () -> "PT1H");
+        // every GET must reach a database
+        registry.add("orders.cache.enabled", () -> "false");
+        registry.add("orders.partitions.enabled", () -> "false");
+    }
+
+    static synchronized String createStandIn(Supplier<String> url, Supplier<String> user, Supplier<String> password) {
+        if (standIn == null) {
+            try (Connection c = DriverManager.getConnection(url.get(), user.get(), password.get())) {
+                c.createStatement().execute("CREATE DATABASE replica");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            standIn = new DriverManagerDataSource(url.get().replaceFirst("/[^/?]+(\\?|$)", "/replica$1"), user.get(), password.get());
+            Flyway.configure().dataSource(standIn).load().migrate();
+        }
+        return standIn.getUrl();
+    }
+
+    @Autowired
+    TestRestTemplate http;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ReplicaLag lag;
+
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void setup() {
+        http.getRestTemplate()
+                .setRequestFactory(new HttpComponentsClientHttpRequestFactory(HttpClients.createDefault()));
+        replica = new JdbcTemplate(standIn);
+        lag.check();
+        assertTrue(lag.usable(), "stand-in replica usable");
+    }
+
+    @Test
+    void read_only_requests_are_served_by_the_replica() {
+        UUID id = insertReplicaOnly();
+
+        assertEquals(HttpStatus.OK, http.getForEntity("/api/v1/orders/{id}", OrderResponse.class, id).getStatusCode());
+        String page = http.getForObject("/api/v1/orders?size=200&view=summary", String.class);
+        assertTrue(page.contains(id.toString()), "list from the replica");
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM orders WHERE id = ?", Integer.class, id));
+
+        List<String> scrape = http.getForObject("/actuator/prometheus", String.class).lines().toList();
+        assertTrue(scrape.stream().anyMatch(l -> l.startsWith("orders_datasource_routed_total")
+                && l.contains("pool=\"replica\"") && l.contains("reason=\"read\"")), "routing counter");
+        assertTrue(scrape.stream().anyMatch(l -> l.startsWith("hikaricp_connections_active")
+                && l.contains("pool=\"replica\"")), "replica pool gauges");
+        assertTrue(scrape.stream().anyMatch(l -> l.startsWith("orders_replica_usable") && l.endsWith(" 1.0")), "usable gauge");
+    }
+
+    @Test
+    void own_writes_are_read_from_the_primary_until_the_window_ends() throws Exception {
+        var req = new CreateOrderRequest(UUID.randomUUID(), "USD",
+                List.of(new OrderItemRequest("SKU-1", "Mouse", 1, Money.parse("9.99"))));
+        UUID id = http.postForObject("/api/v1/orders", req, OrderResponse.class).id();
+
+        // the stand-in never receives the write, so these can only have come from the primary
+        assertEquals("created", http.getForObject("/api/v1/orders/{id}", OrderResponse.class, id).status());
+        assertEquals(HttpStatus.OK, http.exchange("/api/v1/orders/{id}/cancel", HttpMethod.PATCH, HttpEntity.EMPTY,
+                OrderResponse.class, id).getStatusCode());
+        assertEquals("cancelled", http.getForObject("/api/v1/orders/{id}", OrderResponse.class, id).status());
+
+        Thread.sleep(1500);
+        assertEquals(HttpStatus.NOT_FOUND, http.getForEntity("/api/v1/orders/{id}", String.class, id).getStatusCode());
+    }
+
+    @Test
+    void unreachable_replica_sends_reads_to_the_primary() {
+        UUID id = insertReplicaOnly();
+        try {
+            jdbc.execute("ALTER DATABASE replica ALLOW_CONNECTIONS false");
+            jdbc.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE datname = 'replica'");
+            lag.check();
+            assertTrue(!lag.usable(), "replica marked unusable");
+
+            assertEquals(HttpStatus.NOT_FOUND, http.getForEntity("/api/v1/orders/{id}", String.class, id).getStatusCode());
+        } finally {
+            jdbc.execute("ALTER DATABASE replica ALLOW_CONNECTIONS true");
+        }
+        lag.check();
+        assertTrue(lag.usable(), "replica usable again");
+    }
+
+    private UUID insertReplicaOnly() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        UUID customerId = UUID.randomUUID();
+        UUID id = OrderIds.newId(now);
+        replica.update("INSERT INTO customers (id, email, name) VALUES (?, ?, 'Replica')", customerId, customerId + "@replica.local");
+        replica.update("INSERT INTO orders (id, customer_id, status, currency, total, created_at) VALUES (?, ?, 'CREATED', 'USD', 1.00, ?)",
+                id, customerId, now);
+        replica.update("INSERT INTO order_items (id, order_id, order_created_at, sku, name, quantity, unit_price) VALUES (?, ?, ?, 'SKU', 'Replica', 1, 1.00)",
+                UUID.randomUUID(), id, now);
+        return id;
+    }
+}
@@ -0,0 +1,162 @@
+package com.minicommerce.orders.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Money must reproduce what the BigDecimal code stored and served: totals and line totals as
+ * {@code unitPrice * quantity} sums, rounded to the {@code NUMERIC(12,2)} columns, rendered with two decimals.
+ */
+class MoneyTest {
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    // orders.total is NUMERIC(12,2); larger totals are rejected, never stored
+    private static final BigDecimal MAX_TOTAL = new BigDecimal("9999999999.99");
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Property
+    void order_total_matches_bigdecimal(@ForAll("lines") List<Line> lines) {
+        BigDecimal expected = BigDecimal.ZERO;
+        for (Line line : lines) {
+            expected = expected.add(line.price.multiply(BigDecimal.valueOf(line.quantity)));
+        }
+        List<OrderItemRequest> requests = lines.stream()
+                .map(l -> new OrderItemRequest("SKU", "Item", l.quantity, Money.of(l.price)))
+                .toList();
+
+        if (expected.compareTo(MAX_TOTAL) > 0) {
+            assertThrows(ArithmeticException.class, () -> OrderMapper.total(requests));
+        } else {
+            assertEquals(stored(expected), OrderMapper.total(requests).toString());
+        }
+    }
+
+    @Property
+    void line_total_matches_bigdecimal(@ForAll("prices") BigDecimal price, @ForAll @IntRange(min = 1, max = 10_000) int quantity) {
+        // reads multiplied the stored (scale 2) unit price by the quantity
+        BigDecimal expected = price.setScale(2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(quantity));
+
+        Money line = OrderMapper.toItemResponse(UUID.randomUUID(), "SKU", "Item", quantity, Money.of(price)).lineTotal();
+
+        assertEquals(expected.toPlainString(), line.toString());
+    }
+
+    @Property
+    void parse_agrees_with_bigdecimal(@ForAll("signedPrices") BigDecimal amount, @ForAll @IntRange(max = 3) int extraZeros) {
+        String text = amount.toPlainString() + (amount.scale() > 0 ? "0".repeat(extraZeros) : "");
+
+        Money parsed = Money.parse(text);
+
+        assertEquals(Money.of(amount), parsed);
+        assertEquals(amount.setScale(2).toPlainString(), parsed.toString());
+        assertEquals(0, parsed.toBigDecimal().compareTo(amount));
+    }
+
+    @Property
+    void sub_cent_amounts_are_rejected_not_rounded(@ForAll("prices") BigDecimal price, @ForAll @IntRange(min = 1, max = 9) int digit) {
+        String text = price.setScale(2).toPlainString() + digit;
+
+        assertThrows(ArithmeticException.class, () -> Money.parse(text));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal(text)));
+    }
+
+    @Property
+    void arithmetic_overflows_exactly_when_long_would(@ForAll long minor, @ForAll int quantity) {
+        BigDecimal exact = BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(quantity));
+        boolean fits = exact.compareTo(LONG_MAX) <= 0 && exact.compareTo(LONG_MIN) >= 0;
+
+        if (fits) {
+            assertEquals(exact.longValueExact(), Money.ofMinor(minor).times(quantity).minorUnits());
+        } else {
+            assertThrows(ArithmeticException.class, () -> Money.ofMinor(minor).times(quantity));
+        }
+    }
+
+    @Property
+    void json_round_trips_as_a_two_decimal_number(@ForAll("signedPrices") BigDecimal amount) throws Exception {
+        Money money = Money.of(amount);
+
+        String text = json.writeValueAsString(money);
+
+        assertEquals(amount.setScale(2).toPlainString(), text);
+        assertEquals(money, json.readValue(text, Money.class));
+    }
+
+    @Example
+    void json_accepts_strings_and_rejects_sub_cent_precision() throws Exception {
+        assertEquals(Money.ofMinor(1999), json.readValue("\"19.99\"", Money.class));
+        assertEquals(Money.ofMinor(1999), json.readValue("19.990", Money.class));
+        assertEquals(Money.ofMinor(500), json.readValue("5", Money.class));
+        assertEquals(Money.ofMinor(150), json.readValue("1.5e0", Money.class));
+        assertThrows(InvalidFormatException.class, () -> json.readValue("19.999", Money.class));
+        assertThrows(InvalidFormatException.class, () -> json.readValue("\"abc\"", Money.class));
+    }
+
+    @Example
+    void decimal_min_applies_to_money_with_the_same_message() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        var negative = validator.validate(new OrderItemRequest("SKU", "Item", 1, Money.ofMinor(-1)));
+
+        assertEquals(0, validator.validate(new OrderItemRequest("SKU", "Item", 1, Money.ZERO)).size());
+        assertEquals(1, negative.size());
+        assertEquals("must be greater than or equal to 0.0", negative.iterator().next().getMessage());
+    }
+
+    /**
+     * What the {@code NUMERIC(12,2)} column kept of a BigDecimal, as served on later reads.
+     */
+    private static String stored(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    @Provide
+    Arbitrary<List<Line>> lines() {
+        return Combinators.combine(prices(), Arbitraries.integers().between(1, 1_000))
+                .as(Line::new)
+                .list().ofMinSize(1).ofMaxSize(50);
+    }
+
+    /**
+     * Up to 99,999,999.99 at the scale a client might send it: {@code 5}, {@code 5.5} or {@code 5.55}.
+     */
+    @Provide
+    Arbitrary<BigDecimal> prices() {
+        return Arbitraries.longs().between(0, 9_999_999_999L)
+                .edgeCases(c -> c.add(0L).add(1L).add(100L))
+                .map(MoneyTest::asSent);
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> signedPrices() {
+        return Arbitraries.longs().between(-999_999_999_999L, 999_999_999_999L).map(MoneyTest::asSent);
+    }
+
+    private static BigDecimal asSent(long minor) {
+        BigDecimal value = BigDecimal.valueOf(minor, 2).stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    record Line(BigDecimal price, int quantity) { }
+}
@@ -0,0 +1,172 @@
+package com.minicommerce.orders.events;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventEnvelopeCodecTest {
+    private static final OffsetDateTime AT = OffsetDateTime.of(2026, 1, 15, 12, 0, 0, 123_456_000, ZoneOffset.UTC);
+
+    // as configured by Spring Boot, which the outbox writer uses: ISO-8601 timestamps
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final EventEnvelopeCodec codec = new EventEnvelopeCodec(mapper);
+    private final ObjectReader exact = mapper.reader()
+            .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .without(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES);
+
+    @Test
+    void created_event_round_trips_with_amounts_at_their_scale() throws Exception {
+        String json = mapper.writeValueAsString(OrderMapper.toCreatedEvent(order(10)));
+        UUID eventId = UUID.randomUUID();
+
+        EventEnvelopeCodec.Envelope envelope = codec.decode(codec.encode(eventId, AT, json));
+
+        assertEquals(eventId, envelope.eventId());
+        assertEquals("order.created", envelope.type());
+        assertEquals("v1", envelope.version());
+        assertEquals(AT, envelope.occurredAt());
+        assertEquals(withoutHeader(json), envelope.data());
+        assertEquals("19.90", envelope.data().get("items").get(0).get("unitPrice").decimalValue().toPlainString());
+    }
+
+    @Test
+    void cancelled_event_round_trips_with_and_without_reason() throws Exception {
+        for (String reason : new String[]{"customer request", null}) {
+            String json = mapper.writeValueAsString(
+                    new OrderCancelledEvent("order.cancelled", "v1", UUID.randomUUID(), AT, reason));
+
+            EventEnvelopeCodec.Envelope envelope = codec.decode(codec.encode(UUID.randomUUID(), AT, json));
+
+            assertEquals(withoutHeader(json), envelope.data());
+        }
+    }
+
+    @Test
+    void encoding_ignores_key_order_and_whitespace() throws Exception {
+        // the outbox stores JSONB, which hands payloads back reformatted
+        String json = mapper.writeValueAsString(OrderMapper.toCreatedEvent(order(3)));
+        JsonNode original = exact.readTree(json);
+        List<String> names = new ArrayList<>();
+        original.fieldNames().forEachRemaining(names::add);
+        ObjectNode reordered = mapper.createObjectNode();
+        for (String name : names.reversed()) reordered.set(name, original.get(name));
+        UUID eventId = UUID.randomUUID();
+
+        assertArrayEquals(codec.encode(eventId, AT, json),
+                codec.encode(eventId, AT, reordered.toPrettyString()));
+    }
+
+    @Test
+    void envelope_is_smaller_than_json() throws Exception {
+        String json = mapper.writeValueAsString(OrderMapper.toCreatedEvent(order(10)));
+
+        byte[] binary = codec.encode(UUID.randomUUID(), AT, json);
+
+        assertThat(binary.length).isLessThan(json.getBytes(StandardCharsets.UTF_8).length / 2);
+    }
+
+    @Test
+    void rejects_payloads_that_do_not_match_their_schema() throws Exception {
+        ObjectNode created = (ObjectNode) mapper.readTree(
+                mapper.writeValueAsString(OrderMapper.toCreatedEvent(order(1))));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.encode(UUID.randomUUID(), AT, created.deepCopy().put("extra", 1).toString()));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.encode(UUID.randomUUID(), AT, created.deepCopy().without("total").toString()));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.encode(UUID.randomUUID(), AT, created.deepCopy().put("version", "v9").toString()));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.encode(UUID.randomUUID(), AT, "{\"orderId\":\"" + UUID.randomUUID() + "\"}"));
+    }
+
+    @Test
+    void tells_envelopes_from_json() throws Exception {
+        String json = mapper.writeValueAsString(OrderMapper.toCreatedEvent(order(1)));
+
+        assertTrue(EventEnvelopeCodec.isEnvelope(codec.encode(UUID.randomUUID(), AT, json)));
+        assertFalse(EventEnvelopeCodec.isEnvelope(json.getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void encoder_picks_the_format_per_topic() throws Exception {
+        var props = new EventsProperties(null, null, new EventsProperties.Encoding(
+                EventsProperties.Format.JSON, Map.of(Topics.ORDER_CREATED, EventsProperties.Format.BINARY)));
+        var registry = new SimpleMeterRegistry();
+        var encoder = new EventEncoder(props, codec, registry);
+        String created = mapper.writeValueAsString(OrderMapper.toCreatedEvent(order(1)));
+        String cancelled = mapper.writeValueAsString(
+                new OrderCancelledEvent("order.cancelled", "v1", UUID.randomUUID(), AT, null));
+
+        assertTrue(EventEnvelopeCodec.isEnvelope(encoder.encode(Topics.ORDER_CREATED, UUID.randomUUID(), AT, created)));
+        assertArrayEquals(cancelled.getBytes(StandardCharsets.UTF_8),
+                encoder.encode(Topics.ORDER_CANCELLED, UUID.randomUUID(), AT, cancelled));
+        assertEquals(1, registry.get("events.encoded.size").tag("format", "binary").summary().count());
+        assertEquals(1, registry.get("events.encoded.size").tag("format", "json").summary().count());
+    }
+
+    @Test
+    void packaged_schemas_match_the_documented_ones() throws IOException {
+        Path docs = Path.of("..", "docs", "api", "events");
+        try (Stream<Path> files = Files.list(docs)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".json")).toList()) {
+                try (InputStream packaged = getClass().getResourceAsStream("/events/" + file.getFileName())) {
+                    assertThat(packaged).as("events/%s on the classpath", file.getFileName()).isNotNull();
+                    assertEquals(mapper.readTree(file.toFile()), mapper.readTree(packaged),
+                            "events/" + file.getFileName() + " differs from docs/api/events");
+                }
+            }
+        }
+    }
+
+    private JsonNode withoutHeader(String json) throws IOException {
+        return ((ObjectNode) exact.readTree(json)).without(List.of("type", "version"));
+    }
+
+    private static Order order(int items) {
+        var lines = IntStream.range(0, items)
+                .mapToObj(i -> new OrderItemRequest("SKU-" + i, "Item " + i, 1 + i % 3,
+                        Money.ofMinor(1990 + i * 1_337L)))
+                .toList();
+        Order order = OrderMapper.toEntity(new CreateOrderRequest(UUID.randomUUID(), "USD", lines));
+        order.setCreatedAt(AT);
+        order.setUpdatedAt(AT);
+        return order;
+    }
+}
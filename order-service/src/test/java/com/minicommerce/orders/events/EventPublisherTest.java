@@ -1,12 +1,24 @@
 package com.minicommerce.orders.events;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.SerializationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class EventPublisherTest {
@@ -41,4 +53,134 @@ class EventPublisherTest {
         assertThrows(RuntimeException.class, () -> publisher.publish("t", "k", new Object()));
         Mockito.verify(kafka, Mockito.times(3)).send(Mockito.anyString(), Mockito.anyString(), Mockito.any());
     }
+
+    @Test
+    void publish_async_returns_before_ack_and_retries_from_callback() throws Exception {
+        KafkaTemplate<String, Object> kafka = Mockito.mock(KafkaTemplate.class);
+        EventPublisher publisher = new EventPublisher(kafka, config(3, DataSize.ofMegabytes(1)));
+
+        CompletableFuture<SendResult<String, Object>> first = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, Object>> second = new CompletableFuture<>();
+        Mockito.when(kafka.send(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(first, second);
+
+        CompletableFuture<Void> result = publisher.publishAsync("t", "k", new Object());
+        assertFalse(result.isDone());
+
+        first.completeExceptionally(new RuntimeException("broker blip"));
+        Mockito.verify(kafka, Mockito.timeout(1000).times(2)).send(Mockito.anyString(), Mockito.anyString(), Mockito.any());
+        assertFalse(result.isDone());
+
+        second.complete(null);
+        result.get(1, TimeUnit.SECONDS);
+        assertEquals(0, publisher.inFlightBytes());
+    }
+
+    @Test
+    void publish_async_retries_off_the_thread_that_completed_the_failed_send() throws Exception {
+        KafkaTemplate<String, Object> kafka = Mockito.mock(KafkaTemplate.class);
+        EventPublisher publisher = new EventPublisher(kafka, config(2, DataSize.ofMegabytes(1)));
+
+        CompletableFuture<SendResult<String, Object>> first = new CompletableFuture<>();
+        CompletableFuture<Thread> resentOn = new CompletableFuture<>();
+        Mockito.when(kafka.send(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(first)
+                .thenAnswer(inv -> {
+                    resentOn.complete(Thread.currentThread());
+                    return CompletableFuture.completedFuture(null);
+                });
+
+        CompletableFuture<Void> result = publisher.publishAsync("t", "k", new Object());
+        // stands in for the producer's I/O thread; the backoff is zero
+        first.completeExceptionally(new RuntimeException("broker blip"));
+
+        result.get(1, TimeUnit.SECONDS);
+        assertNotSame(Thread.currentThread(), resentOn.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void publish_async_does_not_retry_permanent_errors() {
+        KafkaTemplate<String, Object> kafka = Mockito.mock(KafkaTemplate.class);
+        EventPublisher publisher = new EventPublisher(kafka, config(3, DataSize.ofMegabytes(1)));
+
+        Mockito.when(kafka.send(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.failedFuture(new SerializationException("bad payload")));
+
+        var result = publisher.publishAsync("t", "k", new Object());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertThat(e.getCause()).hasCauseInstanceOf(SerializationException.class);
+        Mockito.verify(kafka, Mockito.times(1)).send(Mockito.anyString(), Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void publish_async_rejects_when_in_flight_bytes_exhausted() throws Exception {
+        KafkaTemplate<String, Object> kafka = Mockito.mock(KafkaTemplate.class);
+        EventPublisher publisher = new EventPublisher(kafka, config(1, DataSize.ofBytes(16)));
+
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        Mockito.when(kafka.send(Mockito.anyString(), Mockito.anyString(), Mockito.any())).thenReturn(pending);
+
+        var first = publisher.publishAsync("t", "k", new byte[10]);
+        assertEquals(11, publisher.inFlightBytes());
+
+        var second = publisher.publishAsync("t", "k", new byte[10]);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+        assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+
+        pending.complete(null);
+        first.get(1, TimeUnit.SECONDS);
+        assertEquals(0, publisher.inFlightBytes());
+    }
+
+    @Test
+    void publish_async_weighs_strings_in_utf8_bytes() throws Exception {
+        KafkaTemplate<String, Object> kafka = Mockito.mock(KafkaTemplate.class);
+        EventPublisher publisher = new EventPublisher(kafka, config(1, DataSize.ofMegabytes(1)));
+
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        Mockito.when(kafka.send(Mockito.anyString(), Mockito.anyString(), Mockito.any())).thenReturn(pending);
+
+        String payload = "caf\u00e9 \u20ac \uD83D\uDCE6";
+        var result = publisher.publishAsync("t", "k", payload);
+        assertEquals(1 + payload.getBytes(StandardCharsets.UTF_8).length, publisher.inFlightBytes());
+
+        pending.complete(null);
+        result.get(1, TimeUnit.SECONDS);
+        assertEquals(0, publisher.inFlightBytes());
+    }
+
+    @Test
+    void publish_async_with_one_attempt_leaves_retries_to_the_caller() {
+        KafkaTemplate<String, Object> kafka = Mockito.mock(KafkaTemplate.class);
+        EventPublisher publisher = new EventPublisher(kafka, config(3, DataSize.ofMegabytes(1)));
+
+        Mockito.when(kafka.send(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker blip")));
+
+        var result = publisher.publishAsync("t", "k", new byte[10], 1);
+        assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        Mockito.verify(kafka, Mockito.times(1)).send(Mockito.anyString(), Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void records_attempts_retries_and_failures_per_topic() {
+        KafkaTemplate<String, Object> kafka = Mockito.mock(KafkaTemplate.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EventPublisher publisher = new EventPublisher(kafka, config(3, DataSize.ofMegabytes(1)), registry);
+
+        Mockito.when(kafka.send(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("down")));
+
+        assertThrows(RuntimeException.class, () -> publisher.publish("t", "k", new Object()));
+
+        assertEquals(3.0, registry.get("events.publish.attempts").tag("topic", "t").counter().count());
+        assertEquals(2.0, registry.get("events.publish.retries").tag("topic", "t").counter().count());
+        assertEquals(1.0, registry.get("events.publish.failures").tags("topic", "t", "reason", "exhausted").counter().count());
+        assertEquals(1, registry.get("events.publish").tags("topic", "t", "outcome", "failure").timer().count());
+    }
+
+    private static EventsProperties.Publisher config(int maxAttempts, DataSize maxInFlight) {
+        return new EventsProperties.Publisher(maxAttempts, Duration.ZERO, Duration.ZERO,
+                maxInFlight, DataSize.ofKilobytes(1), Duration.ZERO);
+    }
 }
@@ -0,0 +1,154 @@
+package com.minicommerce.orders.jfr;
+
+import com.minicommerce.orders.service.OrderMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderJfrSummaryTest {
+    private final OrderMetrics.Operation create = new OrderMetrics(new SimpleMeterRegistry())
+            .operation(OrderMetrics.CREATE, "customer", "persist");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void stages_carry_the_order_and_are_summarized_per_stage_and_outcome() throws Exception {
+        UUID id = UUID.randomUUID();
+        Path file = record(Duration.ZERO, () -> {
+            for (int i = 0; i < 10; i++) create.stage("customer").run(id, 3, () -> sleep(1));
+            create.stage("persist").run(id, 3, () -> sleep(20));
+            assertThrows(IllegalStateException.class, () -> create.stage("persist").run(id, 3, () -> {
+                throw new IllegalStateException("constraint");
+            }));
+        });
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent persist = events.stream()
+                .filter(e -> "persist".equals(e.getString("stage")) && "success".equals(e.getString("outcome")))
+                .findFirst().orElseThrow();
+        assertEquals(id.toString(), persist.getString("orderId"));
+        assertEquals(3, persist.getInt("items"));
+
+        OrderJfrSummary.Summary summary = OrderJfrSummary.read(file, 3);
+        List<String> groups = summary.rows().stream()
+                .map(r -> r.group() + " " + r.outcome() + " " + r.count())
+                .toList();
+        assertEquals(List.of("create/customer success 10", "create/persist error 1", "create/persist success 1"),
+                groups);
+        OrderJfrSummary.Row customer = summary.rows().get(0);
+        assertTrue(customer.p50().compareTo(Duration.ofMillis(1)) >= 0);
+        assertTrue(customer.p50().compareTo(customer.max()) <= 0);
+        assertEquals(3, summary.slowest().size());
+        assertEquals("create/persist", summary.slowest().get(0).group());
+        assertEquals(id.toString(), summary.slowest().get(0).orderId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OrderJfrSummary.print(summary, new PrintStream(out, true, StandardCharsets.UTF_8));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("create/customer"));
+    }
+
+    @Test
+    void threshold_keeps_only_slow_events() throws Exception {
+        Path file = record(Duration.ofMillis(15), () -> {
+            for (int i = 0; i < 5; i++) create.stage("customer").run(() -> { });
+            create.stage("persist").run(() -> sleep(20));
+        });
+
+        List<OrderJfrSummary.Row> rows = OrderJfrSummary.read(file, 0).rows();
+        assertEquals(1, rows.size());
+        assertEquals("create/persist", rows.get(0).group());
+    }
+
+    @Test
+    void requests_take_the_order_id_from_the_path_or_the_location_header() throws Exception {
+        OrderRequestRecorder recorder = new OrderRequestRecorder();
+        UUID created = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+        Path file = record(Duration.ZERO, () -> {
+            MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/v1/orders");
+            MockHttpServletResponse postResponse = new MockHttpServletResponse();
+            recorder.preHandle(post, postResponse, null);
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(post));
+            try {
+                OrderRequestRecorder.items(2);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+            post.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/orders");
+            postResponse.setStatus(201);
+            postResponse.setHeader(HttpHeaders.LOCATION, "/api/v1/orders/" + created);
+            recorder.afterCompletion(post, postResponse, null, null);
+
+            String path = "/api/v1/orders/" + cancelled + "/cancel";
+            MockHttpServletRequest patch = new MockHttpServletRequest("PATCH", path);
+            MockHttpServletResponse patchResponse = new MockHttpServletResponse();
+            recorder.preHandle(patch, patchResponse, null);
+            patch.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/orders/{id}/cancel");
+            patch.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", cancelled.toString()));
+            patchResponse.setStatus(409);
+            recorder.afterCompletion(patch, patchResponse, null, null);
+        });
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(OrderRequestEvent.NAME))
+                .toList();
+        assertEquals(2, events.size());
+        assertEquals(created.toString(), events.get(0).getString("orderId"));
+        assertEquals(2, events.get(0).getInt("items"));
+        assertEquals("success", events.get(0).getString("outcome"));
+        assertEquals(cancelled.toString(), events.get(1).getString("orderId"));
+        assertEquals("/api/v1/orders/{id}/cancel", events.get(1).getString("route"));
+        assertEquals("client_error", events.get(1).getString("outcome"));
+    }
+
+    @Test
+    void nothing_is_begun_without_a_recording() {
+        assertNull(EventPublishEvent.start());
+        assertNull(OrderRequestEvent.start());
+        assertNull(OrderStageEvent.start());
+    }
+
+    private Path record(Duration threshold, Runnable work) throws Exception {
+        Path file = dir.resolve("orders.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : OrderFlightRecording.EVENTS) recording.enable(event).withThreshold(threshold);
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return file;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.minicommerce.orders.service;
+
+import com.minicommerce.orders.repository.CustomerRepository;
+import com.minicommerce.orders.repository.OrderBulkWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KnownCustomersTest {
+    private final CustomerRepository repo = Mockito.mock(CustomerRepository.class);
+    private final OrderBulkWriter bulk = Mockito.mock(OrderBulkWriter.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final KnownCustomers customers = new KnownCustomers(repo, bulk,
+            new CustomerCacheProperties(100, Duration.ofHours(1)), registry);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void upserts_once_then_serves_from_cache() {
+        UUID id = UUID.randomUUID();
+
+        customers.ensureExists(id);
+        customers.ensureExists(id);
+
+        Mockito.verify(repo, Mockito.times(1)).insertIfAbsent(Mockito.eq(id), Mockito.anyString(), Mockito.anyString());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void rolled_back_insert_is_not_remembered() {
+        UUID id = UUID.randomUUID();
+
+        TransactionSynchronizationManager.initSynchronization();
+        customers.ensureExists(id);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        customers.ensureExists(id);
+        Mockito.verify(repo, Mockito.times(2)).insertIfAbsent(Mockito.eq(id), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    void bulk_upserts_only_unknown_ids() {
+        UUID known = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        customers.ensureExists(known);
+
+        customers.ensureAllExist(List.of(known, unknown));
+
+        Mockito.verify(bulk).ensureCustomers(List.of(unknown));
+    }
+}
@@ -1,18 +1,21 @@
 package com.minicommerce.orders.service;
 
+import com.minicommerce.orders.domain.Money;
 import com.minicommerce.orders.events.EventPublisher;
-import com.minicommerce.orders.events.OrderCreatedEvent;
 import com.minicommerce.orders.events.Topics;
+import com.minicommerce.orders.outbox.OutboxRelay;
 import com.minicommerce.orders.repository.OrderRepository;
 import com.minicommerce.orders.web.dto.CreateOrderRequest;
 import com.minicommerce.orders.web.dto.OrderItemRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.KafkaContainer;
@@ -21,9 +24,12 @@ import org.testcontainers.utility.DockerImageName;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -42,15 +48,21 @@ class OrderServiceEventPublishingTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
-        registry.add("spring.flyway.enabled", () -> "false");
         registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        // relay is driven by hand so each test controls when rows move
+        registry.add("outbox.relay-enabled", () -> "false");
+        registry.add("outbox.initial-backoff", () -> "0s");
+        registry.add("outbox.max-attempts", () -> "2");
     }
 
     @Autowired
     OrderService service;
     @Autowired
     OrderRepository orders;
+    @Autowired
+    OutboxRelay relay;
+    @Autowired
+    JdbcTemplate jdbc;
 
     @MockBean
     EventPublisher publisher;
@@ -59,46 +71,150 @@ class OrderServiceEventPublishingTest {
 
     @BeforeEach
     void setup() {
+        jdbc.update("DELETE FROM outbox_events");
         orders.deleteAll();
         request = new CreateOrderRequest(
                 UUID.randomUUID(),
                 "USD",
-                List.of(new OrderItemRequest("SKU1", "Mouse", 1, new BigDecimal("10.00")))
+                List.of(new OrderItemRequest("SKU1", "Mouse", 1, Money.parse("10.00")))
         );
     }
 
     @Test
-    void create_publishes_event_after_commit() {
-        service.create(request);
+    void create_writes_outbox_row_in_same_transaction() {
+        var order = service.create(request);
+
+        var row = outboxRow(order.getId());
+        assertThat(row.get("topic")).isEqualTo(Topics.ORDER_CREATED);
+        assertThat(row.get("key")).isEqualTo(order.getId().toString());
+        assertThat(row.get("status")).isEqualTo("NEW");
+        assertThat((String) row.get("payload")).contains("\"type\": \"order.created\"", "\"version\": \"v1\"");
+        Mockito.verifyNoInteractions(publisher);
+    }
 
-        ArgumentCaptor<OrderCreatedEvent> event = ArgumentCaptor.forClass(OrderCreatedEvent.class);
-        Mockito.verify(publisher).publish(Mockito.eq(Topics.ORDER_CREATED), Mockito.anyString(), event.capture());
-        assertThat(event.getValue().type()).isEqualTo("order.created");
-        assertThat(event.getValue().version()).isEqualTo("v1");
+    @Test
+    void relay_publishes_and_marks_sent() {
+        Mockito.when(publisher.publishAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.eq(1)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        var order = service.create(request);
+
+        assertEquals(1, relay.relayBatch());
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(publisher).publishAsync(Mockito.eq(Topics.ORDER_CREATED), Mockito.eq(order.getId().toString()),
+                payload.capture(), Mockito.eq(1));
+        assertThat(new String((byte[]) payload.getValue(), StandardCharsets.UTF_8)).contains(order.getId().toString());
+        assertThat(outboxRow(order.getId()).get("status")).isEqualTo("SENT");
+        assertEquals(0, relay.relayBatch());
     }
 
     @Test
     void create_persists_even_if_event_publish_fails() {
-        Mockito.doThrow(new RuntimeException("kafka down"))
-                .when(publisher).publish(Mockito.anyString(), Mockito.anyString(), Mockito.any());
+        Mockito.when(publisher.publishAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.eq(1)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("kafka down")));
+
+        var order = service.create(request);
+        relay.relayBatch();
 
-        // Should NOT throw because afterCommit exceptions are swallowed by Spring
-        service.create(request);
         assertEquals(1, orders.count());
-        Mockito.verify(publisher).publish(Mockito.eq(Topics.ORDER_CREATED), Mockito.anyString(), Mockito.any());
+        var row = outboxRow(order.getId());
+        assertThat(row.get("status")).isEqualTo("RETRY");
+        assertThat(row.get("attempts")).isEqualTo(1);
+        assertThat((String) row.get("last_error")).contains("kafka down");
+    }
+
+    @Test
+    void relay_marks_failed_after_max_attempts() {
+        Mockito.when(publisher.publishAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.eq(1)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("kafka down")));
+        var order = service.create(request);
+
+        relay.relayBatch();
+        relay.relayBatch();
+
+        var row = outboxRow(order.getId());
+        assertThat(row.get("status")).isEqualTo("FAILED");
+        assertThat(row.get("attempts")).isEqualTo(2);
+        assertEquals(0, relay.relayBatch());
+    }
+
+    @Test
+    void relay_holds_later_events_of_an_order_behind_an_undelivered_one() {
+        Mockito.when(publisher.publishAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.eq(1)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("kafka down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        var order = service.create(request);
+        relay.relayBatch();
+        jdbc.update("UPDATE outbox_events SET next_attempt_at = now() + interval '1 hour' WHERE aggregate_id = ?",
+                order.getId());
+        service.cancel(order.getId());
+
+        // created waits for its retry; cancelled must not overtake it
+        assertEquals(0, relay.relayBatch());
+
+        jdbc.update("UPDATE outbox_events SET next_attempt_at = now() WHERE aggregate_id = ?", order.getId());
+        assertEquals(1, relay.relayBatch());
+        assertEquals(1, relay.relayBatch());
+
+        InOrder sends = Mockito.inOrder(publisher);
+        sends.verify(publisher, Mockito.times(2))
+                .publishAsync(Mockito.eq(Topics.ORDER_CREATED), Mockito.anyString(), Mockito.any(), Mockito.eq(1));
+        sends.verify(publisher)
+                .publishAsync(Mockito.eq(Topics.ORDER_CANCELLED), Mockito.anyString(), Mockito.any(), Mockito.eq(1));
+        assertEquals(List.of("SENT", "SENT"), jdbc.queryForList(
+                "SELECT status FROM outbox_events WHERE aggregate_id = ? ORDER BY seq", String.class, order.getId()));
     }
 
     @Test
-    void cancel_publishes_event() {
-        service.create(request);
-        Mockito.reset(publisher);
+    void relay_sends_with_the_rows_leased_but_not_locked() throws Exception {
+        CompletableFuture<Void> send = new CompletableFuture<>();
+        Mockito.when(publisher.publishAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.eq(1)))
+                .thenReturn(send);
+        var order = service.create(request);
+
+        CompletableFuture<Integer> batch = CompletableFuture.supplyAsync(relay::relayBatch);
+        Mockito.verify(publisher, Mockito.timeout(5000))
+                .publishAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.eq(1));
+
+        // the claim has committed: the row is visible as IN_FLIGHT, unlocked, and no other relay takes it
+        assertThat(outboxRow(order.getId()).get("status")).isEqualTo("IN_FLIGHT");
+        assertEquals(1, jdbc.queryForList("SELECT id FROM outbox_events WHERE aggregate_id = ? FOR UPDATE NOWAIT",
+                UUID.class, order.getId()).size());
+        assertEquals(0, relay.relayBatch());
+
+        send.complete(null);
+        assertEquals(1, batch.get(5, TimeUnit.SECONDS));
+        assertThat(outboxRow(order.getId()).get("status")).isEqualTo("SENT");
+    }
 
-        var order = orders.findAll().get(0);
+    @Test
+    void relay_claims_rows_again_once_their_lease_is_over() {
+        Mockito.when(publisher.publishAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.eq(1)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        var order = service.create(request);
+        // as left by a relay that died while sending
+        jdbc.update("UPDATE outbox_events SET status = 'IN_FLIGHT', next_attempt_at = now() + interval '1 hour'"
+                + " WHERE aggregate_id = ?", order.getId());
+        assertEquals(0, relay.relayBatch());
+
+        jdbc.update("UPDATE outbox_events SET next_attempt_at = now() WHERE aggregate_id = ?", order.getId());
+        assertEquals(1, relay.relayBatch());
+        assertThat(outboxRow(order.getId()).get("status")).isEqualTo("SENT");
+    }
+
+    @Test
+    void cancel_enqueues_event() {
+        var order = service.create(request);
         service.cancel(order.getId());
 
-        Mockito.verify(publisher)
-                .publish(Mockito.eq(Topics.ORDER_CANCELLED),
-                        Mockito.eq(order.getId().toString()),
-                        Mockito.any());
+        List<String> topics = jdbc.queryForList(
+                "SELECT topic FROM outbox_events WHERE aggregate_id = ? ORDER BY seq", String.class, order.getId());
+        assertThat(topics).containsExactly(Topics.ORDER_CREATED, Topics.ORDER_CANCELLED);
+    }
+
+    private Map<String, Object> outboxRow(UUID aggregateId) {
+        return jdbc.queryForMap(
+                "SELECT topic, key, status, attempts, last_error, payload::text AS payload FROM outbox_events WHERE aggregate_id = ?",
+                aggregateId);
     }
 }
@@ -0,0 +1,143 @@
+package com.minicommerce.orders.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.web.dto.CreateOrderRequest;
+import com.minicommerce.orders.web.dto.OrderItemRequest;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards read and write paths against N+1 regressions by counting JDBC statements Hibernate prepares per request.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderStatementCountTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    @Container
+    static KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+
+    @DynamicPropertySource
+    static void datasourceProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        // the startup partition check runs in its own transaction, which would leak into the counts
+        registry.add("orders.partitions.enabled", () -> "false");
+    }
+
+    @Autowired
+    TestRestTemplate http;
+    @Autowired
+    EntityManagerFactory emf;
+
+    Statistics stats;
+    UUID orderId;
+    UUID customerId;
+
+    @BeforeAll
+    void seed() {
+        var items = IntStream.range(0, 3)
+                .mapToObj(i -> new OrderItemRequest("SKU-" + i, "Item " + i, 1, Money.parse("5.00")))
+                .toList();
+        customerId = UUID.randomUUID();
+        for (int i = 0; i < 20; i++) {
+            var created = http.postForEntity("/api/v1/orders",
+                    new CreateOrderRequest(customerId, "USD", items), OrderResponse.class);
+            orderId = created.getBody().id();
+        }
+    }
+
+    @BeforeEach
+    void resetStats() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void page_without_count_loads_orders_and_items_in_two_statements() {
+        JsonNode page = http.getForObject("/api/v1/orders?size=20&count=none", JsonNode.class);
+
+        assertEquals(20, page.get("content").size());
+        assertEquals(3, page.get("content").get(0).get("items").size());
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void default_page_counts_in_a_third_statement() {
+        JsonNode page = http.getForObject("/api/v1/orders?size=20", JsonNode.class);
+
+        assertEquals(20, page.get("content").size());
+        assertEquals(0, page.get("page").asInt());
+        assertTrue(page.get("totalElements").asLong() >= 20);
+        assertEquals(3, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void summary_view_never_reads_items() {
+        JsonNode page = http.getForObject("/api/v1/orders?size=20&count=none&view=summary", JsonNode.class);
+
+        assertEquals(20, page.get("content").size());
+        assertEquals(null, page.get("content").get(0).get("items"));
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void get_by_id_fetches_order_with_items_in_one_statement_then_serves_from_cache() {
+        OrderResponse order = http.getForObject("/api/v1/orders/{id}", OrderResponse.class, orderId);
+
+        assertEquals(3, order.items().size());
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        stats.clear();
+        OrderResponse cached = http.getForObject("/api/v1/orders/{id}", OrderResponse.class, orderId);
+
+        assertEquals(order, cached);
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getTransactionCount());
+    }
+
+    @Test
+    void create_inserts_header_and_batches_items_without_selects() {
+        var items = IntStream.range(0, 50)
+                .mapToObj(i -> new OrderItemRequest("SKU-" + i, "Item " + i, 1, Money.parse("1.00")))
+                .toList();
+
+        var created = http.postForEntity("/api/v1/orders",
+                new CreateOrderRequest(customerId, "USD", items), OrderResponse.class);
+
+        assertEquals(50, created.getBody().items().size());
+        assertEquals(0, stats.getEntityLoadCount());
+        assertEquals(51, stats.getEntityInsertCount());
+        // repeat customer is served from the known-customer cache: order INSERT + one batched item INSERT
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+}
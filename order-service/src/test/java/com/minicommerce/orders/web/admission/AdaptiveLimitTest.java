@@ -0,0 +1,117 @@
+package com.minicommerce.orders.web.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.function.IntToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the limit with more clients than it admits: every completion is immediately replaced, so the limit is
+ * always in use, and each request's latency is a function of the concurrency it started at.
+ */
+class AdaptiveLimitTest {
+    private static final AdmissionProperties.Limit CONFIG = new AdmissionProperties.Limit(20, 4, 100, 2.0);
+
+    @Test
+    void rejects_at_the_limit_and_admits_again_after_a_release() {
+        AdaptiveLimit limit = new AdaptiveLimit(new AdmissionProperties.Limit(4, 1, 4, 2.0), 0.2);
+        for (int i = 0; i < 4; i++) assertTrue(limit.tryAcquire());
+
+        assertFalse(limit.tryAcquire());
+        limit.release(millis(5), false);
+        assertTrue(limit.tryAcquire());
+        assertEquals(4, limit.inFlight());
+    }
+
+    @Test
+    void grows_while_busy_at_baseline_latency() {
+        AdaptiveLimit limit = new AdaptiveLimit(CONFIG, 0.2);
+
+        saturate(limit, 2_000, n -> millis(10), false);
+
+        assertEquals(100, limit.limit());
+    }
+
+    @Test
+    void does_not_grow_while_mostly_idle() {
+        AdaptiveLimit limit = new AdaptiveLimit(CONFIG, 0.2);
+
+        idle(limit, 500, millis(10));
+
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void settles_near_capacity_when_requests_queue() {
+        AdaptiveLimit limit = new AdaptiveLimit(CONFIG, 0.2);
+        idle(limit, 100, millis(10));
+
+        // a backend that runs 10 requests in parallel at 10 ms each; more than that queue
+        saturate(limit, 20_000, n -> millis(10) * Math.max(n, 10) / 10, false);
+
+        // tolerance 2.0: about twice the backend's parallelism at about twice its latency, and it stays there
+        assertThat(limit.limit()).isBetween(10, 30);
+        assertThat(limit.shortRttNanos()).isLessThanOrEqualTo(3.0 * millis(10));
+    }
+
+    @Test
+    void shrinks_when_latency_rises_and_recovers_when_it_falls() {
+        AdaptiveLimit limit = new AdaptiveLimit(CONFIG, 0.2);
+        saturate(limit, 2_000, n -> millis(10), false);
+        int healthy = limit.limit();
+
+        // the database slows down: everything takes 8x as long
+        saturate(limit, 300, n -> millis(80), false);
+        int overloaded = limit.limit();
+
+        assertThat(overloaded).isLessThan(healthy / 2);
+        assertThat(limit.shortRttNanos()).isGreaterThan(2 * limit.longRttNanos());
+
+        saturate(limit, 2_000, n -> millis(10), false);
+        assertThat(limit.limit()).isGreaterThan(overloaded * 2);
+    }
+
+    @Test
+    void backs_off_on_server_errors_whatever_the_latency() {
+        AdaptiveLimit limit = new AdaptiveLimit(CONFIG, 0.2);
+        saturate(limit, 2_000, n -> millis(10), false);
+        int before = limit.limit();
+
+        saturate(limit, AdaptiveLimit.WINDOW, n -> millis(1), true);
+        assertThat(limit.limit()).isLessThan(before);
+
+        saturate(limit, 2_000, n -> millis(1), true);
+        assertEquals(4, limit.limit());
+    }
+
+    private static void idle(AdaptiveLimit limit, int requests, long rtt) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(rtt, false);
+        }
+    }
+
+    /**
+     * Completes {@code requests} requests, refilling up to the limit before each completion.
+     *
+     * @param rtt latency of a request by the in-flight count it started at
+     */
+    private static void saturate(AdaptiveLimit limit, int requests, IntToLongFunction rtt, boolean failed) {
+        ArrayDeque<Long> running = new ArrayDeque<>();
+        for (int i = 0; i < requests; i++) {
+            while (limit.tryAcquire()) running.add(rtt.applyAsLong(limit.inFlight()));
+            limit.release(running.poll(), failed);
+        }
+        while (!running.isEmpty()) limit.release(running.poll(), failed);
+    }
+
+    private static long millis(long ms) {
+        return Duration.ofMillis(ms).toNanos();
+    }
+}
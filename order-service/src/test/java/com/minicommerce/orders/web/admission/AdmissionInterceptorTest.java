@@ -0,0 +1,90 @@
+package com.minicommerce.orders.web.admission;
+
+import com.minicommerce.orders.web.error.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdmissionInterceptorTest {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch proceed = new CountDownLatch(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // one write at a time, so a second concurrent write is over the limit
+    private final AdmissionProperties props = new AdmissionProperties(true, Duration.ofMillis(1500), 0.2,
+            new AdmissionProperties.Limit(1, 1, 1, 2.0), new AdmissionProperties.Limit(1, 1, 1, 2.0));
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new Handlers())
+            .addInterceptors(new AdmissionInterceptor(props, registry))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void rejects_over_the_limit_with_503_retry_after_and_api_error() throws Exception {
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> {
+            try {
+                mvc.perform(post("/slow")).andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        mvc.perform(post("/write"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.error").value("Service Unavailable"))
+                .andExpect(jsonPath("$.message").value("Too many concurrent order writes (limit 1), retry later"))
+                .andExpect(jsonPath("$.path").value("/write"));
+        // reads have their own limit; unannotated handlers are never limited
+        mvc.perform(get("/read")).andExpect(status().isOk());
+        mvc.perform(get("/open")).andExpect(status().isOk());
+
+        proceed.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        mvc.perform(post("/write")).andExpect(status().isOk());
+
+        assertEquals(1, registry.get("orders.admission.requests")
+                .tags("route", "write", "outcome", "rejected").counter().count());
+        assertEquals(2, registry.get("orders.admission.requests")
+                .tags("route", "write", "outcome", "admitted").counter().count());
+        assertEquals(0, registry.get("orders.admission.in-flight").tag("route", "write").gauge().value());
+    }
+
+    @RestController
+    class Handlers {
+        @PostMapping("/slow")
+        @Admission(RouteClass.WRITE)
+        void slow() throws InterruptedException {
+            started.countDown();
+            proceed.await(5, TimeUnit.SECONDS);
+        }
+
+        @PostMapping("/write")
+        @Admission(RouteClass.WRITE)
+        void write() { }
+
+        @GetMapping("/read")
+        @Admission(RouteClass.READ)
+        void read() { }
+
+        @GetMapping("/open")
+        void open() { }
+    }
+}
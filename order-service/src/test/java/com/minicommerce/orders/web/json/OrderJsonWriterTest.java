@@ -0,0 +1,173 @@
+package com.minicommerce.orders.web.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minicommerce.orders.domain.Money;
+import com.minicommerce.orders.domain.Order;
+import com.minicommerce.orders.domain.OrderItem;
+import com.minicommerce.orders.domain.OrderStatus;
+import com.minicommerce.orders.service.OrderView;
+import com.minicommerce.orders.util.OrderMapper;
+import com.minicommerce.orders.web.dto.OrderResponse;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The streaming writer must produce exactly the bytes Jackson writes for the same bodies with Spring Boot's
+ * defaults, so clients (and caches keyed on the body) cannot tell the two apart.
+ */
+class OrderJsonWriterTest {
+    private static final OffsetDateTime AT = OffsetDateTime.of(2026, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    // what JacksonAutoConfiguration builds
+    private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Example
+    void keyset_page_matches_jackson() throws IOException {
+        OrderPage page = new OrderPage(List.of(order(3, AT), order(0, AT.plusNanos(120_000_000)), order(1, AT)),
+                OrderView.FULL, null, 20, null, null, "cursor");
+
+        assertEquals(jackson(page), streamed(page));
+    }
+
+    @Example
+    void offset_page_with_counts_matches_jackson() throws IOException {
+        OrderPage page = new OrderPage(List.of(order(2, AT)), OrderView.FULL, 3, 1, 42L, 42, null);
+
+        assertEquals(jackson(page), streamed(page));
+    }
+
+    @Example
+    void summary_page_matches_jackson() throws IOException {
+        OrderPage page = new OrderPage(List.of(order(5, AT), order(1, AT)), OrderView.SUMMARY, null, 2, 7L, null, "c");
+
+        assertEquals(jackson(page), streamed(page));
+    }
+
+    @Example
+    void order_response_matches_jackson() throws IOException {
+        Order order = order(4, AT.withOffsetSameInstant(ZoneOffset.ofHours(-5)));
+        order.getItems().get(0).setName("Ünïcødé \"quoted\" \\ line\nbreak");
+        order.getItems().get(1).setUnitPrice(Money.ofMinor(-5));
+        order.getItems().get(2).setUnitPrice(Money.ZERO);
+        OrderResponse response = OrderMapper.toResponse(order);
+
+        assertEquals(jackson(response), streamed(response));
+    }
+
+    @Example
+    void nulls_match_jackson() throws IOException {
+        Order order = order(1, AT);
+        order.setCurrency(null);
+        order.setUpdatedAt(null);
+        order.getItems().get(0).setName(null);
+        OrderPage page = new OrderPage(List.of(order), OrderView.FULL, null, 1, null, null, null);
+
+        assertEquals(jackson(page), streamed(page));
+        assertEquals(jackson(OrderMapper.toResponse(order)), streamed(OrderMapper.toResponse(order)));
+    }
+
+    @Property
+    void timestamps_and_amounts_match_jackson(@ForAll("timestamps") OffsetDateTime at,
+                                             @ForAll("amounts") long minorUnits) throws IOException {
+        Order order = order(1, at);
+        order.setTotal(Money.ofMinor(minorUnits));
+        order.getItems().get(0).setUnitPrice(Money.ofMinor(minorUnits / 3));
+        OrderPage page = new OrderPage(List.of(order), OrderView.FULL, null, 1, null, null, null);
+
+        assertEquals(jackson(page), streamed(page));
+    }
+
+    @Example
+    void stands_down_when_jackson_is_configured_differently() {
+        assertTrue(OrderJsonHttpMessageConverter.compatible(jackson));
+        assertFalse(OrderJsonHttpMessageConverter.compatible(Jackson2ObjectMapperBuilder.json().build()));
+        assertFalse(OrderJsonHttpMessageConverter.compatible(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToEnable(SerializationFeature.INDENT_OUTPUT)
+                .build()));
+    }
+
+    @Provide
+    Arbitrary<OffsetDateTime> timestamps() {
+        Arbitrary<Long> seconds = Arbitraries.longs().between(
+                Instant.parse("-0100-01-01T00:00:00Z").getEpochSecond(),
+                Instant.parse("+12000-01-01T00:00:00Z").getEpochSecond());
+        Arbitrary<Integer> nanos = Arbitraries.oneOf(
+                Arbitraries.just(0), Arbitraries.integers().between(0, 999).map(ms -> ms * 1_000_000),
+                Arbitraries.integers().between(0, 999_999_999));
+        Arbitrary<ZoneOffset> offsets = Arbitraries.oneOf(
+                Arbitraries.just(ZoneOffset.UTC),
+                Arbitraries.integers().between(-18 * 4, 18 * 4).map(q -> ZoneOffset.ofTotalSeconds(q * 900)),
+                Arbitraries.integers().between(-18 * 3600, 18 * 3600).map(ZoneOffset::ofTotalSeconds));
+        return Combinators.combine(seconds, nanos, offsets)
+                .as((s, n, o) -> Instant.ofEpochSecond(s, n).atOffset(o));
+    }
+
+    @Provide
+    Arbitrary<Long> amounts() {
+        return Arbitraries.oneOf(
+                Arbitraries.longs().between(-100_000, 100_000),
+                Arbitraries.longs(),
+                Arbitraries.of(Long.MIN_VALUE, Long.MAX_VALUE, 0L, -1L, 99L, 100L));
+    }
+
+    private String jackson(Object body) throws IOException {
+        return jackson.writeValueAsString(body);
+    }
+
+    private String streamed(Object body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator gen = jackson.getFactory().createGenerator(out)) {
+            OrderJsonWriter writer = new OrderJsonWriter(gen);
+            if (body instanceof OrderPage page) writer.write(page);
+            else writer.write((OrderResponse) body);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Order order(int items, OffsetDateTime at) {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setCustomerId(UUID.randomUUID());
+        order.setStatus(OrderStatus.values()[items % OrderStatus.values().length]);
+        order.setCurrency("USD");
+        order.setCreatedAt(at);
+        order.setUpdatedAt(at.plusSeconds(1));
+        long total = 0;
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem();
+            item.setId(UUID.randomUUID());
+            item.setSku("SKU-" + i);
+            item.setName("Item " + i);
+            item.setQuantity(1 + i % 3);
+            item.setUnitPrice(Money.ofMinor(199 + i * 1_337L));
+            total += item.getUnitPrice().minorUnits() * item.getQuantity();
+            order.addItem(item);
+        }
+        order.setTotal(Money.ofMinor(total));
+        return order;
+    }
+}